@@ -1,4 +0,0 @@
-module com.mycompany.stackoperationsimulator {
-    requires javafx.controls;
-    exports com.mycompany.stackoperationsimulator;
-}
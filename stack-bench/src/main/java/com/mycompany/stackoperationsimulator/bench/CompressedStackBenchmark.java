@@ -0,0 +1,135 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.CompressedStack;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Push and pop throughput of {@link CompressedStack} against the raw
+ * {@code double[]} of {@link StackDemo}.
+ *
+ * <p>Each invocation fills the stack with {@value #ELEMENTS} elements and
+ * empties it again, so every cold block is compressed once and decoded once;
+ * the score is the average cost of one push or pop. The data is one of:</p>
+ * <ul>
+ *   <li>{@code random}: the launcher's random data, -99.99 to 99.99 with two
+ *       decimals</li>
+ *   <li>{@code repeating}: runs of 100 equal values</li>
+ *   <li>{@code counter}: 0, 1, 2, ...</li>
+ * </ul>
+ * <p>{@link #main} first prints the compression ratio of each kind of data,
+ * then runs the benchmarks:</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.CompressedStackBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressedStackBenchmark {
+
+    private static final int ELEMENTS = 1 << 20;
+
+    @Param({"random", "repeating", "counter"})
+    private String data;
+
+    private double[] values;
+    private CompressedStack compressed;
+    private StackDemo raw;
+
+    @Setup
+    public void setup() {
+        values = values(data);
+        compressed = new CompressedStack(ELEMENTS);
+        raw = new StackDemo(ELEMENTS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * ELEMENTS)
+    public double compressed() {
+        for (double value : values) {
+            compressed.push(value);
+        }
+        double sum = 0;
+        while (!compressed.isEmpty()) {
+            sum += compressed.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * ELEMENTS)
+    public double raw() {
+        for (double value : values) {
+            raw.push(value);
+        }
+        double sum = 0;
+        while (!raw.isEmpty()) {
+            sum += raw.pop();
+        }
+        return sum;
+    }
+
+    private static double[] values(String data) {
+        double[] values = new double[ELEMENTS];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < ELEMENTS; i++) {
+            switch (data) {
+                case "random":
+                    values[i] = Math.round(random.nextDouble() * 19998 - 9999) / 100.0;
+                    break;
+                case "repeating":
+                    values[i] = (i / 100) % 50 * 0.25;
+                    break;
+                default:
+                    values[i] = i;
+                    break;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Prints the compression ratio of each kind of data, then runs the
+     * benchmarks.
+     *
+     * @param args ignored
+     * @throws RunnerException if a run fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (String data : new String[] {"random", "repeating", "counter"}) {
+            CompressedStack stack = new CompressedStack(ELEMENTS);
+            for (double value : values(data)) {
+                stack.push(value);
+            }
+            System.out.printf("%-9s %,d elements: %,d raw bytes, %,d compressed bytes, ratio %.2f%n",
+                data, stack.getColdElements(), (long) stack.getColdElements() * Double.BYTES,
+                stack.getColdBytes(), stack.getCompressionRatio());
+        }
+
+        Options options = new OptionsBuilder()
+            .include(CompressedStackBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,170 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.concurrent.FlatCombiningStack;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Shared-stack throughput of {@link FlatCombiningStack} against a
+ * {@code synchronized} wrapper around {@link StackDemo}.
+ *
+ * <p>Every thread pushes with probability {@code pushPercent} and pops
+ * otherwise. Each thread tracks how many elements it has added on balance
+ * and never pops below zero or pushes beyond {@link #PER_THREAD} of its own,
+ * so the shared stack can neither overflow nor underflow and no exceptions
+ * are thrown. Skewed ratios therefore settle at one of those bounds and
+ * alternate there.</p>
+ *
+ * <p>The thread count is fixed per run by JMH; {@link #main} runs the
+ * benchmark with 2 to 64 threads:</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.ContentionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ContentionBenchmark {
+
+    private static final int[] THREAD_COUNTS = {2, 4, 8, 16, 32, 64};
+
+    // Net elements a single thread may add
+    private static final int PER_THREAD = 1024;
+
+    @Param({"synchronized", "flatCombining"})
+    private String implementation;
+
+    @Param({"50", "80", "20"})
+    private int pushPercent;
+
+    private DoubleStack stack;
+
+    @Setup
+    public void setup() {
+        int capacity = THREAD_COUNTS[THREAD_COUNTS.length - 1] * PER_THREAD;
+        stack = "flatCombining".equals(implementation)
+            ? new FlatCombiningStack(capacity, THREAD_COUNTS[THREAD_COUNTS.length - 1])
+            : new SynchronizedStack(new StackDemo(capacity));
+    }
+
+    /**
+     * Per-thread balance and random source.
+     */
+    @State(Scope.Thread)
+    public static class Worker {
+        private int balance;
+        private long seed = System.nanoTime() | 1;
+
+        boolean nextIsPush(int pushPercent) {
+            if (balance == 0) {
+                return true;
+            }
+            if (balance == PER_THREAD) {
+                return false;
+            }
+            // xorshift, cheaper than a shared Random
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            return Math.floorMod(seed, 100) < pushPercent;
+        }
+    }
+
+    @Benchmark
+    public double operation(Worker worker) {
+        if (worker.nextIsPush(pushPercent)) {
+            stack.push(worker.balance++);
+            return 0;
+        }
+        worker.balance--;
+        return stack.pop();
+    }
+
+    /**
+     * Runs the benchmark once per thread count.
+     *
+     * @param args ignored
+     * @throws RunnerException if a run fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                .include(ContentionBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+
+    /**
+     * Coarse-grained lock around a {@link StackDemo}, the baseline.
+     */
+    private static final class SynchronizedStack implements DoubleStack {
+        private final StackDemo stack;
+
+        SynchronizedStack(StackDemo stack) {
+            this.stack = stack;
+        }
+
+        @Override
+        public synchronized void push(double element) {
+            stack.push(element);
+        }
+
+        @Override
+        public synchronized double pop() {
+            return stack.pop();
+        }
+
+        @Override
+        public synchronized double peek() {
+            return stack.peek();
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return stack.isEmpty();
+        }
+
+        @Override
+        public synchronized boolean isFull() {
+            return stack.isFull();
+        }
+
+        @Override
+        public synchronized int size() {
+            return stack.size();
+        }
+
+        @Override
+        public int getCapacity() {
+            return stack.getCapacity();
+        }
+
+        @Override
+        public synchronized double[] getElements() {
+            return stack.getElements();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.text.DoubleFormatter;
+import com.mycompany.stackoperationsimulator.core.text.DoubleParser;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link DoubleParser} and {@link DoubleFormatter} against the JDK conversions.
+ *
+ * <p>{@code typed} values look like user input (two decimals), {@code random}
+ * values are full-precision doubles from the launcher's range. Scores are per
+ * value. Run with {@code -prof gc} to compare allocation rates.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoubleCodecBenchmark {
+
+    private static final int COUNT = 1024;
+
+    // Rows visible in the simulator at the launcher's largest stack size
+    private static final int VISIBLE = 20;
+
+    @Param({"typed", "random"})
+    private String values;
+
+    private double[] numbers;
+    private String[] texts;
+    private char[] buffer;
+    private DoubleFormatter formatter;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        numbers = new double[COUNT];
+        texts = new String[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            double value = random.nextDouble() * 199.98 - 99.99;
+            if ("typed".equals(values)) {
+                value = Math.round(value * 100) / 100.0;
+            }
+            numbers[i] = value;
+            texts[i] = Double.toString(value);
+        }
+        buffer = new char[DoubleFormatter.MAX_LENGTH];
+        formatter = new DoubleFormatter();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public double parseJdk() {
+        double sum = 0;
+        for (String text : texts) {
+            sum += Double.parseDouble(text);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public double parseFast() {
+        double sum = 0;
+        for (String text : texts) {
+            sum += DoubleParser.parse(text);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void formatJdk(Blackhole blackhole) {
+        for (double number : numbers) {
+            blackhole.consume(String.valueOf(number));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int formatToBuffer() {
+        int length = 0;
+        for (double number : numbers) {
+            length += DoubleFormatter.format(number, buffer, 0);
+        }
+        return length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void formatCached(Blackhole blackhole) {
+        // A screenful of values formatted over and over, like display refreshes
+        for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(formatter.format(numbers[i % VISIBLE]));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.io.DurableStack;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Durable operations per second and commit latency of {@link DurableStack}.
+ *
+ * <p>Each invocation is a durable push followed by a durable pop, each
+ * returning once its group commit has been forced to disk. The throughput
+ * score is durable operations per microsecond across all threads; the
+ * sample-time score is the commit latency per operation. The log lives in
+ * a temporary directory, so the numbers depend on the file system backing
+ * it.</p>
+ *
+ * <p>{@link #main} runs the benchmark with 1, 4, 16 and 64 threads:</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.DurableStackBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DurableStackBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+
+    @Param({"0", "200", "1000"})
+    private long commitWindowMicros;
+
+    private Path directory;
+    private DurableStack stack;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("durable-stack");
+        // Every thread holds at most one element; segments rotate every 4 MB
+        stack = new DurableStack(directory, 1024, commitWindowMicros, TimeUnit.MICROSECONDS,
+            DurableStack.DEFAULT_MAX_BATCH_BYTES, 4L << 20);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        stack.close();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public double pushPop() {
+        stack.push(42.0);
+        return stack.pop();
+    }
+
+    /**
+     * Runs the benchmark once per thread count.
+     *
+     * @param args ignored
+     * @throws RunnerException if a run fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                .include(DurableStackBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.FixedPointStack;
+import com.mycompany.stackoperationsimulator.core.text.DoubleFormatter;
+import com.mycompany.stackoperationsimulator.core.text.DoubleParser;
+import com.mycompany.stackoperationsimulator.core.text.FixedPointFormatter;
+import com.mycompany.stackoperationsimulator.core.text.FixedPointParser;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Fixed-point decimals against doubles and {@link BigDecimal} for money-like
+ * values: parsing, formatting and a running total.
+ *
+ * <p>The values are typed amounts with two decimals between -99.99 and
+ * 99.99, at scale 2. Scores are per value.</p>
+ * <pre>
+ * java -jar stack-bench/target/benchmarks.jar FixedPointBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedPointBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private static final int SCALE = 2;
+
+    private String[] texts;
+    private double[] doubles;
+    private long[] unscaled;
+    private BigDecimal[] decimals;
+    private char[] buffer;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        texts = new String[COUNT];
+        doubles = new double[COUNT];
+        unscaled = new long[COUNT];
+        decimals = new BigDecimal[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            long cents = Math.round(random.nextDouble() * 19998) - 9999;
+            unscaled[i] = cents;
+            doubles[i] = cents / 100.0;
+            decimals[i] = BigDecimal.valueOf(cents, SCALE);
+            texts[i] = decimals[i].toPlainString();
+        }
+        buffer = new char[Math.max(DoubleFormatter.MAX_LENGTH, FixedPointFormatter.MAX_LENGTH)];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public double parseDouble() {
+        double sum = 0;
+        for (String text : texts) {
+            sum += DoubleParser.parse(text);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long parseFixed() {
+        long sum = 0;
+        for (String text : texts) {
+            sum += FixedPointParser.parse(text, SCALE);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void parseBigDecimal(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(new BigDecimal(text));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int formatDouble() {
+        int length = 0;
+        for (double value : doubles) {
+            length += DoubleFormatter.format(value, buffer, 0);
+        }
+        return length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int formatFixed() {
+        int length = 0;
+        for (long value : unscaled) {
+            length += FixedPointFormatter.format(value, SCALE, buffer, 0);
+        }
+        return length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void formatBigDecimal(Blackhole blackhole) {
+        for (BigDecimal value : decimals) {
+            blackhole.consume(value.toPlainString());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public double totalDouble() {
+        double total = 0;
+        for (int i = 0; i < COUNT; i++) {
+            // A price times a quantity of 1.5, summed; the double total drifts
+            total += doubles[i] * 1.5;
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long totalFixed() {
+        long total = 0;
+        long quantity = 150;
+        for (int i = 0; i < COUNT; i++) {
+            total = Math.addExact(total, FixedPointStack.multiply(unscaled[i], quantity, SCALE));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public BigDecimal totalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal quantity = BigDecimal.valueOf(150, SCALE);
+        for (BigDecimal value : decimals) {
+            total = total.add(value.multiply(quantity).setScale(SCALE, RoundingMode.HALF_EVEN));
+        }
+        return total;
+    }
+}
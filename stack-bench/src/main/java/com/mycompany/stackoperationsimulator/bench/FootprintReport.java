@@ -0,0 +1,181 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.AdaptiveStack;
+import com.mycompany.stackoperationsimulator.core.AggregateStack;
+import com.mycompany.stackoperationsimulator.core.CompressedStack;
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import com.mycompany.stackoperationsimulator.core.StackArena;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.concurrent.FlatCombiningStack;
+import com.mycompany.stackoperationsimulator.core.concurrent.WorkStealingStack;
+import com.mycompany.stackoperationsimulator.core.io.TieredStack;
+import com.mycompany.stackoperationsimulator.core.memory.AllocationMeter;
+import com.mycompany.stackoperationsimulator.core.memory.Footprint;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+
+/**
+ * Prints what each stack implementation costs in memory when full.
+ *
+ * <p>Every implementation is filled to its capacity with the same values,
+ * then measured with {@link Footprint}: retained heap split into data arrays
+ * and structure, plus off-heap buffers. It is then drained and refilled
+ * twice; the second round runs compiled code and is measured with an
+ * {@link AllocationMeter} to give the heap bytes allocated per push or pop.
+ * An {@code ArrayDeque<Double>} behind a small adapter serves as the boxed
+ * baseline. With {@code --data counter} the values are 0, 1, 2, ... instead
+ * of random two-decimal numbers, which shows the effect of compression.
+ * {@code DurableStack} is left out: it holds a {@code StackDemo} plus two
+ * batch buffers, and a million synced pushes would take minutes.</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.FootprintReport [--elements N] [--data random|counter]
+ * </pre>
+ */
+public final class FootprintReport {
+
+    private FootprintReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int elements = 1_000_000;
+        boolean counter = false;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("--elements".equals(args[i])) {
+                elements = Integer.parseInt(args[i + 1]);
+            } else if ("--data".equals(args[i])) {
+                counter = "counter".equals(args[i + 1]);
+            }
+        }
+
+        double[] values = new double[elements];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < elements; i++) {
+            values[i] = counter ? i : Math.round(random.nextDouble() * 19998 - 9999) / 100.0;
+        }
+
+        Path directory = Files.createTempDirectory("footprint");
+        System.out.printf("%,d elements, %s values%n", elements, counter ? "counter" : "random two-decimal");
+        System.out.printf("%-20s %12s %10s %12s %12s %12s %10s%n",
+            "Stack", "Retained", "B/element", "Data", "Structure", "Off-heap", "Alloc B/op");
+        report("StackDemo", new StackDemo(elements), values);
+        report("AggregateStack", new AggregateStack(elements), values);
+        report("CompressedStack", new CompressedStack(elements), values);
+        report("AdaptiveStack", new AdaptiveStack(elements), values);
+        report("FlatCombiningStack", new FlatCombiningStack(elements), values);
+        report("WorkStealingStack", new WorkStealingStack(elements), values);
+        StackArena arena = new StackArena();
+        report("StackArena view", arena.view(arena.create(elements)), values);
+        try (TieredStack tiered = new TieredStack(elements, directory)) {
+            report("TieredStack", tiered, values);
+        } finally {
+            Files.delete(directory);
+        }
+        report("ArrayDeque<Double>", new BoxedStack(elements), values);
+    }
+
+    private static void report(String name, DoubleStack stack, double[] values) {
+        AllocationMeter meter = new AllocationMeter();
+        fill(stack, values);
+        Footprint footprint = Footprint.of(stack);
+        for (int round = 0; round < 2; round++) {
+            meter.reset();
+            meter.begin();
+            drain(stack);
+            fill(stack, values);
+            meter.end(2L * values.length);
+        }
+        String allocation = AllocationMeter.isSupported()
+            ? String.format("%.2f", meter.getBytesPerOperation())
+            : "-";
+        System.out.printf("%-20s %12s %10.2f %12s %12s %12s %10s%n",
+            name,
+            Footprint.formatBytes(footprint.getTotalBytes()),
+            (double) footprint.getTotalBytes() / values.length,
+            Footprint.formatBytes(footprint.getDataBytes()),
+            Footprint.formatBytes(footprint.getStructureBytes()),
+            Footprint.formatBytes(footprint.getOffHeapBytes()),
+            allocation);
+    }
+
+    private static void fill(DoubleStack stack, double[] values) {
+        for (double value : values) {
+            stack.push(value);
+        }
+    }
+
+    private static void drain(DoubleStack stack) {
+        while (!stack.isEmpty()) {
+            stack.pop();
+        }
+    }
+
+    /**
+     * Boxed baseline: what a stack of Double objects costs.
+     */
+    private static final class BoxedStack implements DoubleStack {
+        private final ArrayDeque<Double> deque;
+        private final int capacity;
+
+        BoxedStack(int capacity) {
+            this.deque = new ArrayDeque<>(capacity);
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void push(double element) {
+            if (isFull()) {
+                throw new IllegalStateException("Stack Overflow");
+            }
+            deque.push(element);
+        }
+
+        @Override
+        public double pop() {
+            if (isEmpty()) {
+                throw new IllegalStateException("Stack Underflow");
+            }
+            return deque.pop();
+        }
+
+        @Override
+        public double peek() {
+            if (isEmpty()) {
+                throw new IllegalStateException("Stack is empty");
+            }
+            return deque.peek();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return deque.isEmpty();
+        }
+
+        @Override
+        public boolean isFull() {
+            return deque.size() == capacity;
+        }
+
+        @Override
+        public int size() {
+            return deque.size();
+        }
+
+        @Override
+        public int getCapacity() {
+            return capacity;
+        }
+
+        @Override
+        public double[] getElements() {
+            double[] elements = new double[deque.size()];
+            int i = elements.length;
+            for (Double element : deque) {
+                elements[--i] = element;
+            }
+            return elements;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.concurrent.BlockingDoubleStack;
+import java.util.OptionalDouble;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Producer/consumer handoff through {@link BlockingDoubleStack} and through
+ * {@code LinkedBlockingDeque<Double>} used as a LIFO.
+ *
+ * <p>Producers and consumers run as one JMH group. The throughput score is
+ * handoffs per microsecond for each side; the sample-time score is the time
+ * one offer or poll takes including any wait for the other side, i.e. the
+ * handoff latency. Both sides use a timeout so that a thread left waiting
+ * when the iteration ends does not hang the run.</p>
+ *
+ * <p>{@link #main} runs the producer/consumer mixes 1/1, 1/4, 4/1, 4/4 and 16/16:</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.HandoffBenchmark
+ * </pre>
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandoffBenchmark {
+
+    private static final int[][] MIXES = {{1, 1}, {1, 4}, {4, 1}, {4, 4}, {16, 16}};
+
+    private static final long TIMEOUT_MILLIS = 100;
+
+    @Param({"blockingStack", "linkedBlockingDeque"})
+    private String implementation;
+
+    @Param({"16", "1024"})
+    private int capacity;
+
+    private BlockingDoubleStack stack;
+    private LinkedBlockingDeque<Double> deque;
+
+    @Setup
+    public void setup() {
+        if ("blockingStack".equals(implementation)) {
+            stack = new BlockingDoubleStack(capacity);
+        } else {
+            deque = new LinkedBlockingDeque<>(capacity);
+        }
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public boolean produce() throws InterruptedException {
+        if (stack != null) {
+            return stack.offer(42.0, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return deque.offerFirst(42.0, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public double consume() throws InterruptedException {
+        if (stack != null) {
+            OptionalDouble value = stack.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return value.orElse(0);
+        }
+        Double value = deque.pollFirst(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Runs the benchmark once per producer/consumer mix.
+     *
+     * @param args ignored
+     * @throws RunnerException if a run fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int[] mix : MIXES) {
+            Options options = new OptionsBuilder()
+                .include(HandoffBenchmark.class.getSimpleName())
+                .threadGroups(mix[0], mix[1])
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackAlgorithms;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link StackAlgorithms} against the same algorithms hand-written around
+ * {@code ArrayDeque<Double>}, on {@value #N} elements.
+ *
+ * <p>The inputs are random values between -99.99 and 99.99 (non-negative for
+ * the histogram), a random bracket text of nesting depth up to 64, and a
+ * random graph of {@value #N} nodes with four edges each. The score is the
+ * time for one whole input.</p>
+ * <pre>
+ * java -jar stack-bench/target/benchmarks.jar StackAlgorithmsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackAlgorithmsBenchmark {
+
+    private static final int N = 1 << 20;
+
+    private static final int WINDOW = 1000;
+
+    private static final int EDGES_PER_NODE = 4;
+
+    private final StackAlgorithms algorithms = new StackAlgorithms();
+
+    private double[] values;
+    private double[] heights;
+    private String brackets;
+    private int[] offsets;
+    private int[] targets;
+
+    private int[] indexResult;
+    private double[] valueResult;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        values = new double[N];
+        heights = new double[N];
+        for (int i = 0; i < N; i++) {
+            values[i] = random.nextDouble() * 199.98 - 99.99;
+            heights[i] = random.nextDouble() * 99.99;
+        }
+        StringBuilder text = new StringBuilder(N);
+        ArrayDeque<Character> open = new ArrayDeque<>();
+        while (text.length() < N - open.size()) {
+            if (open.isEmpty() || (open.size() < 64 && random.nextBoolean())) {
+                char c = "([{".charAt(random.nextInt(3));
+                text.append(c);
+                open.push(c == '(' ? ')' : c == '[' ? ']' : '}');
+            } else {
+                text.append(open.pop());
+            }
+        }
+        while (!open.isEmpty()) {
+            text.append(open.pop());
+        }
+        brackets = text.toString();
+        offsets = new int[N + 1];
+        targets = new int[N * EDGES_PER_NODE];
+        for (int node = 0; node < N; node++) {
+            offsets[node] = node * EDGES_PER_NODE;
+            for (int e = 0; e < EDGES_PER_NODE; e++) {
+                targets[node * EDGES_PER_NODE + e] = random.nextInt(N);
+            }
+        }
+        offsets[N] = targets.length;
+        indexResult = new int[N];
+        valueResult = new double[N];
+    }
+
+    @Benchmark
+    public int[] nextGreater() {
+        return algorithms.nextGreater(values, indexResult);
+    }
+
+    @Benchmark
+    public int[] nextGreaterDeque() {
+        ArrayDeque<Double> pending = new ArrayDeque<>();
+        for (int i = 0; i < N; i++) {
+            while (!pending.isEmpty() && values[pending.peek().intValue()] < values[i]) {
+                indexResult[pending.pop().intValue()] = i;
+            }
+            pending.push((double) i);
+        }
+        while (!pending.isEmpty()) {
+            indexResult[pending.pop().intValue()] = -1;
+        }
+        return indexResult;
+    }
+
+    @Benchmark
+    public double largestRectangle() {
+        return algorithms.largestRectangle(heights);
+    }
+
+    @Benchmark
+    public double largestRectangleDeque() {
+        ArrayDeque<Double> bars = new ArrayDeque<>();
+        double best = 0;
+        for (int i = 0; i <= N; i++) {
+            double height = i < N ? heights[i] : 0;
+            while (!bars.isEmpty() && heights[bars.peek().intValue()] >= height) {
+                double top = heights[bars.pop().intValue()];
+                int left = bars.isEmpty() ? -1 : bars.peek().intValue();
+                best = Math.max(best, top * (i - left - 1));
+            }
+            bars.push((double) i);
+        }
+        return best;
+    }
+
+    @Benchmark
+    public int brackets() {
+        return algorithms.findUnbalanced(brackets);
+    }
+
+    @Benchmark
+    public int bracketsDeque() {
+        ArrayDeque<Double> open = new ArrayDeque<>();
+        for (int i = 0; i < brackets.length(); i++) {
+            char c = brackets.charAt(i);
+            if (c == '(') {
+                open.push((double) ')');
+            } else if (c == '[') {
+                open.push((double) ']');
+            } else if (c == '{') {
+                open.push((double) '}');
+            } else if (c == ')' || c == ']' || c == '}') {
+                if (open.isEmpty() || open.pop() != c) {
+                    return i;
+                }
+            }
+        }
+        return open.isEmpty() ? -1 : brackets.length();
+    }
+
+    @Benchmark
+    public int slidingMax() {
+        return algorithms.slidingMax(values, WINDOW, valueResult);
+    }
+
+    @Benchmark
+    public int slidingMaxDeque() {
+        ArrayDeque<Double> candidates = new ArrayDeque<>();
+        for (int i = 0; i < N; i++) {
+            while (!candidates.isEmpty() && values[candidates.peekLast().intValue()] <= values[i]) {
+                candidates.pollLast();
+            }
+            candidates.addLast((double) i);
+            if (candidates.peekFirst() <= i - WINDOW) {
+                candidates.pollFirst();
+            }
+            if (i >= WINDOW - 1) {
+                valueResult[i - WINDOW + 1] = values[candidates.peekFirst().intValue()];
+            }
+        }
+        return N - WINDOW + 1;
+    }
+
+    @Benchmark
+    public int depthFirst() {
+        return algorithms.depthFirst(offsets, targets, 0, indexResult);
+    }
+
+    @Benchmark
+    public int depthFirstDeque() {
+        boolean[] visited = new boolean[N];
+        ArrayDeque<Double> next = new ArrayDeque<>();
+        int reached = 0;
+        next.push(0.0);
+        while (!next.isEmpty()) {
+            int node = next.pop().intValue();
+            if (visited[node]) {
+                continue;
+            }
+            visited[node] = true;
+            indexResult[reached++] = node;
+            for (int e = offsets[node + 1] - 1; e >= offsets[node]; e--) {
+                if (!visited[targets[e]]) {
+                    next.push((double) targets[e]);
+                }
+            }
+        }
+        return reached;
+    }
+}
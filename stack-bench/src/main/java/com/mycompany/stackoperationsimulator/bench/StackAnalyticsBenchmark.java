@@ -0,0 +1,74 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackAnalytics;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.ValueHistogram;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link StackAnalytics} scans with the scalar and the Vector API kernels.
+ *
+ * <p>The search looks for a value that is not on the stack, so every scan
+ * covers the full live range. The fork adds {@code jdk.incubator.vector};
+ * on JDK 11 the {@code vector} runs fail in setup.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class StackAnalyticsBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    private int size;
+
+    @Param({"scalar", "vector"})
+    private String kernel;
+
+    private StackDemo stack;
+    private StackAnalytics analytics;
+
+    @Setup
+    public void setup() {
+        // Same value range as the launcher's random data
+        Random random = new Random(42);
+        stack = new StackDemo(size);
+        for (int i = 0; i < size; i++) {
+            stack.push(random.nextDouble() * 199.98 - 99.99);
+        }
+        analytics = "vector".equals(kernel) ? StackAnalytics.vectorized() : StackAnalytics.scalar();
+    }
+
+    @Benchmark
+    public double sum() {
+        return analytics.sum(stack);
+    }
+
+    @Benchmark
+    public double min() {
+        return analytics.min(stack);
+    }
+
+    @Benchmark
+    public ValueHistogram classify() {
+        return analytics.classify(stack);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return analytics.indexOf(stack, 1000.0);
+    }
+}
@@ -0,0 +1,209 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackArena;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Many small stacks: one {@link StackArena} against one {@link StackDemo}
+ * per stack.
+ *
+ * <p>Each invocation pushes onto and pops from {@value #BATCH} stacks picked
+ * at random, so the score is the cost of a push/pop pair on a stack that is
+ * usually not in cache. {@code churn} releases {@value #BATCH} stacks and
+ * recreates them with capacities from 4 to 64, the session turnover of a
+ * server. It walks all stacks in a random order, and the capacities do not
+ * follow the stacks, so a reused slot's region is often too small or far too
+ * large: regions are reused, abandoned as holes and compacted as in real
+ * use. {@link #main} first prints the retained heap
+ * per stack of both layouts, then runs the benchmarks:</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.StackArenaBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StackArenaBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private static final int CAPACITY = 16;
+
+    // Capacities of recreated stacks, mostly small as for sessions
+    private static final int[] CHURN_CAPACITIES = {4, 8, 8, 16, 16, 16, 32, 64};
+
+    // Length of the capacity sequence, not a multiple of the batch
+    private static final int CHURN_SEQUENCE = 4096 + 512;
+
+    @Param({"100000", "1000000"})
+    private int stacks;
+
+    private StackArena arena;
+    private long[] handles;
+    private StackDemo[] demos;
+    private int[] picks;
+    private int[] churnOrder;
+    private int[] churnCapacities;
+    private int churnPosition;
+    private int capacityPosition;
+
+    @Setup
+    public void setup() {
+        arena = new StackArena(stacks * CAPACITY);
+        handles = new long[stacks];
+        demos = new StackDemo[stacks];
+        for (int i = 0; i < stacks; i++) {
+            handles[i] = arena.create(CAPACITY);
+            demos[i] = new StackDemo(CAPACITY);
+            // Half-full stacks, so pushes and pops both succeed
+            for (int j = 0; j < CAPACITY / 2; j++) {
+                arena.push(handles[i], j);
+                demos[i].push(j);
+            }
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        picks = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            picks[i] = random.nextInt(stacks);
+        }
+        // Every stack once, in random order, so no stack is released twice in a batch
+        churnOrder = new int[stacks];
+        for (int i = 0; i < stacks; i++) {
+            int j = random.nextInt(i + 1);
+            churnOrder[i] = churnOrder[j];
+            churnOrder[j] = i;
+        }
+        churnCapacities = new int[CHURN_SEQUENCE];
+        for (int i = 0; i < CHURN_SEQUENCE; i++) {
+            churnCapacities[i] = CHURN_CAPACITIES[random.nextInt(CHURN_CAPACITIES.length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double arena() {
+        double sum = 0;
+        for (int pick : picks) {
+            long handle = handles[pick];
+            arena.push(handle, pick);
+            sum += arena.pop(handle);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double demo() {
+        double sum = 0;
+        for (int pick : picks) {
+            StackDemo stack = demos[pick];
+            stack.push(pick);
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long arenaChurn() {
+        int start = churnPosition;
+        for (int i = 0; i < BATCH; i++) {
+            arena.release(handles[churnOrder[(start + i) % stacks]]);
+        }
+        // The free list hands the slots back in reverse order, each to another stack
+        long sum = 0;
+        for (int i = 0; i < BATCH; i++) {
+            int pick = churnOrder[(start + i) % stacks];
+            handles[pick] = arena.create(nextChurnCapacity());
+            sum += handles[pick];
+        }
+        churnPosition = (start + BATCH) % stacks;
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int demoChurn() {
+        int start = churnPosition;
+        int sum = 0;
+        for (int i = 0; i < BATCH; i++) {
+            int pick = churnOrder[(start + i) % stacks];
+            demos[pick] = new StackDemo(nextChurnCapacity());
+            sum += demos[pick].getCapacity();
+        }
+        churnPosition = (start + BATCH) % stacks;
+        return sum;
+    }
+
+    private int nextChurnCapacity() {
+        int capacity = churnCapacities[capacityPosition];
+        capacityPosition = (capacityPosition + 1) % CHURN_SEQUENCE;
+        return capacity;
+    }
+
+    /**
+     * Prints the retained heap per stack of both layouts, then runs the
+     * benchmarks.
+     *
+     * @param args ignored
+     * @throws RunnerException if a run fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int count : new int[] {100_000, 1_000_000}) {
+            long before = usedHeap();
+            StackDemo[] demos = new StackDemo[count];
+            for (int i = 0; i < count; i++) {
+                demos[i] = new StackDemo(CAPACITY);
+            }
+            long demoBytes = usedHeap() - before;
+
+            before = usedHeap();
+            StackArena arena = new StackArena(count * CAPACITY);
+            for (int i = 0; i < count; i++) {
+                arena.create(CAPACITY);
+            }
+            long arenaBytes = usedHeap() - before;
+
+            System.out.printf("%,d stacks of capacity %d: StackDemo %.1f bytes/stack, StackArena %.1f bytes/stack%n",
+                count, CAPACITY, demoBytes / (double) count, arenaBytes / (double) count);
+            // Keep both alive until they have been measured
+            if (demos[count - 1].getCapacity() != arena.getCapacity(arena.create(CAPACITY))) {
+                throw new AssertionError();
+            }
+        }
+
+        Options options = new OptionsBuilder()
+            .include(StackArenaBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,79 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Baseline throughput of {@link StackDemo} against {@code ArrayDeque<Double>}.
+ *
+ * <p>Each invocation fills the stack to {@code size} elements and pops it
+ * back to empty, so the score is in full fill/drain cycles. The snapshot
+ * benchmark measures {@code getElements()} on a full stack, which is what
+ * the simulator calls on every display refresh.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackDemoBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    private StackDemo stack;
+    private StackDemo full;
+    private ArrayDeque<Double> deque;
+
+    @Setup
+    public void setup() {
+        stack = new StackDemo(size);
+        deque = new ArrayDeque<>(size);
+        full = new StackDemo(size);
+        for (int i = 0; i < size; i++) {
+            full.push(i);
+        }
+    }
+
+    @Benchmark
+    public double stackDemoFillDrain() {
+        for (int i = 0; i < size; i++) {
+            stack.push(i);
+        }
+        double sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double arrayDequeFillDrain() {
+        for (int i = 0; i < size; i++) {
+            deque.push((double) i);
+        }
+        double sum = 0;
+        while (!deque.isEmpty()) {
+            sum += deque.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double[] stackDemoSnapshot() {
+        return full.getElements();
+    }
+}
@@ -0,0 +1,87 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.io.StackFiles;
+import com.mycompany.stackoperationsimulator.core.io.StackFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load time of a saved stack in each {@link StackFormat}.
+ *
+ * <p>The files are written once per trial into a temporary directory, so
+ * after the first iteration they are served from the page cache and the
+ * binary score approaches memory bandwidth.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StackFilesBenchmark {
+
+    @Param({"1000000", "4000000"})
+    private int size;
+
+    private Path directory;
+    private Path binaryFile;
+    private Path csvFile;
+    private Path jsonFile;
+
+    @Setup
+    public void setup() throws IOException {
+        // Same value range as the launcher's random data
+        Random random = new Random(42);
+        StackDemo stack = new StackDemo(size);
+        for (int i = 0; i < size; i++) {
+            stack.push(random.nextDouble() * 199.98 - 99.99);
+        }
+
+        directory = Files.createTempDirectory("stack-files");
+        binaryFile = directory.resolve("stack.stk");
+        csvFile = directory.resolve("stack.csv");
+        jsonFile = directory.resolve("stack.json");
+        StackFiles.save(stack, binaryFile);
+        StackFiles.save(stack, csvFile);
+        StackFiles.save(stack, jsonFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public StackDemo loadBinary() throws IOException {
+        return StackFiles.load(binaryFile);
+    }
+
+    @Benchmark
+    public StackDemo loadCsv() throws IOException {
+        return StackFiles.load(csvFile);
+    }
+
+    @Benchmark
+    public StackDemo loadJson() throws IOException {
+        return StackFiles.load(jsonFile);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.event.ObservableStack;
+import com.mycompany.stackoperationsimulator.core.event.StackHistory;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of reducing a {@link StackHistory} of 10^7 operations to one
+ * minimum/maximum pair per pixel column, the work behind each redraw of the
+ * simulator's timeline.
+ *
+ * <p>The history is filled with a random walk of pushes and pops delivered
+ * synchronously, then downsampled to 1,000 columns.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StackHistoryBenchmark {
+
+    private static final int OPERATIONS = 10_000_000;
+
+    @Param({"1000"})
+    private int columns;
+
+    private StackHistory history;
+    private int[] sizeMin;
+    private int[] sizeMax;
+    private double[] topMin;
+    private double[] topMax;
+
+    @Setup
+    public void setup() {
+        // Deliver batches on the calling thread, so the history is complete after close()
+        ObservableStack stack = new ObservableStack(new StackDemo(1 << 20),
+            ObservableStack.DEFAULT_BATCH_SIZE, Runnable::run, 256);
+        history = new StackHistory(stack, OPERATIONS, true);
+        stack.subscribe(history);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < OPERATIONS; i++) {
+            if (stack.isEmpty() || (!stack.isFull() && random.nextInt(100) < 51)) {
+                stack.push(random.nextDouble());
+            } else {
+                stack.pop();
+            }
+        }
+        stack.close();
+        sizeMin = new int[columns];
+        sizeMax = new int[columns];
+        topMin = new double[columns];
+        topMax = new double[columns];
+    }
+
+    @Benchmark
+    public int sizes() {
+        return history.downsampleSizes(columns, sizeMin, sizeMax);
+    }
+
+    @Benchmark
+    public int tops() {
+        return history.downsampleTops(columns, topMin, topMax);
+    }
+}
@@ -0,0 +1,156 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.net.StackClient;
+import com.mycompany.stackoperationsimulator.core.net.StackServer;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load generator for a {@link StackServer}.
+ *
+ * <p>Each connection runs on its own thread and repeatedly sends a pipeline
+ * of {@code depth} pushes followed by a pipeline of {@code depth} pops,
+ * timing every round trip. At the end it prints the operation throughput
+ * across all connections and the round-trip latency percentiles. With
+ * {@code --depth 1} every operation is its own round trip; larger depths
+ * show how far pipelining amortises the network and selector cost.</p>
+ *
+ * <p>Without {@code --port} an embedded server is started on a free
+ * loopback port, so server and clients share the machine's cores.</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.StackLoadGenerator [--connections N] [--depth N] [--seconds N] [--port N]
+ * </pre>
+ */
+public final class StackLoadGenerator {
+
+    private StackLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = 4;
+        int depth = 64;
+        int seconds = 10;
+        int port = -1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("--connections".equals(args[i])) {
+                connections = Integer.parseInt(args[i + 1]);
+            } else if ("--depth".equals(args[i])) {
+                depth = Integer.parseInt(args[i + 1]);
+            } else if ("--seconds".equals(args[i])) {
+                seconds = Integer.parseInt(args[i + 1]);
+            } else if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[i + 1]);
+            }
+        }
+
+        StackServer server = null;
+        if (port < 0) {
+            // Every connection holds at most one pipeline of elements
+            server = new StackServer(new StackDemo(connections * depth), 0);
+            port = server.getPort();
+        }
+        try {
+            run(port, connections, depth, seconds);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static void run(int port, int connections, int depth, int seconds) throws InterruptedException {
+        Worker[] workers = new Worker[connections];
+        CountDownLatch done = new CountDownLatch(connections);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < connections; i++) {
+            workers[i] = new Worker(port, depth, deadline, done);
+            new Thread(workers[i], "load-" + i).start();
+        }
+        done.await();
+
+        long operations = 0;
+        int samples = 0;
+        for (Worker worker : workers) {
+            if (worker.failure != null) {
+                throw new IllegalStateException("Connection failed", worker.failure);
+            }
+            operations += worker.operations;
+            samples += worker.samples;
+        }
+        long[] latencies = new long[samples];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.samples);
+            offset += worker.samples;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("connections=%d depth=%d: %.0f ops/s, round trip p50=%.1f us p99=%.1f us p99.9=%.1f us%n",
+            connections, depth, operations / (double) seconds,
+            percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1000.0;
+    }
+
+    /**
+     * One connection pushing and popping in pipelines until the deadline.
+     */
+    private static final class Worker implements Runnable {
+        private final int port;
+        private final int depth;
+        private final long deadline;
+        private final CountDownLatch done;
+        private long[] latencies = new long[1 << 16];
+        private int samples;
+        private long operations;
+        private Exception failure;
+
+        Worker(int port, int depth, long deadline, CountDownLatch done) {
+            this.port = port;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try (StackClient client = new StackClient(port)) {
+                StackClient.Pipeline pipeline = client.pipeline();
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < depth; i++) {
+                        pipeline.push(i);
+                    }
+                    roundTrip(pipeline);
+                    for (int i = 0; i < depth; i++) {
+                        pipeline.pop();
+                    }
+                    roundTrip(pipeline);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private void roundTrip(StackClient.Pipeline pipeline) throws IOException {
+            long start = System.nanoTime();
+            pipeline.sync();
+            long elapsed = System.nanoTime() - start;
+            if (samples == latencies.length) {
+                latencies = Arrays.copyOf(latencies, samples * 2);
+            }
+            latencies[samples++] = elapsed;
+            operations += pipeline.getCount();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackMachine;
+import com.mycompany.stackoperationsimulator.core.StackProgram;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link StackMachine} running two small programs, against the same
+ * computation written in Java.
+ *
+ * <ul>
+ *   <li>{@code fibonacci}: naive recursive fib({@value #FIB}), mostly calls,
+ *       returns and comparisons</li>
+ *   <li>{@code loop}: the sum of 1 to {@value #LOOP} in a counting loop,
+ *       mostly loads, stores and arithmetic</li>
+ * </ul>
+ * <p>The score is the time for one run. {@link #main} first prints how many
+ * instructions each program executes and the resulting millions of
+ * instructions per second, then runs the benchmarks:</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.StackMachineBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackMachineBenchmark {
+
+    private static final int FIB = 25;
+
+    private static final int LOOP = 1_000_000;
+
+    private static final int CAPACITY = 1024;
+
+    private StackMachine machine;
+    private StackProgram fibonacci;
+    private StackProgram loop;
+    private double fibArgument;
+    private double loopLimit;
+
+    @Setup
+    public void setup() {
+        machine = new StackMachine(CAPACITY);
+        fibonacci = fibonacci(FIB);
+        loop = loop(LOOP);
+        fibArgument = FIB;
+        loopLimit = LOOP;
+    }
+
+    @Benchmark
+    public double fibonacci() {
+        return machine.run(fibonacci);
+    }
+
+    @Benchmark
+    public double fibonacciJava() {
+        return fib(fibArgument);
+    }
+
+    @Benchmark
+    public double loop() {
+        return machine.run(loop);
+    }
+
+    @Benchmark
+    public double loopJava() {
+        double sum = 0;
+        for (double i = 1; i <= loopLimit; i++) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    private static double fib(double n) {
+        return n < 2 ? n : fib(n - 1) + fib(n - 2);
+    }
+
+    /**
+     * Builds {@code fib(n) = n < 2 ? n : fib(n - 1) + fib(n - 2)} called with n.
+     */
+    static StackProgram fibonacci(int n) {
+        StackProgram.Builder builder = new StackProgram.Builder();
+        int main = builder.function("main", 0, 0);
+        int fib = builder.function("fib", 1, 0);
+        builder.begin(main)
+            .constant(n).call(fib).returnValue();
+        int recurse = builder.newLabel();
+        builder.begin(fib)
+            .load(0).constant(2).lessThan().jumpIfZero(recurse)
+            .load(0).returnValue()
+            .mark(recurse)
+            .load(0).constant(1).subtract().call(fib)
+            .load(0).constant(2).subtract().call(fib)
+            .add().returnValue();
+        return builder.build();
+    }
+
+    /**
+     * Builds a loop adding 1 to n.
+     */
+    static StackProgram loop(int n) {
+        StackProgram.Builder builder = new StackProgram.Builder();
+        int i = 0;
+        int sum = 1;
+        int main = builder.function("main", 0, 2);
+        int test = builder.newLabel();
+        int done = builder.newLabel();
+        builder.begin(main)
+            .constant(1).store(i)
+            .mark(test)
+            .load(i).constant(n).lessOrEqual().jumpIfZero(done)
+            .load(sum).load(i).add().store(sum)
+            .load(i).constant(1).add().store(i)
+            .jump(test)
+            .mark(done)
+            .load(sum).returnValue();
+        return builder.build();
+    }
+
+    /**
+     * Prints the instructions each program executes and the rate after a
+     * short warm-up, then runs the benchmarks.
+     *
+     * @param args ignored
+     * @throws RunnerException if a run fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        StackMachine machine = new StackMachine(CAPACITY);
+        report(machine, "fibonacci(" + FIB + ")", fibonacci(FIB));
+        report(machine, "loop(" + LOOP + ")", loop(LOOP));
+
+        Options options = new OptionsBuilder()
+            .include(StackMachineBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    private static void report(StackMachine machine, String name, StackProgram program) {
+        double result = 0;
+        for (int i = 0; i < 20; i++) {
+            result = machine.run(program);
+        }
+        int runs = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            result = machine.run(program);
+        }
+        long elapsed = System.nanoTime() - start;
+        long instructions = machine.getInstructionCount();
+        System.out.printf("%-16s = %.0f: %,d instructions per run, %.0f million per second%n",
+            name, result, instructions, instructions * runs * 1e3 / elapsed);
+    }
+}
@@ -0,0 +1,82 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.io.TieredStack;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fill/drain cycles of 16M elements (128 MB) through a {@link TieredStack}
+ * with the default 4 MB window, against a {@link StackDemo} holding
+ * everything in memory.
+ *
+ * <p>Scores are per push/pop pair. If spilling and prefetching keep up with
+ * the stack, the tiered score stays close to the in-memory one.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TieredStackBenchmark {
+
+    private static final int SIZE = 1 << 24;
+
+    private Path directory;
+    private TieredStack tiered;
+    private StackDemo memory;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("tiered-stack");
+        tiered = new TieredStack(SIZE, directory);
+        memory = new StackDemo(SIZE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        tiered.close();
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double tiered() {
+        for (int i = 0; i < SIZE; i++) {
+            tiered.push(i);
+        }
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += tiered.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double inMemory() {
+        for (int i = 0; i < SIZE; i++) {
+            memory.push(i);
+        }
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += memory.pop();
+        }
+        return sum;
+    }
+}
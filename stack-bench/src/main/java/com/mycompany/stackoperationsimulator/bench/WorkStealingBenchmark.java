@@ -0,0 +1,171 @@
+package com.mycompany.stackoperationsimulator.bench;
+
+import com.mycompany.stackoperationsimulator.core.concurrent.WorkStealingStack;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Fork/join-style scheduling on {@link WorkStealingStack} and on
+ * {@code ConcurrentLinkedDeque<Double>}, one deque per worker.
+ *
+ * <p>Each invocation runs a binary task tree of depth {@value #DEPTH}: a task
+ * is its remaining depth, and running a task above depth 0 pushes its two
+ * children onto the worker's own deque. A worker pops its newest task and,
+ * when it has none, steals the oldest task of another worker, starting at a
+ * different victim each time. The score is the time per task, including the
+ * push that created it and the pop or steal that took it.</p>
+ * <pre>
+ * java -cp stack-bench/target/benchmarks.jar com.mycompany.stackoperationsimulator.bench.WorkStealingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkStealingBenchmark {
+
+    private static final int DEPTH = 20;
+
+    private static final int TASKS = (1 << (DEPTH + 1)) - 1;
+
+    @Param({"workStealingStack", "concurrentLinkedDeque"})
+    private String implementation;
+
+    @Param({"1", "4"})
+    private int workers;
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public long forkJoin() throws InterruptedException {
+        TaskDeque[] deques = new TaskDeque[workers];
+        for (int i = 0; i < workers; i++) {
+            deques[i] = "workStealingStack".equals(implementation) ? new StealingDeque() : new LinkedDeque();
+        }
+        deques[0].push(DEPTH);
+        AtomicLong done = new AtomicLong();
+        Thread[] threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            int self = i;
+            threads[i] = new Thread(() -> work(deques, self, done));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return done.get();
+    }
+
+    private static void work(TaskDeque[] deques, int self, AtomicLong done) {
+        TaskDeque own = deques[self];
+        long local = 0;
+        int victim = self;
+        while (true) {
+            double task = own.pop();
+            if (Double.isNaN(task)) {
+                // Out of work: publish the count, then look for tasks elsewhere
+                if (local != 0) {
+                    done.addAndGet(local);
+                    local = 0;
+                }
+                if (done.get() == TASKS) {
+                    return;
+                }
+                victim = (victim + 1) % deques.length;
+                task = victim == self ? Double.NaN : deques[victim].steal();
+                if (Double.isNaN(task)) {
+                    Thread.yield();
+                    continue;
+                }
+            }
+            local++;
+            if (task > 0) {
+                own.push(task - 1);
+                own.push(task - 1);
+            }
+        }
+    }
+
+    /**
+     * A worker's deque; NaN means no task.
+     */
+    private interface TaskDeque {
+        void push(double task);
+
+        double pop();
+
+        double steal();
+    }
+
+    private static final class StealingDeque implements TaskDeque {
+        private final WorkStealingStack stack = new WorkStealingStack(TASKS);
+
+        @Override
+        public void push(double task) {
+            stack.push(task);
+        }
+
+        @Override
+        public double pop() {
+            return stack.poll().orElse(Double.NaN);
+        }
+
+        @Override
+        public double steal() {
+            OptionalDouble task = stack.steal();
+            return task.orElse(Double.NaN);
+        }
+    }
+
+    private static final class LinkedDeque implements TaskDeque {
+        private final ConcurrentLinkedDeque<Double> deque = new ConcurrentLinkedDeque<>();
+
+        @Override
+        public void push(double task) {
+            deque.addLast(task);
+        }
+
+        @Override
+        public double pop() {
+            Double task = deque.pollLast();
+            return task == null ? Double.NaN : task;
+        }
+
+        @Override
+        public double steal() {
+            Double task = deque.pollFirst();
+            return task == null ? Double.NaN : task;
+        }
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args ignored
+     * @throws RunnerException if a run fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(WorkStealingBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
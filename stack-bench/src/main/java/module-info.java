@@ -0,0 +1,6 @@
+module com.mycompany.stackoperationsimulator.bench {
+    requires com.mycompany.stackoperationsimulator.core;
+    requires jmh.core;
+    exports com.mycompany.stackoperationsimulator.bench;
+    exports com.mycompany.stackoperationsimulator.bench.jmh_generated;
+}
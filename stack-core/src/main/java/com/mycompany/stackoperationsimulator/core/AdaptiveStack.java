@@ -0,0 +1,356 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import com.mycompany.stackoperationsimulator.core.concurrent.FlatCombiningStack;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stack that watches its own workload and moves its elements to the layout
+ * that suits it.
+ *
+ * <p>Every {@value #SAMPLE_INTERVAL} pushes and pops the stack looks at what
+ * happened since the last sample; reads such as {@link #peek()} and
+ * {@link #size()} are not counted:</p>
+ * <ul>
+ *   <li>If threads had to wait for each other at least
+ *       {@value #CONTENTION_THRESHOLD} times, the elements move to a
+ *       {@link FlatCombiningStack}. This move is final.</li>
+ *   <li>If the stack holds at least the compress depth, the elements move to
+ *       a {@link CompressedStack}. If they shrink less than
+ *       {@value #MIN_COMPRESSION_RATIO} times, they move back, and
+ *       compression is not tried again until the depth has fallen below a
+ *       quarter of the compress depth.</li>
+ *   <li>A compressed stack whose depth falls below a quarter of the compress
+ *       depth moves back to a flat {@link StackDemo}.</li>
+ * </ul>
+ *
+ * <p>Each move copies the elements once, which the following
+ * {@value #SAMPLE_INTERVAL} or more operations pay for. The metric getters
+ * show the current layout and how often the stack has moved.</p>
+ *
+ * <p>The stack is thread-safe. Until it has moved to the concurrent layout,
+ * each operation takes a spin flag with one compare-and-set; a thread that
+ * finds the flag taken counts as contention. After the move, operations go
+ * straight to the flat-combining stack.</p>
+ */
+public class AdaptiveStack implements DoubleStack {
+
+    /**
+     * Where the elements are kept.
+     */
+    public enum Layout {
+        /** A {@link StackDemo}: one {@code double[]}. */
+        FLAT,
+        /** A {@link CompressedStack}: XOR-compressed blocks below a plain top. */
+        COMPRESSED,
+        /** A {@link FlatCombiningStack}, for several threads at once. */
+        CONCURRENT
+    }
+
+    /**
+     * Depth from which compression is tried, unless another is given.
+     */
+    public static final int DEFAULT_COMPRESS_DEPTH = 1 << 20;
+
+    /**
+     * Pushes and pops between two samples of the workload.
+     */
+    public static final int SAMPLE_INTERVAL = 4096;
+
+    /**
+     * Waits per sample interval that make the stack concurrent.
+     */
+    public static final int CONTENTION_THRESHOLD = 64;
+
+    /**
+     * Smallest compression ratio for which the compressed layout is kept.
+     */
+    public static final double MIN_COMPRESSION_RATIO = 1.5;
+
+    private static final VarHandle BUSY;
+
+    static {
+        try {
+            BUSY = MethodHandles.lookup().findVarHandle(AdaptiveStack.class, "busy", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int capacity;
+    private final int compressDepth;
+
+    /**
+     * Current implementation; replaced by the thread holding the flag.
+     */
+    private volatile DoubleStack delegate;
+    private volatile Layout layout = Layout.FLAT;
+
+    /**
+     * 1 while a thread operates on a flat or compressed delegate.
+     */
+    @SuppressWarnings("unused")
+    private volatile int busy;
+
+    // Waits for the flag since the last sample, and in total
+    private final AtomicInteger contention = new AtomicInteger();
+    private volatile long contendedOperations;
+
+    // Guarded by the flag
+    private long operations;
+    private boolean compressionRejected;
+    private volatile int migrations;
+    private volatile double lastCompressionRatio = Double.NaN;
+
+    /**
+     * Constructs a new AdaptiveStack that tries compression from
+     * {@value #DEFAULT_COMPRESS_DEPTH} elements.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     */
+    public AdaptiveStack(int capacity) {
+        this(capacity, DEFAULT_COMPRESS_DEPTH);
+    }
+
+    /**
+     * Constructs a new AdaptiveStack.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @param compressDepth the depth from which compression is tried
+     * @throws IllegalArgumentException if capacity or compressDepth is less than or equal to zero
+     */
+    public AdaptiveStack(int capacity, int compressDepth) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (compressDepth <= 0) {
+            throw new IllegalArgumentException("Compress depth must be positive");
+        }
+        this.capacity = capacity;
+        this.compressDepth = compressDepth;
+        this.delegate = new StackDemo(capacity);
+    }
+
+    @Override
+    public void push(double element) {
+        if (!enter()) {
+            delegate.push(element);
+            return;
+        }
+        try {
+            delegate.push(element);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public double pop() {
+        if (!enter()) {
+            return delegate.pop();
+        }
+        try {
+            return delegate.pop();
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public double peek() {
+        if (!enter()) {
+            return delegate.peek();
+        }
+        try {
+            return delegate.peek();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return size() == capacity;
+    }
+
+    @Override
+    public int size() {
+        if (!enter()) {
+            return delegate.size();
+        }
+        try {
+            return delegate.size();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public double[] getElements() {
+        if (!enter()) {
+            return delegate.getElements();
+        }
+        try {
+            return delegate.getElements();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * @return the layout the elements are kept in now
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return the number of times the elements have moved to another layout
+     */
+    public int getMigrationCount() {
+        return migrations;
+    }
+
+    /**
+     * @return the number of pushes and pops counted before the move to the
+     *         concurrent layout, after which they are not counted
+     */
+    public long getOperationCount() {
+        if (!enter()) {
+            return operations;
+        }
+        try {
+            return operations;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * @return the number of operations that had to wait for another thread
+     */
+    public long getContendedOperations() {
+        return contendedOperations;
+    }
+
+    /**
+     * @return the compression ratio measured at the last move to the
+     *         compressed layout, or NaN if there was none
+     */
+    public double getLastCompressionRatio() {
+        return lastCompressionRatio;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveStack[layout=" + layout + ", migrations=" + migrations
+            + ", contended=" + contendedOperations + "]";
+    }
+
+    /**
+     * Takes the flag, unless the stack is concurrent.
+     *
+     * @return true if the flag is held, false if the caller should use the concurrent delegate
+     */
+    private boolean enter() {
+        if (layout == Layout.CONCURRENT) {
+            return false;
+        }
+        if (!BUSY.compareAndSet(this, 0, 1)) {
+            contention.incrementAndGet();
+            do {
+                // Yield rather than spin: the holder may need this processor to finish
+                Thread.yield();
+            } while (!BUSY.compareAndSet(this, 0, 1));
+            contendedOperations++;
+        }
+        if (layout == Layout.CONCURRENT) {
+            // Moved while this thread waited
+            BUSY.setRelease(this, 0);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts a push or pop, samples the workload when due, and releases the flag.
+     */
+    private void exit() {
+        if (++operations % SAMPLE_INTERVAL == 0) {
+            sample();
+        }
+        release();
+    }
+
+    /**
+     * Releases the flag after a read, which is not counted.
+     */
+    private void release() {
+        BUSY.setRelease(this, 0);
+    }
+
+    private void sample() {
+        if (contention.getAndSet(0) >= CONTENTION_THRESHOLD) {
+            migrate(Layout.CONCURRENT);
+            return;
+        }
+        int depth = delegate.size();
+        if (depth < compressDepth / 4) {
+            compressionRejected = false;
+            if (layout == Layout.COMPRESSED) {
+                migrate(Layout.FLAT);
+            }
+        } else if (depth >= compressDepth && layout == Layout.FLAT && !compressionRejected) {
+            migrate(Layout.COMPRESSED);
+            lastCompressionRatio = ((CompressedStack) delegate).getCompressionRatio();
+            if (lastCompressionRatio < MIN_COMPRESSION_RATIO) {
+                compressionRejected = true;
+                migrate(Layout.FLAT);
+            }
+        }
+    }
+
+    /**
+     * Copies the elements into a new delegate. Called with the flag held.
+     */
+    private void migrate(Layout target) {
+        double[] elements = delegate.getElements();
+        DoubleStack next;
+        switch (target) {
+            case FLAT: {
+                StackDemo flat = new StackDemo(capacity);
+                flat.pushAll(DoubleBuffer.wrap(elements));
+                next = flat;
+                break;
+            }
+            case COMPRESSED:
+                next = new CompressedStack(capacity);
+                break;
+            default:
+                next = new FlatCombiningStack(capacity);
+                break;
+        }
+        if (target != Layout.FLAT) {
+            for (double element : elements) {
+                next.push(element);
+            }
+        }
+        // The delegate before the layout: a thread that sees CONCURRENT must find the new delegate
+        delegate = next;
+        layout = target;
+        migrations++;
+    }
+}
@@ -0,0 +1,140 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Stack that keeps its minimum, maximum, sum and mean available in O(1).
+ *
+ * <p>Next to the elements, the stack keeps one entry per level in auxiliary
+ * primitive arrays: the minimum and maximum of all elements up to that level,
+ * and their running sum with its Kahan compensation term. A push computes the
+ * new level from the one below it and a pop simply discards the top level, so
+ * every aggregate is available after every operation without scanning the
+ * stack, and popping restores the exact previous values.</p>
+ *
+ * <p>Memory use is five times that of a plain {@link StackDemo}. NaN elements
+ * make the minimum, maximum and sum NaN for as long as they are on the stack.</p>
+ */
+public class AggregateStack extends StackDemo {
+
+    /**
+     * Minimum of the elements at indexes 0 to i.
+     */
+    private final double[] minimums;
+
+    /**
+     * Maximum of the elements at indexes 0 to i.
+     */
+    private final double[] maximums;
+
+    /**
+     * Kahan-compensated sum of the elements at indexes 0 to i.
+     */
+    private final double[] sums;
+
+    /**
+     * Compensation term (lost low-order bits) belonging to sums[i].
+     */
+    private final double[] compensations;
+
+    /**
+     * Constructs a new AggregateStack with the specified capacity.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     */
+    public AggregateStack(int capacity) {
+        super(capacity);
+        minimums = new double[capacity];
+        maximums = new double[capacity];
+        sums = new double[capacity];
+        compensations = new double[capacity];
+    }
+
+    @Override
+    public void push(double element) {
+        super.push(element);
+        record(size() - 1, element);
+    }
+
+    @Override
+    public void pushAll(DoubleBuffer source) {
+        // Keep a view of the pushed values, super.pushAll consumes the buffer
+        DoubleBuffer values = source.duplicate();
+        int level = size();
+        super.pushAll(source);
+        while (values.hasRemaining()) {
+            record(level++, values.get());
+        }
+    }
+
+    // pop() needs no override: the aggregates of the remaining levels are unchanged
+
+    /**
+     * Returns the smallest element on the stack.
+     *
+     * @return the minimum element
+     * @throws IllegalStateException if the stack is empty
+     */
+    public double getMin() {
+        return minimums[topIndex()];
+    }
+
+    /**
+     * Returns the largest element on the stack.
+     *
+     * @return the maximum element
+     * @throws IllegalStateException if the stack is empty
+     */
+    public double getMax() {
+        return maximums[topIndex()];
+    }
+
+    /**
+     * Returns the sum of all elements on the stack, computed with Kahan
+     * summation so that long runs of pushes do not accumulate rounding error.
+     *
+     * @return the sum, or 0 for an empty stack
+     */
+    public double getSum() {
+        return isEmpty() ? 0.0 : sums[size() - 1];
+    }
+
+    /**
+     * Returns the arithmetic mean of the elements on the stack.
+     *
+     * @return the mean element value
+     * @throws IllegalStateException if the stack is empty
+     */
+    public double getMean() {
+        return sums[topIndex()] / size();
+    }
+
+    /**
+     * Computes the aggregates for a new level from the level below it.
+     */
+    private void record(int level, double element) {
+        if (level == 0) {
+            minimums[0] = element;
+            maximums[0] = element;
+            sums[0] = element;
+            compensations[0] = 0.0;
+            return;
+        }
+        minimums[level] = Math.min(minimums[level - 1], element);
+        maximums[level] = Math.max(maximums[level - 1], element);
+
+        // Kahan summation step
+        double adjusted = element - compensations[level - 1];
+        double sum = sums[level - 1] + adjusted;
+        compensations[level] = (sum - sums[level - 1]) - adjusted;
+        sums[level] = sum;
+    }
+
+    private int topIndex() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return size() - 1;
+    }
+}
@@ -0,0 +1,47 @@
+package com.mycompany.stackoperationsimulator.core;
+
+/**
+ * Bulk scans over the live range {@code [0, length)} of a stack's backing array.
+ *
+ * <p>Implemented by {@link ScalarKernel} and, on JDK 17 or newer with the
+ * {@code jdk.incubator.vector} module present, by a Vector API kernel. Both
+ * return the same results except for the rounding of {@link #sum}, which
+ * depends on the order in which lanes are added.</p>
+ */
+interface AnalyticsKernel {
+
+    /**
+     * @return the sum of the elements, 0 for an empty range
+     */
+    double sum(double[] array, int length);
+
+    /**
+     * @return the minimum with {@code Math.min} semantics, +Infinity for an empty range
+     */
+    double min(double[] array, int length);
+
+    /**
+     * @return the maximum with {@code Math.max} semantics, -Infinity for an empty range
+     */
+    double max(double[] array, int length);
+
+    /**
+     * @return the number of elements greater than zero
+     */
+    int countPositive(double[] array, int length);
+
+    /**
+     * @return the number of elements less than zero
+     */
+    int countNegative(double[] array, int length);
+
+    /**
+     * @return the lowest index holding the value, or -1
+     */
+    int indexOf(double[] array, int length, double value);
+
+    /**
+     * @return the highest index holding the value, or -1
+     */
+    int lastIndexOf(double[] array, int length, double value);
+}
@@ -0,0 +1,286 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import java.util.Arrays;
+
+/**
+ * Stack that keeps all but its topmost elements XOR-compressed in memory.
+ *
+ * <p>The top of the stack lives in an uncompressed hot buffer of two blocks
+ * ({@value #BLOCK} elements each). When the hot buffer is full, its lower
+ * block is compressed and appended to the cold bit stream; when it runs
+ * empty, the most recent cold block is decoded back into it. Because a
+ * block only moves after {@value #BLOCK} pushes or pops in one direction, the
+ * cost of compressing and decoding is spread over at least that many
+ * operations, and push, pop and peek otherwise work on a plain array.</p>
+ *
+ * <p>Cold blocks use the XOR encoding of Facebook's Gorilla time-series
+ * store: each value is XORed with the previous one; an identical value costs
+ * one bit, and a value whose XOR has its significant bits inside the window
+ * of the previous XOR costs two bits plus that window. Repeated and slowly
+ * changing values therefore shrink to a few bits each. Values that share
+ * little of their bit pattern (such as random two-decimal numbers) compress
+ * much less, as decimal fractions are not exact in binary; a block that
+ * would not get smaller is stored raw instead, so compression never costs
+ * more than one bit per block.</p>
+ *
+ * <p>The cold stream is itself a stack: blocks are appended and removed at
+ * its end, so no block is ever re-encoded.</p>
+ */
+public class CompressedStack implements DoubleStack {
+
+    /**
+     * Elements per compressed block.
+     */
+    public static final int BLOCK = 1024;
+
+    private final int capacity;
+
+    /**
+     * Uncompressed top of the stack; hot[0] is the lowest hot element.
+     */
+    private final double[] hot = new double[2 * BLOCK];
+    private int hotCount;
+
+    /**
+     * Cold blocks as one bit stream, most significant bit first.
+     */
+    private long[] words = new long[64];
+    private long bitEnd;
+
+    /**
+     * Start bit of each cold block in the stream.
+     */
+    private long[] blockStarts = new long[16];
+    private int blockCount;
+
+    // Decoder position while reading a block
+    private long readPosition;
+
+    /**
+     * Constructs a new CompressedStack with the specified capacity.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     */
+    public CompressedStack(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void push(double element) {
+        if (isFull()) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        if (hotCount == hot.length) {
+            // Compress the lower hot block, keep the upper one hot
+            encodeBlock(hot, 0);
+            System.arraycopy(hot, BLOCK, hot, 0, BLOCK);
+            hotCount = BLOCK;
+        }
+        hot[hotCount++] = element;
+    }
+
+    @Override
+    public double pop() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Stack Underflow");
+        }
+        if (hotCount == 0) {
+            decodeLastBlock();
+        }
+        return hot[--hotCount];
+    }
+
+    @Override
+    public double peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        if (hotCount == 0) {
+            decodeLastBlock();
+        }
+        return hot[hotCount - 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return size() == capacity;
+    }
+
+    @Override
+    public int size() {
+        return blockCount * BLOCK + hotCount;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public double[] getElements() {
+        double[] elements = new double[size()];
+        for (int block = 0; block < blockCount; block++) {
+            readPosition = blockStarts[block];
+            decode(elements, block * BLOCK);
+        }
+        System.arraycopy(hot, 0, elements, blockCount * BLOCK, hotCount);
+        return elements;
+    }
+
+    /**
+     * @return the number of elements held compressed
+     */
+    public int getColdElements() {
+        return blockCount * BLOCK;
+    }
+
+    /**
+     * @return the bytes used by the compressed elements
+     */
+    public long getColdBytes() {
+        return (bitEnd + 7) / 8;
+    }
+
+    /**
+     * Returns how much smaller the compressed elements are than the same
+     * elements in a {@code double[]}.
+     *
+     * @return raw bytes divided by compressed bytes, or 1 if nothing is compressed
+     */
+    public double getCompressionRatio() {
+        return blockCount == 0 ? 1 : (double) getColdElements() * Double.BYTES / getColdBytes();
+    }
+
+    private void encodeBlock(double[] values, int offset) {
+        if (blockCount == blockStarts.length) {
+            blockStarts = Arrays.copyOf(blockStarts, blockCount * 2);
+        }
+        long start = bitEnd;
+        blockStarts[blockCount++] = start;
+
+        writeBits(1, 1);
+        long previous = Double.doubleToRawLongBits(values[offset]);
+        writeBits(previous, 64);
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = offset + 1; i < offset + BLOCK; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                // Same value: one 0 bit
+                writeBits(0, 1);
+                continue;
+            }
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // Fits the previous window: 10, then the window
+                writeBits(0b10, 2);
+                writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                // New window: 11, 5 bits leading zeros, 6 bits length - 1, then the bits
+                int length = 64 - leading - trailing;
+                writeBits(0b11, 2);
+                writeBits(leading, 5);
+                writeBits(length - 1, 6);
+                writeBits(xor >>> trailing, length);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        if (bitEnd - start > 1 + 64L * BLOCK) {
+            // Incompressible: a 0 flag bit, then the raw bits
+            truncate(start);
+            writeBits(0, 1);
+            for (int i = offset; i < offset + BLOCK; i++) {
+                writeBits(Double.doubleToRawLongBits(values[i]), 64);
+            }
+        }
+    }
+
+    private void decodeLastBlock() {
+        long start = blockStarts[--blockCount];
+        readPosition = start;
+        decode(hot, 0);
+        hotCount = BLOCK;
+        truncate(start);
+    }
+
+    /**
+     * Drops the stream from the given bit on; later writes OR into the last word.
+     */
+    private void truncate(long end) {
+        bitEnd = end;
+        int offset = (int) (end & 63);
+        if (offset != 0) {
+            words[(int) (end >>> 6)] &= -1L << (64 - offset);
+        }
+    }
+
+    private void decode(double[] target, int offset) {
+        if (readBits(1) == 0) {
+            for (int i = offset; i < offset + BLOCK; i++) {
+                target[i] = Double.longBitsToDouble(readBits(64));
+            }
+            return;
+        }
+        long previous = readBits(64);
+        target[offset] = Double.longBitsToDouble(previous);
+        int leading = 0;
+        int trailing = 0;
+        for (int i = offset + 1; i < offset + BLOCK; i++) {
+            if (readBits(1) != 0) {
+                if (readBits(1) != 0) {
+                    leading = (int) readBits(5);
+                    int length = (int) readBits(6) + 1;
+                    trailing = 64 - leading - length;
+                }
+                previous ^= readBits(64 - leading - trailing) << trailing;
+            }
+            target[i] = Double.longBitsToDouble(previous);
+        }
+    }
+
+    /**
+     * Appends the low {@code bits} bits of value, which must have no other bits set.
+     */
+    private void writeBits(long value, int bits) {
+        int word = (int) (bitEnd >>> 6);
+        int offset = (int) (bitEnd & 63);
+        if (word + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        int free = 64 - offset;
+        long current = offset == 0 ? 0 : words[word];
+        if (bits <= free) {
+            words[word] = current | (value << (free - bits));
+        } else {
+            int rest = bits - free;
+            words[word] = current | (value >>> rest);
+            words[word + 1] = value << (64 - rest);
+        }
+        bitEnd += bits;
+    }
+
+    private long readBits(int bits) {
+        int word = (int) (readPosition >>> 6);
+        int offset = (int) (readPosition & 63);
+        long value = (words[word] << offset) >>> (64 - bits);
+        int free = 64 - offset;
+        if (bits > free) {
+            value |= words[word + 1] >>> (64 - (bits - free));
+        }
+        readPosition += bits;
+        return value;
+    }
+}
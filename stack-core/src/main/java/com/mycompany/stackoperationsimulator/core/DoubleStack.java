@@ -0,0 +1,73 @@
+package com.mycompany.stackoperationsimulator.core;
+
+/**
+ * Contract shared by all stack implementations in the engine.
+ *
+ * <p>A DoubleStack holds primitive {@code double} values in LIFO order and
+ * has a fixed capacity. Implementations follow the same error conventions as
+ * {@link StackDemo}: pushing onto a full stack throws
+ * {@code IllegalStateException("Stack Overflow")}, popping an empty stack throws
+ * {@code IllegalStateException("Stack Underflow")} and peeking an empty stack
+ * throws {@code IllegalStateException("Stack is empty")}.</p>
+ */
+public interface DoubleStack {
+
+    /**
+     * Pushes an element onto the top of the stack.
+     *
+     * @param element the value to push
+     * @throws IllegalStateException if the stack is full
+     */
+    void push(double element);
+
+    /**
+     * Removes and returns the element at the top of the stack.
+     *
+     * @return the element at the top of the stack
+     * @throws IllegalStateException if the stack is empty
+     */
+    double pop();
+
+    /**
+     * Returns the element at the top of the stack without removing it.
+     *
+     * @return the element at the top of the stack
+     * @throws IllegalStateException if the stack is empty
+     */
+    double peek();
+
+    /**
+     * Checks if the stack is empty.
+     *
+     * @return true if the stack contains no elements
+     */
+    boolean isEmpty();
+
+    /**
+     * Checks if the stack is full.
+     *
+     * @return true if the stack has reached its capacity
+     */
+    boolean isFull();
+
+    /**
+     * Returns the current number of elements in the stack.
+     *
+     * @return the number of elements
+     */
+    int size();
+
+    /**
+     * Returns the maximum capacity of the stack.
+     *
+     * @return the maximum number of elements the stack can hold
+     */
+    int getCapacity();
+
+    /**
+     * Returns a copy of all elements currently in the stack.
+     *
+     * @return a new array with the elements from bottom to top
+     */
+    double[] getElements();
+}
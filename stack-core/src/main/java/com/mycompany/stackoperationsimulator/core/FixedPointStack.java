@@ -0,0 +1,386 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import com.mycompany.stackoperationsimulator.core.text.FixedPointFormatter;
+import com.mycompany.stackoperationsimulator.core.text.FixedPointParser;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * A stack of decimal values with a fixed number of fraction digits, stored
+ * as scaled {@code long}s.
+ *
+ * <p>Each element is a count of units of 10<sup>-scale</sup>: with scale 2,
+ * {@code 12.30} is stored as {@code 1230}. Decimal input such as money
+ * amounts is held exactly, sums never drift, and the elements format with
+ * {@link FixedPointFormatter} using integer arithmetic alone. The range is
+ * that of a {@code long} divided by 10<sup>scale</sup>, about
+ * &plusmn;9.2e16 at scale 2.</p>
+ *
+ * <p>Values go in exactly as text ({@link #push(CharSequence)}) or as
+ * unscaled counts ({@link #pushUnscaled(long)}). As a {@link DoubleStack}
+ * it also accepts doubles, rounded half-even to the scale, and returns the
+ * nearest double. {@link #add()}, {@link #subtract()}, {@link #multiply()}
+ * and {@link #divide()} combine the two top elements like a calculator:
+ * addition and subtraction are exact, multiplication and division round
+ * half-even to the scale, and any result out of range throws
+ * {@link ArithmeticException} instead of wrapping around.</p>
+ */
+public final class FixedPointStack implements DoubleStack {
+
+    // Powers of ten up to the largest that fits in a long
+    private static final long[] POWERS_OF_TEN = new long[FixedPointFormatter.MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // Below this magnitude a scaled double converts to a long exactly
+    private static final double MAX_EXACT_SCALED = 0x1p52;
+
+    // Distance from a tie, in ulps of the scaled value, below which a double's
+    // decimal form decides the rounding
+    private static final double TIE_ULPS = 4;
+
+    private final long[] array;
+    private final int capacity;
+    private final int scale;
+    private final long unit;
+    private int top = -1;
+
+    /**
+     * Creates an empty stack.
+     *
+     * @param capacity the maximum number of elements
+     * @param scale the number of fraction digits, 0 to {@link FixedPointFormatter#MAX_SCALE}
+     * @throws IllegalArgumentException if capacity is not positive or the scale is out of range
+     */
+    public FixedPointStack(int capacity, int scale) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.unit = unit(scale);
+        this.array = new long[capacity];
+        this.capacity = capacity;
+        this.scale = scale;
+    }
+
+    /**
+     * @return the number of fraction digits
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Pushes a decimal value given as text, exactly.
+     *
+     * @param text the value, e.g. {@code "12.30"}
+     * @throws NumberFormatException if the text is not a decimal or has
+     *         non-zero digits beyond the scale
+     * @throws IllegalStateException if the stack is full
+     */
+    public void push(CharSequence text) {
+        pushUnscaled(FixedPointParser.parse(text, scale));
+    }
+
+    /**
+     * Pushes a double, rounded half-even to the scale.
+     *
+     * @param element the value
+     * @throws ArithmeticException if the value is not finite or out of range
+     * @throws IllegalStateException if the stack is full
+     */
+    @Override
+    public void push(double element) {
+        pushUnscaled(toUnscaled(element, scale));
+    }
+
+    /**
+     * Pushes a value in units of 10^-scale.
+     *
+     * @param unscaled the value
+     * @throws IllegalStateException if the stack is full
+     */
+    public void pushUnscaled(long unscaled) {
+        if (top == capacity - 1) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        array[++top] = unscaled;
+    }
+
+    @Override
+    public double pop() {
+        return toDouble(popUnscaled());
+    }
+
+    /**
+     * Removes the top element.
+     *
+     * @return the element in units of 10^-scale
+     * @throws IllegalStateException if the stack is empty
+     */
+    public long popUnscaled() {
+        if (top == -1) {
+            throw new IllegalStateException("Stack Underflow");
+        }
+        return array[top--];
+    }
+
+    @Override
+    public double peek() {
+        return toDouble(peekUnscaled());
+    }
+
+    /**
+     * Returns the top element without removing it.
+     *
+     * @return the element in units of 10^-scale
+     * @throws IllegalStateException if the stack is empty
+     */
+    public long peekUnscaled() {
+        if (top == -1) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return array[top];
+    }
+
+    /**
+     * Replaces the two top elements a, b (b on top) with a + b.
+     *
+     * @throws IllegalStateException if there are fewer than two elements
+     * @throws ArithmeticException if the result is out of range
+     */
+    public void add() {
+        checkOperands();
+        array[top - 1] = Math.addExact(array[top - 1], array[top]);
+        top--;
+    }
+
+    /**
+     * Replaces a, b with a - b.
+     *
+     * @throws IllegalStateException if there are fewer than two elements
+     * @throws ArithmeticException if the result is out of range
+     */
+    public void subtract() {
+        checkOperands();
+        array[top - 1] = Math.subtractExact(array[top - 1], array[top]);
+        top--;
+    }
+
+    /**
+     * Replaces a, b with a * b, rounded half-even to the scale.
+     *
+     * @throws IllegalStateException if there are fewer than two elements
+     * @throws ArithmeticException if the result is out of range
+     */
+    public void multiply() {
+        checkOperands();
+        array[top - 1] = multiply(array[top - 1], array[top], scale);
+        top--;
+    }
+
+    /**
+     * Replaces a, b with a / b, rounded half-even to the scale.
+     *
+     * @throws IllegalStateException if there are fewer than two elements
+     * @throws ArithmeticException if b is zero or the result is out of range
+     */
+    public void divide() {
+        checkOperands();
+        array[top - 1] = divide(array[top - 1], array[top], scale);
+        top--;
+    }
+
+    /**
+     * Negates the top element.
+     *
+     * @throws IllegalStateException if the stack is empty
+     * @throws ArithmeticException if the result is out of range
+     */
+    public void negate() {
+        array[top] = Math.negateExact(peekUnscaled());
+    }
+
+    /**
+     * Checks that a binary operation has both operands. The operations
+     * compute before they pop, so a failed one leaves the stack unchanged.
+     */
+    private void checkOperands() {
+        if (top < 1) {
+            throw new IllegalStateException("Stack Underflow");
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return top == -1;
+    }
+
+    @Override
+    public boolean isFull() {
+        return top == capacity - 1;
+    }
+
+    @Override
+    public int size() {
+        return top + 1;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes all elements without touching the array.
+     */
+    public void clear() {
+        top = -1;
+    }
+
+    /**
+     * @return the elements from bottom to top as the nearest doubles
+     */
+    @Override
+    public double[] getElements() {
+        double[] elements = new double[top + 1];
+        for (int i = 0; i <= top; i++) {
+            elements[i] = toDouble(array[i]);
+        }
+        return elements;
+    }
+
+    /**
+     * @return the elements from bottom to top in units of 10^-scale
+     */
+    public long[] getUnscaledElements() {
+        return Arrays.copyOf(array, top + 1);
+    }
+
+    /**
+     * Returns the internal array without copying it, for the engine package
+     * (see {@link StackMachine}). Only the elements at indexes 0 to size() - 1
+     * are valid, and callers must not modify them.
+     */
+    long[] backingArray() {
+        return array;
+    }
+
+    private double toDouble(long unscaled) {
+        // Correctly rounded while the unscaled value is below 2^53, as both operands are then exact
+        return (double) unscaled / unit;
+    }
+
+    /**
+     * Returns 10^scale, the unscaled value of 1.
+     *
+     * @param scale the number of fraction digits, 0 to {@link FixedPointFormatter#MAX_SCALE}
+     * @return the power of ten
+     * @throws IllegalArgumentException if the scale is out of range
+     */
+    public static long unit(int scale) {
+        if (scale < 0 || scale > FixedPointFormatter.MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + FixedPointFormatter.MAX_SCALE);
+        }
+        return POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * Converts a double to units of 10^-scale, rounding half-even on the
+     * double's shortest decimal form, so 1.005 at scale 2 is treated as the
+     * decimal 1.005 even though the double is slightly below it.
+     *
+     * @param value the value
+     * @param scale the number of fraction digits
+     * @return the value in units of 10^-scale
+     * @throws ArithmeticException if the value is not finite or out of range
+     */
+    public static long toUnscaled(double value, int scale) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new ArithmeticException("Not a finite number: " + value);
+        }
+        double scaled = value * unit(scale);
+        double rounded = Math.rint(scaled);
+        // The product is within 1.5 ulps of the shortest decimal times 10^scale: half
+        // an ulp from the multiplication and up to one from the double itself. Away
+        // from a tie by more than that, both round the same way; near one, ask the
+        // decimal form
+        if (Math.abs(scaled) < MAX_EXACT_SCALED
+                && Math.abs(Math.abs(scaled - rounded) - 0.5) > TIE_ULPS * Math.ulp(scaled)) {
+            return (long) rounded;
+        }
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Multiplies two values of the same scale, rounding half-even.
+     *
+     * @param a a value in units of 10^-scale
+     * @param b a value in units of 10^-scale
+     * @param scale the number of fraction digits
+     * @return a * b in units of 10^-scale
+     * @throws ArithmeticException if the result is out of range
+     */
+    public static long multiply(long a, long b, int scale) {
+        long unit = unit(scale);
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideRounded(low, unit);
+        }
+        // The product needs more than 64 bits; rare enough to use BigInteger
+        return divideRounded(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)), BigInteger.valueOf(unit));
+    }
+
+    /**
+     * Divides two values of the same scale, rounding half-even.
+     *
+     * @param a the dividend in units of 10^-scale
+     * @param b the divisor in units of 10^-scale
+     * @param scale the number of fraction digits
+     * @return a / b in units of 10^-scale
+     * @throws ArithmeticException if b is zero or the result is out of range
+     */
+    public static long divide(long a, long b, int scale) {
+        if (b == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long unit = unit(scale);
+        long high = Math.multiplyHigh(a, unit);
+        long low = a * unit;
+        if (b != Long.MIN_VALUE && ((high == 0 && low >= 0) || (high == -1 && low < 0))) {
+            return divideRounded(low, b);
+        }
+        return divideRounded(BigInteger.valueOf(a).multiply(BigInteger.valueOf(unit)), BigInteger.valueOf(b));
+    }
+
+    /**
+     * n / d rounded half-even, for d other than zero and Long.MIN_VALUE.
+     */
+    private static long divideRounded(long n, long d) {
+        if (d == -1) {
+            // Long.MIN_VALUE / -1 wraps around silently
+            return Math.negateExact(n);
+        }
+        long quotient = n / d;
+        long remainder = n % d;
+        if (remainder != 0) {
+            long r = Math.abs(remainder);
+            long rest = Math.abs(d) - r;
+            if (r > rest || (r == rest && (quotient & 1) != 0)) {
+                quotient += (n ^ d) < 0 ? -1 : 1;
+            }
+        }
+        return quotient;
+    }
+
+    private static long divideRounded(BigInteger n, BigInteger d) {
+        return new BigDecimal(n).divide(new BigDecimal(d), 0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+}
@@ -0,0 +1,363 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import com.mycompany.stackoperationsimulator.core.io.StackFiles;
+import com.mycompany.stackoperationsimulator.core.text.DoubleFormatter;
+import com.mycompany.stackoperationsimulator.core.text.DoubleParser;
+import com.mycompany.stackoperationsimulator.core.text.FixedPointFormatter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Command-line runner for the stack engine, without any JavaFX dependency.
+ *
+ * <p>Reads one command per line from a script file or from standard input and
+ * applies it to a {@link StackDemo}. Results are written to standard output,
+ * errors (overflow, underflow, invalid input) to standard error. Blank lines
+ * and lines starting with {@code #} are ignored.</p>
+ *
+ * <p><strong>Usage:</strong></p>
+ * <pre>
+ * stack-headless [--capacity N] [--scale N] [script-file]
+ * </pre>
+ *
+ * <p>With {@code --scale N} the stack holds decimals with N fraction digits
+ * in a {@link FixedPointStack}: pushed values are taken exactly (more
+ * non-zero digits than the scale is an error) and printed with exactly N
+ * fraction digits, without any floating-point conversion.</p>
+ *
+ * <p><strong>Commands:</strong> {@code push <value>}, {@code pop}, {@code peek},
+ * {@code size}, {@code isEmpty}, {@code isFull}, {@code clear}, {@code print},
+ * {@code save <file>}, {@code load <file>}. The file format for save and load
+ * is picked from the extension ({@code .csv}, {@code .json}, anything else binary).</p>
+ */
+public final class HeadlessRunner {
+
+    // Default capacity, same as the simulator window
+    private static final int DEFAULT_CAPACITY = 12;
+
+    private static final String USAGE = "Usage: stack-headless [--capacity N] [--scale N] [script-file]";
+
+    private final PrintWriter out;
+    private final PrintWriter err;
+    private final char[] digits = new char[DoubleFormatter.MAX_LENGTH];
+    private int capacity;
+    private StackDemo stack;
+
+    // Number of fraction digits in fixed-point mode, or -1 for doubles
+    private final int scale;
+    private FixedPointStack decimals;
+
+    /**
+     * Creates a runner operating on a new, empty stack.
+     *
+     * @param capacity the capacity of the stack
+     * @param out writer for command results
+     * @param err writer for error messages
+     */
+    public HeadlessRunner(int capacity, PrintWriter out, PrintWriter err) {
+        this(capacity, -1, out, err);
+    }
+
+    /**
+     * Creates a runner operating on a new, empty stack of fixed-point
+     * decimals, or of doubles if the scale is negative.
+     *
+     * @param capacity the capacity of the stack
+     * @param scale the number of fraction digits, or -1 for doubles
+     * @param out writer for command results
+     * @param err writer for error messages
+     * @throws IllegalArgumentException if the scale is above {@link FixedPointFormatter#MAX_SCALE}
+     */
+    public HeadlessRunner(int capacity, int scale, PrintWriter out, PrintWriter err) {
+        this.capacity = capacity;
+        this.stack = new StackDemo(capacity);
+        this.scale = scale;
+        this.decimals = scale < 0 ? null : new FixedPointStack(capacity, scale);
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Executes every command read from the given reader.
+     *
+     * @param reader the source of commands, one per line
+     * @return the number of commands that failed
+     * @throws IOException if reading fails
+     */
+    public int run(BufferedReader reader) throws IOException {
+        int failures = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                execute(line);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                failures++;
+                // Results before the error come out before it
+                out.flush();
+                err.println("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        out.flush();
+        err.flush();
+        return failures;
+    }
+
+    /**
+     * Executes a single command against the stack.
+     *
+     * @param line the trimmed command line
+     * @throws IllegalStateException on overflow or underflow
+     * @throws IllegalArgumentException on an unknown command or invalid value
+     */
+    public void execute(String line) {
+        int space = line.indexOf(' ');
+        String command = space < 0 ? line : line.substring(0, space);
+        String argument = space < 0 ? "" : line.substring(space + 1).trim();
+
+        switch (command) {
+            case "push":
+                if (argument.isEmpty()) {
+                    throw new IllegalArgumentException("push requires a value");
+                }
+                push(argument);
+                break;
+            case "pop":
+                if (decimals != null) {
+                    printUnscaled(decimals.popUnscaled());
+                } else {
+                    printValue(stack.pop());
+                }
+                break;
+            case "peek":
+                if (decimals != null) {
+                    printUnscaled(decimals.peekUnscaled());
+                } else {
+                    printValue(stack.peek());
+                }
+                break;
+            case "size":
+                out.println(current().size());
+                break;
+            case "isEmpty":
+                out.println(current().isEmpty());
+                break;
+            case "isFull":
+                out.println(current().isFull());
+                break;
+            case "clear":
+                stack = new StackDemo(capacity);
+                if (decimals != null) {
+                    decimals = new FixedPointStack(capacity, scale);
+                }
+                break;
+            case "print":
+                printStack();
+                break;
+            case "save":
+                save(argument);
+                break;
+            case "load":
+                load(argument);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    /**
+     * Returns the stack the runner operates on.
+     *
+     * @return the current StackDemo instance, unused in fixed-point mode
+     */
+    public StackDemo getStack() {
+        return stack;
+    }
+
+    /**
+     * Returns the stack the runner operates on in fixed-point mode.
+     *
+     * @return the current FixedPointStack, or null when the runner uses doubles
+     */
+    public FixedPointStack getDecimalStack() {
+        return decimals;
+    }
+
+    private DoubleStack current() {
+        return decimals != null ? decimals : stack;
+    }
+
+    /**
+     * Pushes a value, exactly in fixed-point mode.
+     */
+    private void push(String argument) {
+        try {
+            if (decimals != null) {
+                decimals.push(argument);
+            } else {
+                stack.push(DoubleParser.parse(argument));
+            }
+        } catch (NumberFormatException e) {
+            // The fixed-point parser says which rule the text broke
+            throw new IllegalArgumentException(decimals != null ? e.getMessage() : "Invalid value: " + argument);
+        }
+    }
+
+    /**
+     * Saves the stack to a file.
+     */
+    private void save(String file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("save requires a file name");
+        }
+        try {
+            if (decimals != null) {
+                // The file formats hold doubles
+                StackDemo copy = new StackDemo(capacity);
+                for (double element : decimals.getElements()) {
+                    copy.push(element);
+                }
+                StackFiles.save(copy, Paths.get(file));
+            } else {
+                StackFiles.save(stack, Paths.get(file));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot save " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replaces the stack with one loaded from a file, including its capacity.
+     */
+    private void load(String file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("load requires a file name");
+        }
+        try {
+            StackDemo loaded = StackFiles.load(Paths.get(file));
+            if (decimals != null) {
+                // Rounded half-even to the scale, and kept only if every element converts
+                FixedPointStack converted = new FixedPointStack(loaded.getCapacity(), scale);
+                try {
+                    for (double element : loaded.getElements()) {
+                        converted.push(element);
+                    }
+                } catch (ArithmeticException e) {
+                    throw new IllegalStateException("Cannot load " + file + ": " + e.getMessage(), e);
+                }
+                decimals = converted;
+                loaded = new StackDemo(loaded.getCapacity());
+            }
+            stack = loaded;
+            capacity = loaded.getCapacity();
+            out.println("Loaded " + current().size() + " elements, capacity " + capacity);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Prints a single value on its own line.
+     */
+    private void printValue(double value) {
+        out.write(digits, 0, DoubleFormatter.format(value, digits, 0));
+        out.println();
+    }
+
+    /**
+     * Prints a fixed-point value on its own line.
+     */
+    private void printUnscaled(long value) {
+        out.write(digits, 0, FixedPointFormatter.format(value, scale, digits, 0));
+        out.println();
+    }
+
+    /**
+     * Prints the stack contents from bottom to top on a single line.
+     */
+    private void printStack() {
+        if (decimals != null) {
+            long[] elements = decimals.getUnscaledElements();
+            out.print('[');
+            for (int i = 0; i < elements.length; i++) {
+                if (i > 0) {
+                    out.print(", ");
+                }
+                out.write(digits, 0, FixedPointFormatter.format(elements[i], scale, digits, 0));
+            }
+            out.println(']');
+            return;
+        }
+        double[] elements = stack.getElements();
+        out.print('[');
+        for (int i = 0; i < elements.length; i++) {
+            if (i > 0) {
+                out.print(", ");
+            }
+            out.write(digits, 0, DoubleFormatter.format(elements[i], digits, 0));
+        }
+        out.println(']');
+    }
+
+    public static void main(String[] args) throws IOException {
+        int capacity = DEFAULT_CAPACITY;
+        int scale = -1;
+        String script = null;
+        PrintWriter err = new PrintWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8), true);
+        HeadlessRunner runner;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--capacity".equals(args[i]) && i + 1 < args.length) {
+                    capacity = parseOption("--capacity", args[++i]);
+                } else if ("--scale".equals(args[i]) && i + 1 < args.length) {
+                    scale = parseOption("--scale", args[++i]);
+                    if (scale < 0) {
+                        throw new IllegalArgumentException("Scale must not be negative");
+                    }
+                } else {
+                    script = args[i];
+                }
+            }
+            // Typed commands need their results at once; a script's are buffered
+            PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), script == null);
+            runner = new HeadlessRunner(capacity, scale, out, err);
+        } catch (IllegalArgumentException e) {
+            // Also a bad capacity or scale rejected by the stacks
+            err.println(e.getMessage());
+            err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        BufferedReader reader = script == null
+            ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+            : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8);
+        try (reader) {
+            int failures = runner.run(reader);
+            if (failures > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static int parseOption(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + " value: " + value);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mycompany.stackoperationsimulator.core;
+
+/**
+ * Plain loop implementation of {@link AnalyticsKernel}, available on every JDK.
+ */
+final class ScalarKernel implements AnalyticsKernel {
+
+    @Override
+    public double sum(double[] array, int length) {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += array[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(double[] array, int length) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            min = Math.min(min, array[i]);
+        }
+        return min;
+    }
+
+    @Override
+    public double max(double[] array, int length) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            max = Math.max(max, array[i]);
+        }
+        return max;
+    }
+
+    @Override
+    public int countPositive(double[] array, int length) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (array[i] > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countNegative(double[] array, int length) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (array[i] < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int indexOf(double[] array, int length, double value) {
+        for (int i = 0; i < length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(double[] array, int length, double value) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
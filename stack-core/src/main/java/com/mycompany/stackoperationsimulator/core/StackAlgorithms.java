@@ -0,0 +1,267 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import java.util.Arrays;
+
+/**
+ * Classic stack algorithms running on {@link StackDemo}.
+ *
+ * <p>An instance owns its working stacks and reuses them from call to call,
+ * growing them only when an input is larger than any before. Results go
+ * into arrays supplied by the caller, so once warmed up to the input size
+ * the algorithms do not allocate. Indexes are kept on the stack as doubles,
+ * which represent every {@code int} exactly.</p>
+ *
+ * <p>Each algorithm is O(n): every index is pushed and popped at most once.
+ * An instance is not thread-safe; use one per thread.</p>
+ */
+public final class StackAlgorithms {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private StackDemo stack = new StackDemo(INITIAL_CAPACITY);
+
+    // Visit marks for depthFirst; a node is visited when its mark equals the current pass
+    private int[] marks = new int[0];
+    private int pass;
+
+    /**
+     * Creates an instance with small working stacks.
+     */
+    public StackAlgorithms() {
+    }
+
+    /**
+     * Finds, for every element, the index of the next element to its right
+     * that is strictly greater.
+     *
+     * @param values the elements
+     * @param result receives the index for each element, or -1 if there is none
+     * @return result
+     * @throws IllegalArgumentException if result is shorter than values
+     */
+    public int[] nextGreater(double[] values, int[] result) {
+        int n = values.length;
+        if (result.length < n) {
+            throw new IllegalArgumentException("Result array is too short");
+        }
+        StackDemo pending = stack(n);
+        double[] indexes = pending.backingArray();
+        for (int i = 0; i < n; i++) {
+            double value = values[i];
+            // Every pending element smaller than this one has found its answer
+            while (!pending.isEmpty() && values[(int) indexes[pending.size() - 1]] < value) {
+                result[(int) pending.pop()] = i;
+            }
+            pending.push(i);
+        }
+        while (!pending.isEmpty()) {
+            result[(int) pending.pop()] = -1;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the largest rectangle under a histogram of bars of width 1.
+     *
+     * @param heights the bar heights, not negative
+     * @return the largest area, 0 for no bars
+     */
+    public double largestRectangle(double[] heights) {
+        int n = heights.length;
+        StackDemo bars = stack(n);
+        double[] indexes = bars.backingArray();
+        double best = 0;
+        for (int i = 0; i <= n; i++) {
+            // A zero-height bar after the last one closes every open rectangle
+            double height = i < n ? heights[i] : 0;
+            while (!bars.isEmpty() && heights[(int) indexes[bars.size() - 1]] >= height) {
+                double top = heights[(int) bars.pop()];
+                int left = bars.isEmpty() ? -1 : (int) indexes[bars.size() - 1];
+                best = Math.max(best, top * (i - left - 1));
+            }
+            bars.push(i);
+        }
+        return best;
+    }
+
+    /**
+     * Checks that the brackets {@code ()}, {@code []} and {@code {}} of a
+     * text are balanced and properly nested. Other characters are ignored.
+     *
+     * @param text the text to check
+     * @return the index of the first unmatched bracket, the text length if an
+     *         opening bracket is never closed, or -1 if the text is balanced
+     */
+    public int findUnbalanced(CharSequence text) {
+        int n = text.length();
+        StackDemo open = stack(n);
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '(':
+                    open.push(')');
+                    break;
+                case '[':
+                    open.push(']');
+                    break;
+                case '{':
+                    open.push('}');
+                    break;
+                case ')':
+                case ']':
+                case '}':
+                    // The stack holds the closing bracket each opening bracket expects
+                    if (open.isEmpty() || open.pop() != c) {
+                        return i;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return open.isEmpty() ? -1 : n;
+    }
+
+    /**
+     * Checks that the brackets of a text are balanced.
+     *
+     * @param text the text to check
+     * @return true if every bracket is matched and properly nested
+     * @see #findUnbalanced(CharSequence)
+     */
+    public boolean isBalanced(CharSequence text) {
+        return findUnbalanced(text) < 0;
+    }
+
+    /**
+     * Computes the maximum of every window of consecutive elements.
+     *
+     * @param values the elements
+     * @param window the window length
+     * @param result receives the maximum of values[i .. i + window - 1] at index i
+     * @return the number of windows, {@code values.length - window + 1}, or 0
+     *         if there are fewer elements than the window length
+     * @throws IllegalArgumentException if window is not positive or result is too short
+     */
+    public int slidingMax(double[] values, int window, double[] result) {
+        return slidingExtreme(values, window, result, true);
+    }
+
+    /**
+     * Computes the minimum of every window of consecutive elements.
+     *
+     * @param values the elements
+     * @param window the window length
+     * @param result receives the minimum of values[i .. i + window - 1] at index i
+     * @return the number of windows, or 0 if there are fewer elements than the window length
+     * @throws IllegalArgumentException if window is not positive or result is too short
+     */
+    public int slidingMin(double[] values, int window, double[] result) {
+        return slidingExtreme(values, window, result, false);
+    }
+
+    /**
+     * Monotonic stack whose bottom also drops indexes that left the window:
+     * entries from head up are candidates in increasing index order, with
+     * values decreasing (for maxima) from head to top.
+     */
+    private int slidingExtreme(double[] values, int window, double[] result, boolean max) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        int n = values.length;
+        int windows = Math.max(0, n - window + 1);
+        if (result.length < windows) {
+            throw new IllegalArgumentException("Result array is too short");
+        }
+        // Each index is pushed once, so n slots suffice although the bottom is never reused
+        StackDemo candidates = stack(n);
+        double[] indexes = candidates.backingArray();
+        int head = 0;
+        for (int i = 0; i < n; i++) {
+            double value = values[i];
+            while (candidates.size() > head) {
+                double last = values[(int) indexes[candidates.size() - 1]];
+                if (max ? last > value : last < value) {
+                    break;
+                }
+                candidates.pop();
+            }
+            candidates.push(i);
+            if (indexes[head] <= i - window) {
+                head++;
+            }
+            if (i >= window - 1) {
+                result[i - window + 1] = values[(int) indexes[head]];
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Walks a directed graph depth-first without recursion, so that deep
+     * graphs cannot overflow the thread stack.
+     *
+     * <p>The graph is in compressed sparse row form: the successors of node
+     * {@code v} are {@code targets[offsets[v]]} up to, not including,
+     * {@code targets[offsets[v + 1]]}. Successors are visited in that
+     * order.</p>
+     *
+     * @param offsets start of each node's successors, one entry per node plus one
+     * @param targets the successors of all nodes
+     * @param start the node to start from
+     * @param order receives the reached nodes in preorder
+     * @return the number of nodes reached
+     * @throws IllegalArgumentException if start is not a node or order is shorter than the node count
+     */
+    public int depthFirst(int[] offsets, int[] targets, int start, int[] order) {
+        int nodes = offsets.length - 1;
+        if (start < 0 || start >= nodes) {
+            throw new IllegalArgumentException("Start node out of range: " + start);
+        }
+        if (order.length < nodes) {
+            throw new IllegalArgumentException("Order array is too short");
+        }
+        if (marks.length < nodes) {
+            marks = new int[nodes];
+            pass = 0;
+        }
+        if (++pass == 0) {
+            // The pass counter wrapped: old marks could be mistaken for new ones
+            Arrays.fill(marks, 0);
+            pass = 1;
+        }
+        // A node is pushed once per incoming edge at most
+        StackDemo next = stack(targets.length + 1);
+        int reached = 0;
+        next.push(start);
+        while (!next.isEmpty()) {
+            int node = (int) next.pop();
+            if (marks[node] == pass) {
+                continue;
+            }
+            marks[node] = pass;
+            order[reached++] = node;
+            // Push successors in reverse so that the first one is visited first
+            for (int e = offsets[node + 1] - 1; e >= offsets[node]; e--) {
+                int target = targets[e];
+                if (marks[target] != pass) {
+                    next.push(target);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Returns the working stack, emptied and with room for at least the given
+     * number of elements.
+     */
+    private StackDemo stack(int capacity) {
+        if (stack.getCapacity() < capacity) {
+            stack = new StackDemo(Math.max(capacity, stack.getCapacity() * 2));
+        }
+        stack.clear();
+        return stack;
+    }
+}
@@ -0,0 +1,187 @@
+package com.mycompany.stackoperationsimulator.core;
+
+/**
+ * Bulk scans over the elements of a {@link StackDemo}.
+ *
+ * <p>The scans read the stack's backing array directly, from the bottom
+ * element (index 0) to the top, without copying it. Two implementations
+ * are available:</p>
+ * <ul>
+ *   <li>{@link #scalar()} uses plain loops and works on every JDK.</li>
+ *   <li>{@link #vectorized()} uses the incubating Vector API
+ *       ({@code jdk.incubator.vector}) to process several elements per
+ *       instruction. It is compiled into the multi-release jar for JDK 17 and
+ *       newer and is only available when the JVM was started with
+ *       {@code --add-modules jdk.incubator.vector}.</li>
+ * </ul>
+ *
+ * <p>{@link #getDefault()} picks the vectorized implementation when it is
+ * available, unless the system property {@code stack.analytics.scalar} is
+ * {@code true}. Both return identical results, except that the vectorized
+ * {@link #sum} adds the elements in a different order and may differ in the
+ * last bits.</p>
+ *
+ * <p>Instances are stateless and safe to use from any thread, but the stack
+ * must not be modified while a scan is running.</p>
+ */
+public final class StackAnalytics {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "com.mycompany.stackoperationsimulator.core.VectorKernel";
+
+    private static final StackAnalytics SCALAR = new StackAnalytics(new ScalarKernel(), false);
+    private static final StackAnalytics VECTORIZED = loadVectorized();
+
+    private final AnalyticsKernel kernel;
+    private final boolean vector;
+
+    private StackAnalytics(AnalyticsKernel kernel, boolean vector) {
+        this.kernel = kernel;
+        this.vector = vector;
+    }
+
+    /**
+     * Returns the implementation that uses plain loops.
+     *
+     * @return the scalar analytics
+     */
+    public static StackAnalytics scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Returns the implementation that uses the Vector API.
+     *
+     * @return the vectorized analytics
+     * @throws UnsupportedOperationException if the Vector API is not available
+     */
+    public static StackAnalytics vectorized() {
+        if (VECTORIZED == null) {
+            throw new UnsupportedOperationException(
+                "Vector API not available, start the JVM with --add-modules " + VECTOR_MODULE);
+        }
+        return VECTORIZED;
+    }
+
+    /**
+     * @return true if {@link #vectorized()} can be used on this JVM
+     */
+    public static boolean isVectorAvailable() {
+        return VECTORIZED != null;
+    }
+
+    /**
+     * Returns the fastest available implementation.
+     *
+     * @return the vectorized analytics if available and not disabled, otherwise the scalar one
+     */
+    public static StackAnalytics getDefault() {
+        if (VECTORIZED == null || Boolean.getBoolean("stack.analytics.scalar")) {
+            return SCALAR;
+        }
+        return VECTORIZED;
+    }
+
+    /**
+     * @return true if this implementation uses the Vector API
+     */
+    public boolean isVectorized() {
+        return vector;
+    }
+
+    /**
+     * Returns the sum of all elements on the stack.
+     *
+     * @param stack the stack to scan
+     * @return the sum, or 0 for an empty stack
+     */
+    public double sum(StackDemo stack) {
+        return kernel.sum(stack.backingArray(), stack.size());
+    }
+
+    /**
+     * Returns the smallest element on the stack.
+     *
+     * @param stack the stack to scan
+     * @return the minimum element, NaN if any element is NaN
+     * @throws IllegalStateException if the stack is empty
+     */
+    public double min(StackDemo stack) {
+        return kernel.min(stack.backingArray(), checkNotEmpty(stack));
+    }
+
+    /**
+     * Returns the largest element on the stack.
+     *
+     * @param stack the stack to scan
+     * @return the maximum element, NaN if any element is NaN
+     * @throws IllegalStateException if the stack is empty
+     */
+    public double max(StackDemo stack) {
+        return kernel.max(stack.backingArray(), checkNotEmpty(stack));
+    }
+
+    /**
+     * Counts the positive, negative and zero elements on the stack.
+     *
+     * @param stack the stack to scan
+     * @return the counts per class
+     */
+    public ValueHistogram classify(StackDemo stack) {
+        double[] array = stack.backingArray();
+        int size = stack.size();
+        int positive = kernel.countPositive(array, size);
+        int negative = kernel.countNegative(array, size);
+        return new ValueHistogram(positive, negative, size - positive - negative);
+    }
+
+    /**
+     * Finds the element closest to the bottom of the stack that equals the value.
+     *
+     * @param stack the stack to scan
+     * @param value the value to look for, compared with {@code ==} (NaN is never found)
+     * @return the index of the element, counted from the bottom (0), or -1 if not found
+     */
+    public int indexOf(StackDemo stack, double value) {
+        return kernel.indexOf(stack.backingArray(), stack.size(), value);
+    }
+
+    /**
+     * Finds the element closest to the top of the stack that equals the value.
+     *
+     * @param stack the stack to scan
+     * @param value the value to look for, compared with {@code ==} (NaN is never found)
+     * @return the index of the element, counted from the bottom (0), or -1 if not found
+     */
+    public int lastIndexOf(StackDemo stack, double value) {
+        return kernel.lastIndexOf(stack.backingArray(), stack.size(), value);
+    }
+
+    private static int checkNotEmpty(StackDemo stack) {
+        if (stack.isEmpty()) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return stack.size();
+    }
+
+    /**
+     * Loads the Vector API kernel from the JDK 17 part of the multi-release jar.
+     *
+     * @return the vectorized analytics, or null if the module or the kernel is missing
+     */
+    private static StackAnalytics loadVectorized() {
+        Module vectorModule = ModuleLayer.boot().findModule(VECTOR_MODULE).orElse(null);
+        if (vectorModule == null) {
+            return null;
+        }
+        try {
+            // The module is resolved but not required by module-info, since it may be absent
+            StackAnalytics.class.getModule().addReads(vectorModule);
+            Class<?> type = Class.forName(VECTOR_KERNEL);
+            AnalyticsKernel kernel = (AnalyticsKernel) type.getDeclaredConstructor().newInstance();
+            return new StackAnalytics(kernel, true);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import java.util.Arrays;
+
+/**
+ * Hosts many small stacks in one shared {@code double[]}.
+ *
+ * <p>Each stack occupies a contiguous region of the shared array and is
+ * addressed by a {@code long} handle instead of an object. The state an
+ * operation needs (offset, size, capacity and generation) is packed into
+ * four adjacent {@code int}s of one slot table, so a push or pop touches one
+ * cache line of the table and one of the shared array. A million stacks cost
+ * a handful of large arrays rather than two million small objects, with no
+ * object header or array header per stack.</p>
+ *
+ * <p>Released slots go onto a free list. A new stack reuses a free slot and,
+ * if the slot's region is large enough and at most twice the capacity, its
+ * region as well; otherwise the region is appended at the end of the shared
+ * array and the old one becomes a hole. {@link #compact()} slides all live regions down over the holes.
+ * It runs automatically when the shared array would otherwise have to grow
+ * while at least half of it is holes.</p>
+ *
+ * <p>A handle combines the slot with a generation counter that changes when
+ * the stack is released, so using a handle after {@link #release(long)}
+ * fails instead of silently touching whichever stack reuses the slot.</p>
+ *
+ * <p>Stacks follow the conventions of {@link StackDemo}: pushing onto a full
+ * stack throws {@code IllegalStateException("Stack Overflow")}, popping an
+ * empty one {@code IllegalStateException("Stack Underflow")}. Like
+ * {@code StackDemo}, the arena is not thread-safe.</p>
+ */
+public final class StackArena {
+
+    private static final int INITIAL_SLOTS = 16;
+
+    // Layout of one slot in the slot table
+    private static final int OFFSET = 0;
+    private static final int SIZE = 1;
+    private static final int CAPACITY = 2;
+    private static final int GENERATION = 3;
+    private static final int SLOT_INTS = 4;
+
+    /**
+     * Elements of all stacks; the stack in slot s uses regions[s] elements from its offset.
+     */
+    private double[] data;
+
+    /**
+     * First unused index of data.
+     */
+    private int end;
+
+    /**
+     * Elements inside data that belong to released or abandoned regions.
+     */
+    private int wasted;
+
+    /**
+     * Slot table, SLOT_INTS entries per slot.
+     */
+    private int[] table = new int[INITIAL_SLOTS * SLOT_INTS];
+
+    /**
+     * Region length of each slot, at least its capacity; only needed when
+     * stacks are created, released or compacted.
+     */
+    private int[] regions = new int[INITIAL_SLOTS];
+
+    /**
+     * Number of slots ever handed out; slots below this are live or free.
+     */
+    private int slotCount;
+
+    // Released slots, used as a stack
+    private int[] freeSlots = new int[INITIAL_SLOTS];
+    private int freeCount;
+
+    /**
+     * Creates an empty arena.
+     */
+    public StackArena() {
+        this(1024);
+    }
+
+    /**
+     * Creates an empty arena with room for the given number of elements
+     * before the shared array grows.
+     *
+     * @param initialElements initial length of the shared array
+     * @throws IllegalArgumentException if initialElements is not positive
+     */
+    public StackArena(int initialElements) {
+        if (initialElements <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        data = new double[initialElements];
+    }
+
+    /**
+     * Creates a new empty stack in the arena.
+     *
+     * @param capacity the maximum number of elements the stack can hold
+     * @return the handle of the new stack
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     */
+    public long create(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+            int region = regions[slot];
+            if (region >= capacity && region / 2 <= capacity) {
+                // Reuse the region in place
+                wasted -= region;
+            } else {
+                // The old region stays a hole, also when it is more than twice too large, so
+                // a slot does not keep its largest region forever; it must not keep it
+                // through a compaction either
+                regions[slot] = 0;
+                table[slot * SLOT_INTS + SIZE] = 0;
+                allocateRegion(slot, capacity);
+            }
+        } else {
+            if (slotCount == regions.length) {
+                growSlots();
+            }
+            slot = slotCount++;
+            allocateRegion(slot, capacity);
+        }
+        table[slot * SLOT_INTS + CAPACITY] = capacity;
+        table[slot * SLOT_INTS + SIZE] = 0;
+        return handle(slot);
+    }
+
+    /**
+     * Releases a stack. Its handle becomes invalid and its slot and region
+     * are reused by later stacks.
+     *
+     * @param handle the stack to release
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public void release(long handle) {
+        int slot = slot(handle);
+        table[slot * SLOT_INTS + GENERATION]++;
+        wasted += regions[slot];
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Pushes an element onto a stack.
+     *
+     * @param handle the stack
+     * @param element the value to push
+     * @throws IllegalStateException if the stack is full (overflow condition)
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public void push(long handle, double element) {
+        int base = base(handle);
+        int size = table[base + SIZE];
+        if (size == table[base + CAPACITY]) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        data[table[base + OFFSET] + size] = element;
+        table[base + SIZE] = size + 1;
+    }
+
+    /**
+     * Removes and returns the top element of a stack.
+     *
+     * @param handle the stack
+     * @return the element at the top of the stack
+     * @throws IllegalStateException if the stack is empty (underflow condition)
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public double pop(long handle) {
+        int base = base(handle);
+        int size = table[base + SIZE];
+        if (size == 0) {
+            throw new IllegalStateException("Stack Underflow");
+        }
+        table[base + SIZE] = --size;
+        return data[table[base + OFFSET] + size];
+    }
+
+    /**
+     * Returns the top element of a stack without removing it.
+     *
+     * @param handle the stack
+     * @return the element at the top of the stack
+     * @throws IllegalStateException if the stack is empty
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public double peek(long handle) {
+        int base = base(handle);
+        int size = table[base + SIZE];
+        if (size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return data[table[base + OFFSET] + size - 1];
+    }
+
+    /**
+     * @param handle the stack
+     * @return the number of elements in the stack
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public int size(long handle) {
+        return table[base(handle) + SIZE];
+    }
+
+    /**
+     * @param handle the stack
+     * @return the maximum number of elements the stack can hold
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public int getCapacity(long handle) {
+        return table[base(handle) + CAPACITY];
+    }
+
+    /**
+     * Removes all elements from a stack without releasing it.
+     *
+     * @param handle the stack
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public void clear(long handle) {
+        table[base(handle) + SIZE] = 0;
+    }
+
+    /**
+     * Returns a copy of a stack's elements.
+     *
+     * @param handle the stack
+     * @return a new array with the elements from bottom to top
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public double[] getElements(long handle) {
+        int base = base(handle);
+        int offset = table[base + OFFSET];
+        return Arrays.copyOfRange(data, offset, offset + table[base + SIZE]);
+    }
+
+    /**
+     * Returns a {@link DoubleStack} view of one stack in the arena, for code
+     * written against the engine interface. The view is valid until the stack
+     * is released.
+     *
+     * @param handle the stack
+     * @return a view reading and writing the arena
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    public DoubleStack view(long handle) {
+        slot(handle);
+        return new View(handle);
+    }
+
+    /**
+     * @return the number of live stacks
+     */
+    public int getStackCount() {
+        return slotCount - freeCount;
+    }
+
+    /**
+     * @return the length of the shared array in elements
+     */
+    public int getAllocatedElements() {
+        return data.length;
+    }
+
+    /**
+     * @return the elements of the shared array that belong to no live stack
+     *         and would be reclaimed by {@link #compact()}
+     */
+    public int getWastedElements() {
+        return wasted;
+    }
+
+    /**
+     * Moves all live regions to the start of the shared array, in their
+     * current order, removing the holes left by released stacks. Free slots
+     * lose their regions. Handles stay valid.
+     */
+    public void compact() {
+        // Live slots ordered by offset: offset in the high bits, slot in the low bits
+        long[] order = new long[getStackCount()];
+        int live = 0;
+        boolean[] free = new boolean[slotCount];
+        for (int i = 0; i < freeCount; i++) {
+            free[freeSlots[i]] = true;
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (free[slot]) {
+                regions[slot] = 0;
+            } else {
+                order[live++] = ((long) table[slot * SLOT_INTS + OFFSET] << 32) | slot;
+            }
+        }
+        Arrays.sort(order);
+
+        int target = 0;
+        for (long entry : order) {
+            int slot = (int) entry;
+            int base = slot * SLOT_INTS;
+            // Only the elements in use need to move
+            System.arraycopy(data, table[base + OFFSET], data, target, table[base + SIZE]);
+            table[base + OFFSET] = target;
+            target += regions[slot];
+        }
+        end = target;
+        wasted = 0;
+    }
+
+    private void allocateRegion(int slot, int capacity) {
+        if (capacity > data.length - end) {
+            if (wasted >= end / 2) {
+                compact();
+            }
+            if (capacity > data.length - end) {
+                long length = Math.max((long) data.length * 2, (long) end + capacity);
+                if (length > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Stack Overflow");
+                }
+                data = Arrays.copyOf(data, (int) length);
+            }
+        }
+        table[slot * SLOT_INTS + OFFSET] = end;
+        regions[slot] = capacity;
+        end += capacity;
+    }
+
+    private void growSlots() {
+        int length = regions.length * 2;
+        table = Arrays.copyOf(table, length * SLOT_INTS);
+        regions = Arrays.copyOf(regions, length);
+    }
+
+    private long handle(int slot) {
+        return ((long) table[slot * SLOT_INTS + GENERATION] << 32) | slot;
+    }
+
+    private int slot(long handle) {
+        int slot = (int) handle;
+        if (slot < 0 || slot >= slotCount || table[slot * SLOT_INTS + GENERATION] != (int) (handle >>> 32)) {
+            throw new IllegalArgumentException("Invalid stack handle: " + handle);
+        }
+        return slot;
+    }
+
+    private int base(long handle) {
+        return slot(handle) * SLOT_INTS;
+    }
+
+    /**
+     * DoubleStack adapter over one handle.
+     */
+    private final class View implements DoubleStack {
+        private final long handle;
+
+        View(long handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void push(double element) {
+            StackArena.this.push(handle, element);
+        }
+
+        @Override
+        public double pop() {
+            return StackArena.this.pop(handle);
+        }
+
+        @Override
+        public double peek() {
+            return StackArena.this.peek(handle);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return StackArena.this.size(handle) == 0;
+        }
+
+        @Override
+        public boolean isFull() {
+            return StackArena.this.size(handle) == StackArena.this.getCapacity(handle);
+        }
+
+        @Override
+        public int size() {
+            return StackArena.this.size(handle);
+        }
+
+        @Override
+        public int getCapacity() {
+            return StackArena.this.getCapacity(handle);
+        }
+
+        @Override
+        public double[] getElements() {
+            return StackArena.this.getElements(handle);
+        }
+    }
+}
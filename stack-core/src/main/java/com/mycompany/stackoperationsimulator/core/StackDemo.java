@@ -1,4 +1,6 @@
-package com.mycompany.stackoperationsimulator;
+package com.mycompany.stackoperationsimulator.core;
+
+import java.nio.DoubleBuffer;
 
 /**
  * Array-based implementation of a stack data structure.
@@ -21,7 +23,7 @@ package com.mycompany.stackoperationsimulator;
  * @author StackOperationSimulator
  * @version 1.0
  */
-public class StackDemo {
+public class StackDemo implements DoubleStack {
 
     /**
      * Internal array to store stack elements.
@@ -65,6 +67,7 @@ public class StackDemo {
      *
      * @return true if the stack contains no elements, false otherwise
      */
+    @Override
     public boolean isEmpty() {
         return top == -1;
     }
@@ -77,6 +80,7 @@ public class StackDemo {
      *
      * @return true if the stack has reached its maximum capacity, false otherwise
      */
+    @Override
     public boolean isFull() {
         return top == capacity - 1;
     }
@@ -98,6 +102,7 @@ public class StackDemo {
      * @param element the double value to push onto the stack
      * @throws IllegalStateException if the stack is full (overflow condition)
      */
+    @Override
     public void push(double element) {
         if (isFull()) {
             throw new IllegalStateException("Stack Overflow");
@@ -128,6 +133,7 @@ public class StackDemo {
      * @return the element at the top of the stack
      * @throws IllegalStateException if the stack is empty (underflow condition)
      */
+    @Override
     public double pop() {
         if (isEmpty()) {
             throw new IllegalStateException("Stack Underflow");
@@ -158,6 +164,7 @@ public class StackDemo {
      * @return the element at the top of the stack
      * @throws IllegalStateException if the stack is empty
      */
+    @Override
     public double peek() {
         if (isEmpty()) {
             throw new IllegalStateException("Stack is empty");
@@ -180,6 +187,7 @@ public class StackDemo {
      *
      * @return the number of elements currently in the stack
      */
+    @Override
     public int size() {
         return top + 1;
     }
@@ -189,10 +197,79 @@ public class StackDemo {
      *
      * @return the maximum number of elements the stack can hold
      */
+    @Override
     public int getCapacity() {
         return capacity;
     }
 
+    /**
+     * Removes all elements from the stack.
+     *
+     * <p>Only the top pointer is reset; the internal array is kept and reused
+     * by later pushes, so clearing does not allocate.</p>
+     */
+    public void clear() {
+        top = -1;
+    }
+
+    /**
+     * Pushes every remaining element of the buffer onto the stack in one
+     * bulk copy.
+     *
+     * <p>Elements are pushed in buffer order, so the first remaining element
+     * ends up closest to the bottom and the last one becomes the new top.
+     * The copy goes straight into the internal array, which lets loaders
+     * fill large stacks without a push call per element. Either all elements
+     * are pushed or none are.</p>
+     *
+     * @param source the buffer to read from; its position is advanced to its limit
+     * @throws IllegalStateException if the elements do not fit (overflow condition)
+     */
+    public void pushAll(DoubleBuffer source) {
+        int count = source.remaining();
+        if (count > capacity - size()) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        source.get(array, top + 1, count);
+        top += count;
+    }
+
+    /**
+     * Copies elements into the buffer, starting at the given stack index.
+     *
+     * <p>Index 0 is the bottom of the stack. As many elements as fit into the
+     * buffer's remaining space are copied, in bottom-to-top order. Calling this
+     * repeatedly with an advancing index streams the whole stack through a
+     * fixed-size buffer without creating a full copy.</p>
+     *
+     * @param fromIndex the stack index of the first element to copy
+     * @param target the buffer to write to; its position is advanced
+     * @return the number of elements copied
+     * @throws IndexOutOfBoundsException if fromIndex is negative or greater than size()
+     */
+    public int copyTo(int fromIndex, DoubleBuffer target) {
+        if (fromIndex < 0 || fromIndex > size()) {
+            throw new IndexOutOfBoundsException("Index: " + fromIndex + ", Size: " + size());
+        }
+        int count = Math.min(size() - fromIndex, target.remaining());
+        target.put(array, fromIndex, count);
+        return count;
+    }
+
+    /**
+     * Returns the internal array without copying it.
+     *
+     * <p>Only the elements at indexes 0 to size() - 1 are valid. This is meant
+     * for bulk scans inside the engine package (see {@link StackAnalytics});
+     * callers must not modify those elements. The slots above them are free,
+     * and {@link StackMachine} uses them for its frames and operands.</p>
+     *
+     * @return the backing array of this stack
+     */
+    double[] backingArray() {
+        return array;
+    }
+
     /**
      * Returns a copy of all elements currently in the stack.
      *
@@ -215,6 +292,7 @@ public class StackDemo {
      *
      * @return a new array containing all current stack elements from bottom to top
      */
+    @Override
     public double[] getElements() {
         // Create array of exact size needed (current stack size)
         double[] elements = new double[size()];
@@ -0,0 +1,60 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import com.mycompany.stackoperationsimulator.core.concurrent.FlatCombiningStack;
+import com.mycompany.stackoperationsimulator.core.io.DurableStack;
+import java.io.IOException;
+
+/**
+ * Picks a stack implementation from {@link StackHints}.
+ *
+ * <p>The choice, first match wins:</p>
+ * <ol>
+ *   <li>a directory: {@link DurableStack}</li>
+ *   <li>more than one thread: {@link FlatCombiningStack}</li>
+ *   <li>aggregates needed: {@link AggregateStack}</li>
+ *   <li>unknown size, or at least {@link AdaptiveStack#DEFAULT_COMPRESS_DEPTH}
+ *       elements expected: {@link AdaptiveStack}, which watches the workload
+ *       and changes layout itself</li>
+ *   <li>otherwise: {@link StackDemo}</li>
+ * </ol>
+ */
+public final class StackFactory {
+
+    private StackFactory() {
+    }
+
+    /**
+     * Creates a stack suited to the hints.
+     *
+     * @param capacity the maximum number of elements the stack can hold
+     * @param hints what is known about the workload
+     * @return a new, empty stack
+     * @throws IllegalArgumentException if capacity is not positive, or aggregates
+     *                                  are asked for together with threads or a directory
+     * @throws IOException if a durable stack cannot be opened
+     */
+    public static DoubleStack create(int capacity, StackHints hints) throws IOException {
+        if (hints.getDirectory() != null) {
+            checkNoAggregates(hints);
+            return new DurableStack(hints.getDirectory(), capacity);
+        }
+        if (hints.getThreads() > 1) {
+            checkNoAggregates(hints);
+            return new FlatCombiningStack(capacity);
+        }
+        if (hints.needsAggregates()) {
+            return new AggregateStack(capacity);
+        }
+        int expected = hints.getExpectedSize();
+        if (expected < 0 || expected >= AdaptiveStack.DEFAULT_COMPRESS_DEPTH) {
+            return new AdaptiveStack(capacity);
+        }
+        return new StackDemo(capacity);
+    }
+
+    private static void checkNoAggregates(StackHints hints) {
+        if (hints.needsAggregates()) {
+            throw new IllegalArgumentException("Aggregates need a single-threaded in-memory stack");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import java.nio.file.Path;
+
+/**
+ * What a caller knows about how a stack will be used, for {@link StackFactory}.
+ *
+ * <p>Hints are immutable; each {@code with} method returns a changed copy:</p>
+ * <pre>
+ * StackHints hints = StackHints.NONE.withThreads(8).withExpectedSize(10_000);
+ * </pre>
+ */
+public final class StackHints {
+
+    /**
+     * Nothing known: unknown size, one thread, in memory, no aggregates.
+     */
+    public static final StackHints NONE = new StackHints(-1, 1, null, false);
+
+    private final int expectedSize;
+    private final int threads;
+    private final Path directory;
+    private final boolean aggregates;
+
+    private StackHints(int expectedSize, int threads, Path directory, boolean aggregates) {
+        this.expectedSize = expectedSize;
+        this.threads = threads;
+        this.directory = directory;
+        this.aggregates = aggregates;
+    }
+
+    /**
+     * @param expectedSize the usual number of elements on the stack
+     * @return hints with the expected size
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public StackHints withExpectedSize(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        return new StackHints(expectedSize, threads, directory, aggregates);
+    }
+
+    /**
+     * @param threads the number of threads using the stack at the same time
+     * @return hints with the thread count
+     * @throws IllegalArgumentException if threads is not positive
+     */
+    public StackHints withThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        return new StackHints(expectedSize, threads, directory, aggregates);
+    }
+
+    /**
+     * @param directory the directory to keep the stack in so that it survives
+     *                  a restart, or null to keep it in memory only
+     * @return hints with the durability
+     */
+    public StackHints withDirectory(Path directory) {
+        return new StackHints(expectedSize, threads, directory, aggregates);
+    }
+
+    /**
+     * @param aggregates whether minimum, maximum, sum and mean are needed after every operation
+     * @return hints with the aggregate requirement
+     */
+    public StackHints withAggregates(boolean aggregates) {
+        return new StackHints(expectedSize, threads, directory, aggregates);
+    }
+
+    /**
+     * @return the usual number of elements, or -1 if unknown
+     */
+    public int getExpectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * @return the number of threads using the stack at the same time
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the directory for a durable stack, or null for memory only
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return whether O(1) aggregates are needed
+     */
+    public boolean needsAggregates() {
+        return aggregates;
+    }
+
+    @Override
+    public String toString() {
+        return "StackHints[expectedSize=" + expectedSize + ", threads=" + threads
+            + ", directory=" + directory + ", aggregates=" + aggregates + "]";
+    }
+}
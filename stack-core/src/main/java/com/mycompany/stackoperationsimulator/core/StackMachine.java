@@ -0,0 +1,405 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import java.util.Arrays;
+
+/**
+ * Interpreter for {@link StackProgram} bytecode, running on the array of a
+ * {@link StackDemo}.
+ *
+ * <p>Frames and operands share the one array. A call's frame starts at the
+ * arguments the caller pushed, so they become the callee's first locals
+ * without being copied; its other locals follow, set to zero, and its
+ * operands go above them. On return the frame is replaced by the result.
+ * Only the return position and caller's frame pointer go to a separate
+ * {@code int} array of saved frames.</p>
+ *
+ * <p>The dispatch loop keeps the program counter, stack pointer and frame
+ * pointer in locals and switches on the opcode, which compiles to a jump
+ * table. It allocates nothing once the saved frames have grown to the
+ * deepest call, and checks for room only when a function is entered: the
+ * program was verified, so a function's deepest operand stack is known in
+ * advance.</p>
+ *
+ * <p>{@link #runExact} runs the same program on scaled {@code long}s instead,
+ * in the array of a {@link FixedPointStack}: sums are exact, products and
+ * quotients round half-even to the scale, and overflow or division by zero
+ * throws instead of giving infinities. It has its own copy of the dispatch
+ * loop, differing only in the arithmetic and comparisons. A loop shared
+ * through an arithmetic interface halves the speed of {@link #run} once
+ * both modes have been used in one JVM, so a change to an opcode must be
+ * made in both loops.</p>
+ *
+ * <p>A machine runs one program at a time and is not thread-safe.</p>
+ */
+public final class StackMachine {
+
+    private final StackDemo stack;
+
+    // Created on the first exact run, sized like the double stack
+    private FixedPointStack exactStack;
+    private long[] exactConstants = new long[0];
+
+    // Return position and frame pointer of each active call, in pairs
+    private int[] savedFrames = new int[32];
+    private long instructions;
+
+    /**
+     * Creates a machine.
+     *
+     * @param capacity the number of slots for frames and operands
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public StackMachine(int capacity) {
+        this.stack = new StackDemo(capacity);
+    }
+
+    /**
+     * @return the number of slots for frames and operands
+     */
+    public int getCapacity() {
+        return stack.getCapacity();
+    }
+
+    /**
+     * @return the number of instructions the last run executed
+     */
+    public long getInstructionCount() {
+        return instructions;
+    }
+
+    /**
+     * Runs a program from its first function.
+     *
+     * @param program the program
+     * @return the value the first function returns
+     * @throws IllegalStateException "Stack Overflow" if a call needs more
+     *         slots than the capacity
+     */
+    public double run(StackProgram program) {
+        final int[] code = program.code;
+        final double[] constants = program.constants;
+        final int[] entries = program.entries;
+        final int[] parameters = program.parameters;
+        final int[] frameSizes = program.frameSizes;
+        final int[] maxStack = program.maxStack;
+        final double[] s = stack.backingArray();
+        final int limit = stack.getCapacity();
+        int[] frames = savedFrames;
+
+        int fp = 0;
+        int sp = frameSizes[0];
+        if (sp + maxStack[0] > limit) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        Arrays.fill(s, 0, sp, 0);
+        int pc = entries[0];
+        int depth = 0;
+        long executed = 0;
+
+        for (;;) {
+            int instruction = code[pc++];
+            executed++;
+            switch (instruction & 0xFF) {
+                case StackProgram.CONST:
+                    s[sp++] = constants[instruction >> 8];
+                    break;
+                case StackProgram.LOAD:
+                    s[sp++] = s[fp + (instruction >> 8)];
+                    break;
+                case StackProgram.STORE:
+                    s[fp + (instruction >> 8)] = s[--sp];
+                    break;
+                case StackProgram.ADD:
+                    sp--;
+                    s[sp - 1] += s[sp];
+                    break;
+                case StackProgram.SUB:
+                    sp--;
+                    s[sp - 1] -= s[sp];
+                    break;
+                case StackProgram.MUL:
+                    sp--;
+                    s[sp - 1] *= s[sp];
+                    break;
+                case StackProgram.DIV:
+                    sp--;
+                    s[sp - 1] /= s[sp];
+                    break;
+                case StackProgram.REM:
+                    sp--;
+                    s[sp - 1] %= s[sp];
+                    break;
+                case StackProgram.NEG:
+                    s[sp - 1] = -s[sp - 1];
+                    break;
+                case StackProgram.DUP:
+                    s[sp] = s[sp - 1];
+                    sp++;
+                    break;
+                case StackProgram.POP:
+                    sp--;
+                    break;
+                case StackProgram.SWAP: {
+                    double top = s[sp - 1];
+                    s[sp - 1] = s[sp - 2];
+                    s[sp - 2] = top;
+                    break;
+                }
+                case StackProgram.LT:
+                    sp--;
+                    s[sp - 1] = s[sp - 1] < s[sp] ? 1 : 0;
+                    break;
+                case StackProgram.LE:
+                    sp--;
+                    s[sp - 1] = s[sp - 1] <= s[sp] ? 1 : 0;
+                    break;
+                case StackProgram.GT:
+                    sp--;
+                    s[sp - 1] = s[sp - 1] > s[sp] ? 1 : 0;
+                    break;
+                case StackProgram.GE:
+                    sp--;
+                    s[sp - 1] = s[sp - 1] >= s[sp] ? 1 : 0;
+                    break;
+                case StackProgram.EQ:
+                    sp--;
+                    s[sp - 1] = s[sp - 1] == s[sp] ? 1 : 0;
+                    break;
+                case StackProgram.NE:
+                    sp--;
+                    s[sp - 1] = s[sp - 1] != s[sp] ? 1 : 0;
+                    break;
+                case StackProgram.JUMP:
+                    pc = instruction >> 8;
+                    break;
+                case StackProgram.JUMP_IF_ZERO:
+                    if (s[--sp] == 0) {
+                        pc = instruction >> 8;
+                    }
+                    break;
+                case StackProgram.JUMP_IF_NOT_ZERO:
+                    if (s[--sp] != 0) {
+                        pc = instruction >> 8;
+                    }
+                    break;
+                case StackProgram.CALL: {
+                    int function = instruction >> 8;
+                    int frame = sp - parameters[function];
+                    int operands = frame + frameSizes[function];
+                    if (operands + maxStack[function] > limit || depth == limit) {
+                        instructions = executed;
+                        throw new IllegalStateException("Stack Overflow");
+                    }
+                    while (sp < operands) {
+                        s[sp++] = 0;
+                    }
+                    if (2 * depth == frames.length) {
+                        frames = savedFrames = Arrays.copyOf(frames, frames.length * 2);
+                    }
+                    frames[2 * depth] = pc;
+                    frames[2 * depth + 1] = fp;
+                    depth++;
+                    fp = frame;
+                    pc = entries[function];
+                    break;
+                }
+                case StackProgram.RETURN: {
+                    double result = s[sp - 1];
+                    if (depth == 0) {
+                        instructions = executed;
+                        return result;
+                    }
+                    depth--;
+                    sp = fp;
+                    s[sp++] = result;
+                    pc = frames[2 * depth];
+                    fp = frames[2 * depth + 1];
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown opcode " + (instruction & 0xFF) + " at " + (pc - 1));
+            }
+        }
+    }
+
+    /**
+     * Runs a program from its first function in fixed-point arithmetic.
+     *
+     * <p>Every value is a {@code long} count of units of 10^-scale, and the
+     * program's constants are converted with
+     * {@link FixedPointStack#toUnscaled(double, int)}. Addition, subtraction,
+     * negation and remainder are exact; multiplication and division round
+     * half-even to the scale. Comparisons push 1 (that is, 10^scale units)
+     * or 0.</p>
+     *
+     * @param program the program
+     * @param scale the number of fraction digits
+     * @return the value the first function returns, in units of 10^-scale
+     * @throws IllegalStateException "Stack Overflow" if a call needs more
+     *         slots than the capacity
+     * @throws ArithmeticException if a result is out of range or a division
+     *         or remainder is by zero
+     * @throws IllegalArgumentException if the scale is out of range
+     */
+    public long runExact(StackProgram program, int scale) {
+        final long one = FixedPointStack.unit(scale);
+        if (exactStack == null) {
+            exactStack = new FixedPointStack(stack.getCapacity(), scale);
+        }
+        if (exactConstants.length < program.constants.length) {
+            exactConstants = new long[program.constants.length];
+        }
+        final long[] constants = exactConstants;
+        for (int i = 0; i < program.constants.length; i++) {
+            constants[i] = FixedPointStack.toUnscaled(program.constants[i], scale);
+        }
+        final int[] code = program.code;
+        final int[] entries = program.entries;
+        final int[] parameters = program.parameters;
+        final int[] frameSizes = program.frameSizes;
+        final int[] maxStack = program.maxStack;
+        final long[] s = exactStack.backingArray();
+        final int limit = exactStack.getCapacity();
+        int[] frames = savedFrames;
+
+        int fp = 0;
+        int sp = frameSizes[0];
+        if (sp + maxStack[0] > limit) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        Arrays.fill(s, 0, sp, 0);
+        int pc = entries[0];
+        int depth = 0;
+        long executed = 0;
+
+        try {
+            for (;;) {
+                int instruction = code[pc++];
+                executed++;
+                switch (instruction & 0xFF) {
+                    case StackProgram.CONST:
+                        s[sp++] = constants[instruction >> 8];
+                        break;
+                    case StackProgram.LOAD:
+                        s[sp++] = s[fp + (instruction >> 8)];
+                        break;
+                    case StackProgram.STORE:
+                        s[fp + (instruction >> 8)] = s[--sp];
+                        break;
+                    case StackProgram.ADD:
+                        sp--;
+                        s[sp - 1] = Math.addExact(s[sp - 1], s[sp]);
+                        break;
+                    case StackProgram.SUB:
+                        sp--;
+                        s[sp - 1] = Math.subtractExact(s[sp - 1], s[sp]);
+                        break;
+                    case StackProgram.MUL:
+                        sp--;
+                        s[sp - 1] = FixedPointStack.multiply(s[sp - 1], s[sp], scale);
+                        break;
+                    case StackProgram.DIV:
+                        sp--;
+                        s[sp - 1] = FixedPointStack.divide(s[sp - 1], s[sp], scale);
+                        break;
+                    case StackProgram.REM:
+                        sp--;
+                        if (s[sp] == 0) {
+                            throw new ArithmeticException("Division by zero");
+                        }
+                        s[sp - 1] %= s[sp];
+                        break;
+                    case StackProgram.NEG:
+                        s[sp - 1] = Math.negateExact(s[sp - 1]);
+                        break;
+                    case StackProgram.DUP:
+                        s[sp] = s[sp - 1];
+                        sp++;
+                        break;
+                    case StackProgram.POP:
+                        sp--;
+                        break;
+                    case StackProgram.SWAP: {
+                        long top = s[sp - 1];
+                        s[sp - 1] = s[sp - 2];
+                        s[sp - 2] = top;
+                        break;
+                    }
+                    case StackProgram.LT:
+                        sp--;
+                        s[sp - 1] = s[sp - 1] < s[sp] ? one : 0;
+                        break;
+                    case StackProgram.LE:
+                        sp--;
+                        s[sp - 1] = s[sp - 1] <= s[sp] ? one : 0;
+                        break;
+                    case StackProgram.GT:
+                        sp--;
+                        s[sp - 1] = s[sp - 1] > s[sp] ? one : 0;
+                        break;
+                    case StackProgram.GE:
+                        sp--;
+                        s[sp - 1] = s[sp - 1] >= s[sp] ? one : 0;
+                        break;
+                    case StackProgram.EQ:
+                        sp--;
+                        s[sp - 1] = s[sp - 1] == s[sp] ? one : 0;
+                        break;
+                    case StackProgram.NE:
+                        sp--;
+                        s[sp - 1] = s[sp - 1] != s[sp] ? one : 0;
+                        break;
+                    case StackProgram.JUMP:
+                        pc = instruction >> 8;
+                        break;
+                    case StackProgram.JUMP_IF_ZERO:
+                        if (s[--sp] == 0) {
+                            pc = instruction >> 8;
+                        }
+                        break;
+                    case StackProgram.JUMP_IF_NOT_ZERO:
+                        if (s[--sp] != 0) {
+                            pc = instruction >> 8;
+                        }
+                        break;
+                    case StackProgram.CALL: {
+                        int function = instruction >> 8;
+                        int frame = sp - parameters[function];
+                        int operands = frame + frameSizes[function];
+                        if (operands + maxStack[function] > limit || depth == limit) {
+                            throw new IllegalStateException("Stack Overflow");
+                        }
+                        while (sp < operands) {
+                            s[sp++] = 0;
+                        }
+                        if (2 * depth == frames.length) {
+                            frames = savedFrames = Arrays.copyOf(frames, frames.length * 2);
+                        }
+                        frames[2 * depth] = pc;
+                        frames[2 * depth + 1] = fp;
+                        depth++;
+                        fp = frame;
+                        pc = entries[function];
+                        break;
+                    }
+                    case StackProgram.RETURN: {
+                        long result = s[sp - 1];
+                        if (depth == 0) {
+                            return result;
+                        }
+                        depth--;
+                        sp = fp;
+                        s[sp++] = result;
+                        pc = frames[2 * depth];
+                        fp = frames[2 * depth + 1];
+                        break;
+                    }
+                    default:
+                        throw new IllegalStateException("Unknown opcode " + (instruction & 0xFF) + " at " + (pc - 1));
+                }
+            }
+        } finally {
+            instructions = executed;
+        }
+    }
+}
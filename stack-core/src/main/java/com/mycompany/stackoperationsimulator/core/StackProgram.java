@@ -0,0 +1,556 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bytecode for {@link StackMachine}, built and verified with a {@link Builder}.
+ *
+ * <p>Each instruction is one {@code int}: the opcode in the low 8 bits and a
+ * signed 24-bit operand above it (a constant, local, function or jump
+ * target). A program is a list of functions; function 0 takes no arguments
+ * and is where execution starts. Every function returns one value.</p>
+ *
+ * <p>Building a program verifies it the way the JVM verifies a method: for
+ * every reachable instruction the operand stack depth must be the same on
+ * every path, never negative, and every operand must be in range. The
+ * deepest operand stack of each function is recorded, so the machine checks
+ * for room once per call instead of on every push.</p>
+ */
+public final class StackProgram {
+
+    // Opcodes, in the low 8 bits of an instruction
+    static final int CONST = 0;
+    static final int LOAD = 1;
+    static final int STORE = 2;
+    static final int ADD = 3;
+    static final int SUB = 4;
+    static final int MUL = 5;
+    static final int DIV = 6;
+    static final int REM = 7;
+    static final int NEG = 8;
+    static final int DUP = 9;
+    static final int POP = 10;
+    static final int SWAP = 11;
+    static final int LT = 12;
+    static final int LE = 13;
+    static final int GT = 14;
+    static final int GE = 15;
+    static final int EQ = 16;
+    static final int NE = 17;
+    static final int JUMP = 18;
+    static final int JUMP_IF_ZERO = 19;
+    static final int JUMP_IF_NOT_ZERO = 20;
+    static final int CALL = 21;
+    static final int RETURN = 22;
+
+    private static final String[] MNEMONICS = {
+        "const", "load", "store", "add", "sub", "mul", "div", "rem", "neg", "dup", "pop", "swap",
+        "lt", "le", "gt", "ge", "eq", "ne", "jump", "jz", "jnz", "call", "return"
+    };
+
+    private static final int MAX_OPERAND = (1 << 23) - 1;
+
+    final int[] code;
+    final double[] constants;
+
+    // Per function: first instruction, parameter count, frame size (parameters
+    // plus locals) and deepest operand stack above the frame
+    final int[] entries;
+    final int[] parameters;
+    final int[] frameSizes;
+    final int[] maxStack;
+    private final String[] names;
+
+    private StackProgram(Builder builder, int[] code, int[] maxStack) {
+        this.code = code;
+        this.constants = Arrays.copyOf(builder.constants, builder.constantCount);
+        int functions = builder.names.size();
+        this.entries = Arrays.copyOf(builder.entries, functions);
+        this.parameters = Arrays.copyOf(builder.parameters, functions);
+        this.frameSizes = Arrays.copyOf(builder.frameSizes, functions);
+        this.maxStack = maxStack;
+        this.names = builder.names.toArray(new String[0]);
+    }
+
+    /**
+     * @return the number of instructions
+     */
+    public int getLength() {
+        return code.length;
+    }
+
+    /**
+     * @return the number of functions
+     */
+    public int getFunctionCount() {
+        return entries.length;
+    }
+
+    /**
+     * Returns the most stack slots a call of a function uses for its frame
+     * and operands, not counting the functions it calls.
+     *
+     * @param function the function index
+     * @return frame size plus deepest operand stack
+     */
+    public int getFrameSlots(int function) {
+        return frameSizes[function] + maxStack[function];
+    }
+
+    /**
+     * Lists the program one instruction per line, with function names and
+     * constant values.
+     *
+     * @return the disassembly
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int pc = 0; pc < code.length; pc++) {
+            for (int f = 0; f < entries.length; f++) {
+                if (entries[f] == pc) {
+                    text.append(names[f]).append(" (").append(parameters[f]).append(" parameters, ")
+                        .append(frameSizes[f] - parameters[f]).append(" locals):\n");
+                }
+            }
+            int opcode = code[pc] & 0xFF;
+            int operand = code[pc] >> 8;
+            text.append(String.format("%6d  %-7s", pc, MNEMONICS[opcode]));
+            if (opcode == CONST) {
+                text.append(constants[operand]);
+            } else if (opcode == CALL) {
+                text.append(names[operand]);
+            } else if (opcode == LOAD || opcode == STORE || (opcode >= JUMP && opcode <= JUMP_IF_NOT_ZERO)) {
+                text.append(operand);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Assembles a program.
+     *
+     * <p>Declare functions with {@link #function}, then for each one call
+     * {@link #begin} and emit its instructions. Jumps go to labels created
+     * with {@link #newLabel} and placed with {@link #mark}; they may be placed
+     * before or after the jump. Locals are numbered from 0, parameters
+     * first.</p>
+     */
+    public static final class Builder {
+        private int[] code = new int[64];
+        private int length;
+
+        private double[] constants = new double[16];
+        private int constantCount;
+        private final Map<Long, Integer> constantIndexes = new HashMap<>();
+
+        private final List<String> names = new ArrayList<>();
+        private int[] entries = new int[8];
+        private int[] parameters = new int[8];
+        private int[] frameSizes = new int[8];
+        private int current = -1;
+
+        private int[] labels = new int[16];
+        private int labelCount;
+
+        /**
+         * Creates a builder with no functions.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Declares a function.
+         *
+         * @param name the name, for the disassembly and error messages
+         * @param parameters number of arguments, taken from the caller's operand stack
+         * @param locals number of further locals, zero when the function starts
+         * @return the function index; the first function declared is the entry point
+         * @throws IllegalArgumentException if a count is negative, or the
+         *         first function has parameters
+         */
+        public int function(String name, int parameters, int locals) {
+            if (parameters < 0 || locals < 0 || parameters + locals > MAX_OPERAND) {
+                throw new IllegalArgumentException("Invalid frame for " + name);
+            }
+            if (names.isEmpty() && parameters != 0) {
+                throw new IllegalArgumentException("The entry function takes no parameters");
+            }
+            int index = names.size();
+            if (index == entries.length) {
+                entries = Arrays.copyOf(entries, index * 2);
+                this.parameters = Arrays.copyOf(this.parameters, index * 2);
+                frameSizes = Arrays.copyOf(frameSizes, index * 2);
+            }
+            names.add(name);
+            entries[index] = -1;
+            this.parameters[index] = parameters;
+            frameSizes[index] = parameters + locals;
+            return index;
+        }
+
+        /**
+         * Starts the code of a declared function at the current position.
+         *
+         * @param function the function index
+         * @return this builder
+         * @throws IllegalArgumentException if the function is unknown or already
+         *         has code, or the function begun before it has none
+         */
+        public Builder begin(int function) {
+            checkFunction(function);
+            if (entries[function] >= 0) {
+                throw new IllegalArgumentException("Function already defined: " + names.get(function));
+            }
+            if (current >= 0 && entries[current] == length) {
+                throw new IllegalArgumentException("Function has no code: " + names.get(current));
+            }
+            entries[function] = length;
+            current = function;
+            return this;
+        }
+
+        /**
+         * @return a new, not yet placed label
+         */
+        public int newLabel() {
+            if (labelCount == labels.length) {
+                labels = Arrays.copyOf(labels, labelCount * 2);
+            }
+            labels[labelCount] = -1;
+            return labelCount++;
+        }
+
+        /**
+         * Places a label at the current position.
+         *
+         * @param label the label
+         * @return this builder
+         * @throws IllegalArgumentException if the label is unknown or already placed
+         */
+        public Builder mark(int label) {
+            if (label < 0 || label >= labelCount || labels[label] >= 0) {
+                throw new IllegalArgumentException("Invalid label: " + label);
+            }
+            labels[label] = length;
+            return this;
+        }
+
+        /** Pushes a constant. */
+        public Builder constant(double value) {
+            Integer index = constantIndexes.get(Double.doubleToRawLongBits(value));
+            if (index == null) {
+                if (constantCount == constants.length) {
+                    constants = Arrays.copyOf(constants, constantCount * 2);
+                }
+                index = constantCount;
+                constants[constantCount++] = value;
+                constantIndexes.put(Double.doubleToRawLongBits(value), index);
+            }
+            return emit(CONST, index);
+        }
+
+        /** Pushes a local. */
+        public Builder load(int local) {
+            return emit(LOAD, checkLocal(local));
+        }
+
+        /** Pops the top into a local. */
+        public Builder store(int local) {
+            return emit(STORE, checkLocal(local));
+        }
+
+        /** Replaces the two top values a, b (b on top) with a + b. */
+        public Builder add() {
+            return emit(ADD, 0);
+        }
+
+        /** Replaces a, b with a - b. */
+        public Builder subtract() {
+            return emit(SUB, 0);
+        }
+
+        /** Replaces a, b with a * b. */
+        public Builder multiply() {
+            return emit(MUL, 0);
+        }
+
+        /** Replaces a, b with a / b. */
+        public Builder divide() {
+            return emit(DIV, 0);
+        }
+
+        /** Replaces a, b with a % b. */
+        public Builder remainder() {
+            return emit(REM, 0);
+        }
+
+        /** Negates the top. */
+        public Builder negate() {
+            return emit(NEG, 0);
+        }
+
+        /** Pushes a copy of the top. */
+        public Builder dup() {
+            return emit(DUP, 0);
+        }
+
+        /** Drops the top. */
+        public Builder pop() {
+            return emit(POP, 0);
+        }
+
+        /** Exchanges the two top values. */
+        public Builder swap() {
+            return emit(SWAP, 0);
+        }
+
+        /** Replaces a, b with 1 if a &lt; b, else 0. */
+        public Builder lessThan() {
+            return emit(LT, 0);
+        }
+
+        /** Replaces a, b with 1 if a &lt;= b, else 0. */
+        public Builder lessOrEqual() {
+            return emit(LE, 0);
+        }
+
+        /** Replaces a, b with 1 if a &gt; b, else 0. */
+        public Builder greaterThan() {
+            return emit(GT, 0);
+        }
+
+        /** Replaces a, b with 1 if a &gt;= b, else 0. */
+        public Builder greaterOrEqual() {
+            return emit(GE, 0);
+        }
+
+        /** Replaces a, b with 1 if a == b, else 0. */
+        public Builder equal() {
+            return emit(EQ, 0);
+        }
+
+        /** Replaces a, b with 1 if a != b, else 0. */
+        public Builder notEqual() {
+            return emit(NE, 0);
+        }
+
+        /** Continues at a label. */
+        public Builder jump(int label) {
+            return emit(JUMP, checkLabel(label));
+        }
+
+        /** Pops the top and continues at a label if it was zero. */
+        public Builder jumpIfZero(int label) {
+            return emit(JUMP_IF_ZERO, checkLabel(label));
+        }
+
+        /** Pops the top and continues at a label if it was not zero (NaN counts as not zero). */
+        public Builder jumpIfNotZero(int label) {
+            return emit(JUMP_IF_NOT_ZERO, checkLabel(label));
+        }
+
+        /** Calls a function with its arguments on top of the stack, last argument on top, and pushes its result. */
+        public Builder call(int function) {
+            checkFunction(function);
+            return emit(CALL, function);
+        }
+
+        /** Returns the top as the function's result. */
+        public Builder returnValue() {
+            return emit(RETURN, 0);
+        }
+
+        /**
+         * Resolves the labels and verifies every function. The builder is
+         * left as it was, so it can go on to build a longer program.
+         *
+         * @return the program
+         * @throws IllegalArgumentException if a function has no code, a label
+         *         is not placed, or a function fails verification
+         */
+        public StackProgram build() {
+            if (names.isEmpty()) {
+                throw new IllegalArgumentException("Program has no functions");
+            }
+            int[] resolved = Arrays.copyOf(code, length);
+            for (int pc = 0; pc < length; pc++) {
+                int opcode = resolved[pc] & 0xFF;
+                if (opcode >= JUMP && opcode <= JUMP_IF_NOT_ZERO) {
+                    int target = labels[resolved[pc] >> 8];
+                    if (target < 0) {
+                        throw new IllegalArgumentException("Label not placed: " + (resolved[pc] >> 8));
+                    }
+                    resolved[pc] = opcode | (target << 8);
+                }
+            }
+            int functions = names.size();
+            int[] maxStack = new int[functions];
+            for (int f = 0; f < functions; f++) {
+                if (entries[f] < 0) {
+                    throw new IllegalArgumentException("Function has no code: " + names.get(f));
+                }
+            }
+            for (int f = 0; f < functions; f++) {
+                maxStack[f] = verify(f, resolved);
+            }
+            return new StackProgram(this, resolved, maxStack);
+        }
+
+        /**
+         * Follows every path through a function, recording the operand stack
+         * depth before each instruction.
+         *
+         * @param code the instructions with their jump targets resolved
+         * @return the deepest operand stack
+         */
+        private int verify(int function, int[] code) {
+            int start = entries[function];
+            int end = length;
+            for (int f = 0; f < names.size(); f++) {
+                if (entries[f] > start && entries[f] < end) {
+                    end = entries[f];
+                }
+            }
+            // Begun, but the next function or the end of the program follows at once
+            if (end == start) {
+                throw new IllegalArgumentException("Function has no code: " + names.get(function));
+            }
+            int[] depths = new int[end - start];
+            Arrays.fill(depths, -1);
+            ArrayDeque<Integer> pending = new ArrayDeque<>();
+            depths[0] = 0;
+            pending.add(start);
+            int max = 0;
+            while (!pending.isEmpty()) {
+                int pc = pending.poll();
+                int depth = depths[pc - start];
+                int opcode = code[pc] & 0xFF;
+                int operand = code[pc] >> 8;
+                int pops;
+                int pushes;
+                switch (opcode) {
+                    case CONST:
+                    case LOAD:
+                        pops = 0;
+                        pushes = 1;
+                        break;
+                    case NEG:
+                        pops = 1;
+                        pushes = 1;
+                        break;
+                    case DUP:
+                        pops = 1;
+                        pushes = 2;
+                        break;
+                    case SWAP:
+                        pops = 2;
+                        pushes = 2;
+                        break;
+                    case STORE:
+                    case POP:
+                    case JUMP_IF_ZERO:
+                    case JUMP_IF_NOT_ZERO:
+                    case RETURN:
+                        pops = 1;
+                        pushes = 0;
+                        break;
+                    case JUMP:
+                        pops = 0;
+                        pushes = 0;
+                        break;
+                    case CALL:
+                        pops = parameters[operand];
+                        pushes = 1;
+                        break;
+                    default:
+                        // Binary arithmetic and comparisons
+                        pops = 2;
+                        pushes = 1;
+                        break;
+                }
+                if (depth < pops) {
+                    throw new IllegalArgumentException(names.get(function) + ": stack underflow at " + pc);
+                }
+                if (opcode == LOAD || opcode == STORE) {
+                    if (operand >= frameSizes[function]) {
+                        throw new IllegalArgumentException(names.get(function) + ": no local " + operand + " at " + pc);
+                    }
+                }
+                int after = depth - pops + pushes;
+                max = Math.max(max, after);
+                if (opcode == RETURN) {
+                    continue;
+                }
+                if (opcode >= JUMP && opcode <= JUMP_IF_NOT_ZERO) {
+                    if (operand < start || operand >= end) {
+                        throw new IllegalArgumentException(names.get(function) + ": jump out of function at " + pc);
+                    }
+                    flow(function, operand, after, start, depths, pending);
+                }
+                if (opcode != JUMP) {
+                    if (pc + 1 == end) {
+                        throw new IllegalArgumentException(names.get(function) + ": missing return at " + pc);
+                    }
+                    flow(function, pc + 1, after, start, depths, pending);
+                }
+            }
+            return max;
+        }
+
+        private void flow(int function, int target, int depth, int start, int[] depths, ArrayDeque<Integer> pending) {
+            int seen = depths[target - start];
+            if (seen < 0) {
+                depths[target - start] = depth;
+                pending.add(target);
+            } else if (seen != depth) {
+                throw new IllegalArgumentException(names.get(function) + ": stack depth " + depth
+                    + " differs from " + seen + " at " + target);
+            }
+        }
+
+        private Builder emit(int opcode, int operand) {
+            if (current < 0) {
+                throw new IllegalStateException("Call begin() before emitting code");
+            }
+            if (operand > MAX_OPERAND) {
+                throw new IllegalArgumentException("Operand out of range: " + operand);
+            }
+            // Jumps are resolved to positions, which must fit in an operand as well
+            if (length > MAX_OPERAND) {
+                throw new IllegalArgumentException("Program too long");
+            }
+            if (length == code.length) {
+                code = Arrays.copyOf(code, length * 2);
+            }
+            code[length++] = opcode | (operand << 8);
+            return this;
+        }
+
+        private int checkLocal(int local) {
+            if (current >= 0 && (local < 0 || local >= frameSizes[current])) {
+                throw new IllegalArgumentException("No local " + local + " in " + names.get(current));
+            }
+            return local;
+        }
+
+        private int checkLabel(int label) {
+            if (label < 0 || label >= labelCount) {
+                throw new IllegalArgumentException("Invalid label: " + label);
+            }
+            return label;
+        }
+
+        private void checkFunction(int function) {
+            if (function < 0 || function >= names.size()) {
+                throw new IllegalArgumentException("Invalid function: " + function);
+            }
+        }
+    }
+}
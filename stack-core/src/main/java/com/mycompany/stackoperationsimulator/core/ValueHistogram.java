@@ -0,0 +1,54 @@
+package com.mycompany.stackoperationsimulator.core;
+
+/**
+ * Counts of positive, negative and zero elements on a stack.
+ *
+ * <p>Uses the same classification as the simulator's element colors: values
+ * greater than zero are positive, values less than zero are negative and
+ * everything else (zero, negative zero and NaN) counts as zero.</p>
+ */
+public final class ValueHistogram {
+
+    private final int positive;
+    private final int negative;
+    private final int zero;
+
+    ValueHistogram(int positive, int negative, int zero) {
+        this.positive = positive;
+        this.negative = negative;
+        this.zero = zero;
+    }
+
+    /**
+     * @return the number of elements greater than zero
+     */
+    public int getPositive() {
+        return positive;
+    }
+
+    /**
+     * @return the number of elements less than zero
+     */
+    public int getNegative() {
+        return negative;
+    }
+
+    /**
+     * @return the number of elements that are neither positive nor negative
+     */
+    public int getZero() {
+        return zero;
+    }
+
+    /**
+     * @return the total number of classified elements
+     */
+    public int getTotal() {
+        return positive + negative + zero;
+    }
+
+    @Override
+    public String toString() {
+        return "ValueHistogram[positive=" + positive + ", negative=" + negative + ", zero=" + zero + "]";
+    }
+}
@@ -0,0 +1,350 @@
+package com.mycompany.stackoperationsimulator.core.concurrent;
+
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe bounded stack whose producers wait while it is full and whose
+ * consumers wait while it is empty.
+ *
+ * <p>Meant as a LIFO handoff between pipeline stages. Next to the throwing
+ * {@link DoubleStack} operations it offers the waiting operations known from
+ * {@code BlockingDeque}:</p>
+ * <ul>
+ *   <li>{@link #put(double)} and {@link #take()} wait as long as needed</li>
+ *   <li>{@link #offer(double, long, TimeUnit)} and {@link #poll(long, TimeUnit)}
+ *       give up after a timeout</li>
+ *   <li>{@link #offer(double)} and {@link #poll()} never wait</li>
+ *   <li>{@link #drainTo(double[], int, int)} removes many elements under one
+ *       lock acquisition</li>
+ * </ul>
+ *
+ * <p>A waiting thread first spins for a short while, watching the element
+ * count without taking the lock, because in a busy pipeline the other side
+ * usually catches up within a few hundred nanoseconds. Only then does it park
+ * on a condition of the lock. On a single processor spinning cannot help, so
+ * the default is to park straight away.</p>
+ */
+public class BlockingDoubleStack implements DoubleStack {
+
+    // Spin iterations before parking, none on a single CPU
+    private static final int DEFAULT_SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 256 : 0;
+
+    private final double[] array;
+    private final int capacity;
+    private final int spins;
+
+    /**
+     * Index of the top element, guarded by lock.
+     */
+    private int top = -1;
+
+    /**
+     * Number of elements, written under the lock and read by spinning threads.
+     */
+    private volatile int count;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Constructs a new BlockingDoubleStack with the default spin count.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     */
+    public BlockingDoubleStack(int capacity) {
+        this(capacity, DEFAULT_SPINS);
+    }
+
+    /**
+     * Constructs a new BlockingDoubleStack.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @param spins the number of busy-wait iterations before a thread parks, 0 to park immediately
+     * @throws IllegalArgumentException if capacity is less than or equal to zero or spins is negative
+     */
+    public BlockingDoubleStack(int capacity, int spins) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (spins < 0) {
+            throw new IllegalArgumentException("Spin count must not be negative");
+        }
+        this.capacity = capacity;
+        this.array = new double[capacity];
+        this.spins = spins;
+    }
+
+    /**
+     * Pushes an element, waiting for space if the stack is full.
+     *
+     * @param element the value to push
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void put(double element) throws InterruptedException {
+        spinWhileFull();
+        lock.lockInterruptibly();
+        try {
+            while (top == capacity - 1) {
+                notFull.await();
+            }
+            enqueue(element);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pops the top element, waiting for one if the stack is empty.
+     *
+     * @return the element at the top of the stack
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public double take() throws InterruptedException {
+        spinWhileEmpty();
+        lock.lockInterruptibly();
+        try {
+            while (top == -1) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pushes an element if there is space, without waiting.
+     *
+     * @param element the value to push
+     * @return true if the element was pushed, false if the stack is full
+     */
+    public boolean offer(double element) {
+        lock.lock();
+        try {
+            if (top == capacity - 1) {
+                return false;
+            }
+            enqueue(element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pushes an element, waiting up to the given time for space.
+     *
+     * @param element the value to push
+     * @param timeout how long to wait
+     * @param unit the unit of timeout
+     * @return true if the element was pushed, false if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offer(double element, long timeout, TimeUnit unit) throws InterruptedException {
+        // The time spent spinning and acquiring the lock counts against the timeout too
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        spinWhileFull();
+        lock.lockInterruptibly();
+        try {
+            while (top == capacity - 1) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                notFull.awaitNanos(remaining);
+            }
+            enqueue(element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pops the top element if there is one, without waiting.
+     *
+     * @return the element, or an empty optional if the stack is empty
+     */
+    public OptionalDouble poll() {
+        lock.lock();
+        try {
+            return top == -1 ? OptionalDouble.empty() : OptionalDouble.of(dequeue());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pops the top element, waiting up to the given time for one.
+     *
+     * @param timeout how long to wait
+     * @param unit the unit of timeout
+     * @return the element, or an empty optional if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public OptionalDouble poll(long timeout, TimeUnit unit) throws InterruptedException {
+        // The time spent spinning and acquiring the lock counts against the timeout too
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        spinWhileEmpty();
+        lock.lockInterruptibly();
+        try {
+            while (top == -1) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return OptionalDouble.empty();
+                }
+                notEmpty.awaitNanos(remaining);
+            }
+            return OptionalDouble.of(dequeue());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to maxElements elements, top first, without waiting.
+     *
+     * @param target the array to fill
+     * @param offset index in target for the former top element
+     * @param maxElements the maximum number of elements to remove
+     * @return the number of elements removed
+     * @throws IndexOutOfBoundsException if the range does not fit in target
+     */
+    public int drainTo(double[] target, int offset, int maxElements) {
+        if (offset < 0 || maxElements < 0 || maxElements > target.length - offset) {
+            throw new IndexOutOfBoundsException(
+                "Range [" + offset + ", " + offset + " + " + maxElements + ") out of bounds for length " + target.length);
+        }
+        lock.lock();
+        try {
+            int n = Math.min(maxElements, top + 1);
+            for (int i = 0; i < n; i++) {
+                target[offset + i] = array[top - i];
+            }
+            top -= n;
+            count = top + 1;
+            if (n == 1) {
+                notFull.signal();
+            } else if (n > 1) {
+                notFull.signalAll();
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pushes an element without waiting.
+     *
+     * @param element the value to push
+     * @throws IllegalStateException if the stack is full
+     */
+    @Override
+    public void push(double element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+    }
+
+    /**
+     * Pops the top element without waiting.
+     *
+     * @return the element at the top of the stack
+     * @throws IllegalStateException if the stack is empty
+     */
+    @Override
+    public double pop() {
+        lock.lock();
+        try {
+            if (top == -1) {
+                throw new IllegalStateException("Stack Underflow");
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public double peek() {
+        lock.lock();
+        try {
+            if (top == -1) {
+                throw new IllegalStateException("Stack is empty");
+            }
+            return array[top];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return count == capacity;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public double[] getElements() {
+        lock.lock();
+        try {
+            double[] elements = new double[top + 1];
+            System.arraycopy(array, 0, elements, 0, top + 1);
+            return elements;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pushes under the lock, which must be held and the stack not full.
+     */
+    private void enqueue(double element) {
+        array[++top] = element;
+        count = top + 1;
+        notEmpty.signal();
+    }
+
+    /**
+     * Pops under the lock, which must be held and the stack not empty.
+     */
+    private double dequeue() {
+        double element = array[top--];
+        count = top + 1;
+        notFull.signal();
+        return element;
+    }
+
+    private void spinWhileFull() {
+        for (int i = 0; i < spins && count == capacity; i++) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void spinWhileEmpty() {
+        for (int i = 0; i < spins && count == 0; i++) {
+            Thread.onSpinWait();
+        }
+    }
+}
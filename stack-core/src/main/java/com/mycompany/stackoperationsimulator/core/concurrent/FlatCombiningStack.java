@@ -0,0 +1,369 @@
+package com.mycompany.stackoperationsimulator.core.concurrent;
+
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe bounded stack that uses flat combining instead of contending
+ * on the top index.
+ *
+ * <p>A thread that wants to push, pop or peek publishes its request in a
+ * slot of a fixed publication array and then waits. Whichever thread
+ * acquires the combiner flag scans all slots and applies every pending
+ * request in one batch while the others spin on their own slot. Within a
+ * batch a push is paired directly with a pop (the pop returns the pushed
+ * value) before the array is touched, unless the stack is full, so balanced
+ * workloads hardly move the top index at all. Only one thread at a time writes the array and the top
+ * index, and the cache line holding them stays with the combiner.</p>
+ *
+ * <p>The stack follows the {@link DoubleStack} contract, including its
+ * exceptions, which are thrown in the thread that made the request. Every
+ * operation is linearizable. {@link #size()}, {@link #isEmpty()} and
+ * {@link #isFull()} read the size published after the last batch without
+ * waiting.</p>
+ *
+ * <p>Flat combining pays off when many threads hit the same stack; a single
+ * thread is faster with a plain {@code StackDemo}.</p>
+ */
+public class FlatCombiningStack implements DoubleStack {
+
+    private static final int PUSH = 0;
+    private static final int POP = 1;
+    private static final int PEEK = 2;
+
+    // Slot states
+    private static final int FREE = 0;
+    private static final int CLAIMED = 1;
+    private static final int REQUEST = 2;
+    private static final int DONE = 3;
+
+    // Request outcomes
+    private static final int OK = 0;
+    private static final int OVERFLOW = 1;
+    private static final int UNDERFLOW = 2;
+    private static final int EMPTY = 3;
+
+    private static final int DEFAULT_SLOTS = 16;
+
+    // Scans per combining session; later scans pick up requests published meanwhile
+    private static final int COMBINE_PASSES = 3;
+
+    // Busy-wait iterations before yielding, none on a single CPU
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0;
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Slot.class, "state", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final double[] array;
+    private final int capacity;
+
+    /**
+     * Index of the top element, only accessed by the combiner.
+     */
+    private int top = -1;
+
+    /**
+     * Number of elements, published after every batch.
+     */
+    private volatile int count;
+
+    private final AtomicBoolean combining = new AtomicBoolean();
+    private final Slot[] slots;
+
+    // Threads that have used this stack; each gets the next slot as its home,
+    // and only slots below this count (at most all of them) are ever used
+    private final AtomicInteger threadsSeen = new AtomicInteger();
+    private final ThreadLocal<Integer> home = ThreadLocal.withInitial(threadsSeen::getAndIncrement);
+
+    // Combiner scratch space, indexes into slots
+    private final int[] batch;
+    private final int[] pushes;
+    private final int[] pops;
+
+    /**
+     * Constructs a new FlatCombiningStack with 16 publication slots, or twice
+     * the number of available processors if that is more.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     */
+    public FlatCombiningStack(int capacity) {
+        this(capacity, Math.max(DEFAULT_SLOTS, 2 * Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructs a new FlatCombiningStack.
+     *
+     * <p>Threads beyond the number of slots still work, they wait for a slot
+     * to become free before publishing their request.</p>
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @param slotCount the number of publication slots
+     * @throws IllegalArgumentException if capacity or slotCount is less than or equal to zero
+     */
+    public FlatCombiningStack(int capacity, int slotCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (slotCount <= 0) {
+            throw new IllegalArgumentException("Slot count must be positive");
+        }
+        this.capacity = capacity;
+        this.array = new double[capacity];
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+        this.batch = new int[slotCount];
+        this.pushes = new int[slotCount];
+        this.pops = new int[slotCount];
+    }
+
+    @Override
+    public void push(double element) {
+        Slot slot = claim();
+        slot.value = element;
+        int outcome = execute(slot, PUSH);
+        STATE.setRelease(slot, FREE);
+        if (outcome == OVERFLOW) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+    }
+
+    @Override
+    public double pop() {
+        Slot slot = claim();
+        int outcome = execute(slot, POP);
+        double value = slot.value;
+        STATE.setRelease(slot, FREE);
+        if (outcome == UNDERFLOW) {
+            throw new IllegalStateException("Stack Underflow");
+        }
+        return value;
+    }
+
+    @Override
+    public double peek() {
+        Slot slot = claim();
+        int outcome = execute(slot, PEEK);
+        double value = slot.value;
+        STATE.setRelease(slot, FREE);
+        if (outcome == EMPTY) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return count == capacity;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns a copy of all elements currently in the stack.
+     *
+     * <p>The copy is taken while holding the combiner flag, so it is a
+     * consistent snapshot between two batches.</p>
+     *
+     * @return a new array with the elements from bottom to top
+     */
+    @Override
+    public double[] getElements() {
+        int spins = 0;
+        while (!combining.compareAndSet(false, true)) {
+            spins = backOff(spins);
+        }
+        try {
+            double[] elements = new double[top + 1];
+            System.arraycopy(array, 0, elements, 0, top + 1);
+            return elements;
+        } finally {
+            combining.setRelease(false);
+        }
+    }
+
+    /**
+     * Reserves a free publication slot, starting at the calling thread's home slot.
+     */
+    private Slot claim() {
+        int start = home.get();
+        int spins = 0;
+        while (true) {
+            int active = activeSlots();
+            for (int i = 0; i < active; i++) {
+                Slot slot = slots[(start + i) % active];
+                if (slot.state == FREE && STATE.compareAndSet(slot, FREE, CLAIMED)) {
+                    return slot;
+                }
+            }
+            // All slots busy: help the requests in them complete
+            if (!tryCombine()) {
+                spins = backOff(spins);
+            }
+        }
+    }
+
+    /**
+     * Publishes the request in a claimed slot and waits until a combiner has
+     * applied it, combining itself whenever the flag is free. The caller
+     * reads the result and frees the slot.
+     *
+     * @return the outcome of the request
+     */
+    private int execute(Slot slot, int operation) {
+        slot.operation = operation;
+        STATE.setRelease(slot, REQUEST);
+        int spins = 0;
+        while (slot.state != DONE) {
+            if (!tryCombine()) {
+                spins = backOff(spins);
+            }
+        }
+        return slot.outcome;
+    }
+
+    private boolean tryCombine() {
+        if (combining.get() || !combining.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            for (int pass = 0; pass < COMBINE_PASSES; pass++) {
+                // Stop once only a single request (usually our own) shows up
+                if (combineOnce() <= 1) {
+                    break;
+                }
+            }
+        } finally {
+            combining.setRelease(false);
+        }
+        return true;
+    }
+
+    /**
+     * Applies all requests currently published.
+     *
+     * @return the number of requests applied
+     */
+    private int combineOnce() {
+        int batchSize = 0;
+        int pushCount = 0;
+        int popCount = 0;
+        int active = activeSlots();
+        for (int i = 0; i < active; i++) {
+            Slot slot = slots[i];
+            if (slot.state != REQUEST) {
+                continue;
+            }
+            batch[batchSize++] = i;
+            if (slot.operation == PUSH) {
+                pushes[pushCount++] = i;
+            } else if (slot.operation == POP) {
+                pops[popCount++] = i;
+            }
+        }
+        if (batchSize == 0) {
+            return 0;
+        }
+
+        // Elimination: a push immediately followed by a pop leaves the stack unchanged.
+        // On a full stack that push would overflow, so no pairs are formed there
+        int paired = top < capacity - 1 ? Math.min(pushCount, popCount) : 0;
+        for (int i = 0; i < paired; i++) {
+            Slot push = slots[pushes[pushCount - 1 - i]];
+            Slot pop = slots[pops[popCount - 1 - i]];
+            pop.value = push.value;
+            push.outcome = OK;
+            pop.outcome = OK;
+        }
+        for (int i = 0; i < pushCount - paired; i++) {
+            Slot push = slots[pushes[i]];
+            if (top == capacity - 1) {
+                push.outcome = OVERFLOW;
+            } else {
+                array[++top] = push.value;
+                push.outcome = OK;
+            }
+        }
+        for (int i = 0; i < popCount - paired; i++) {
+            Slot pop = slots[pops[i]];
+            if (top == -1) {
+                pop.outcome = UNDERFLOW;
+            } else {
+                pop.value = array[top--];
+                pop.outcome = OK;
+            }
+        }
+        count = top + 1;
+
+        // Peeks see the stack after this batch; release every request last
+        for (int i = 0; i < batchSize; i++) {
+            Slot slot = slots[batch[i]];
+            if (slot.operation == PEEK) {
+                if (top == -1) {
+                    slot.outcome = EMPTY;
+                } else {
+                    slot.value = array[top];
+                    slot.outcome = OK;
+                }
+            }
+            STATE.setRelease(slot, DONE);
+        }
+        return batchSize;
+    }
+
+    private int activeSlots() {
+        return Math.min(threadsSeen.get(), slots.length);
+    }
+
+    private static int backOff(int spins) {
+        if (spins < SPINS) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+        return spins + 1;
+    }
+
+    /**
+     * One entry of the publication array.
+     *
+     * <p>The padding keeps neighbouring slots on separate cache lines, so
+     * threads spinning on their own slot do not disturb each other.</p>
+     */
+    @SuppressWarnings("unused")
+    private static final class Slot {
+        long p01, p02, p03, p04, p05, p06, p07;
+
+        volatile int state;
+        int operation;
+        int outcome;
+        double value;
+
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+}
@@ -0,0 +1,249 @@
+package com.mycompany.stackoperationsimulator.core.concurrent;
+
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.OptionalDouble;
+
+/**
+ * Stack owned by one thread that other threads can steal from at the bottom
+ * (a Chase-Lev work-stealing deque).
+ *
+ * <p>The owner pushes and pops at the top like on a {@code StackDemo}, without
+ * locks and, except when taking the last element, without compare-and-set.
+ * Any other thread may call {@link #steal()}, which takes the oldest element
+ * with a compare-and-set on the bottom index. A scheduler keeps one such stack
+ * per worker: a worker runs its newest tasks first, which are the ones whose
+ * data is still in its cache, and idle workers steal the oldest tasks, which
+ * in divide-and-conquer work are the biggest.</p>
+ *
+ * <p>Elements live in a circular array indexed by ever-increasing top and
+ * bottom counters. The array starts small and doubles when full, up to the
+ * capacity; a thief still reading the old array sees valid elements, because
+ * the owner never writes to an array it has replaced. The memory ordering
+ * follows Lê et al., "Correct and Efficient Work-Stealing for Weak Memory
+ * Models" (PPoPP 2013).</p>
+ *
+ * <p>Only the owner may call the {@link DoubleStack} operations and
+ * {@link #poll()}. {@link #size()}, {@link #isEmpty()} and {@link #isFull()}
+ * may be called from any thread and are a snapshot. The owner's pop can lose
+ * the last element to a thief, in which case it throws "Stack Underflow" as
+ * for an empty stack; {@link #poll()} returns an empty result instead.</p>
+ */
+public class WorkStealingStack implements DoubleStack {
+
+    private static final int INITIAL_LENGTH = 16;
+
+    private static final int MAX_LENGTH = 1 << 30;
+
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(WorkStealingStack.class, "top", long.class);
+            BOTTOM = lookup.findVarHandle(WorkStealingStack.class, "bottom", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int capacity;
+
+    /**
+     * Circular storage, a power of two long; replaced only by the owner.
+     */
+    private volatile double[] array;
+
+    /**
+     * Index one past the top element, written only by the owner.
+     */
+    private volatile long top;
+
+    /**
+     * Index of the bottom element, advanced by thieves and by the owner
+     * taking the last element.
+     */
+    private volatile long bottom;
+
+    /**
+     * Constructs a new WorkStealingStack with the specified capacity.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     */
+    public WorkStealingStack(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.array = new double[Math.min(INITIAL_LENGTH, lengthFor(capacity))];
+    }
+
+    /**
+     * Pushes an element onto the top. Owner only.
+     *
+     * @param element the value to push
+     * @throws IllegalStateException if the stack is full
+     */
+    @Override
+    public void push(double element) {
+        long t = (long) TOP.getOpaque(this);
+        long b = (long) BOTTOM.getAcquire(this);
+        double[] a = array;
+        int size = (int) (t - b);
+        if (size >= capacity || (size >= a.length && a.length == MAX_LENGTH)) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        if (size >= a.length) {
+            a = grow(a, b, t);
+        }
+        a[(int) t & (a.length - 1)] = element;
+        // Publishes the element to thieves that read top with acquire
+        TOP.setRelease(this, t + 1);
+    }
+
+    /**
+     * Removes and returns the top element. Owner only.
+     *
+     * @return the element at the top of the stack
+     * @throws IllegalStateException if the stack is empty, or a thief took the last element
+     */
+    @Override
+    public double pop() {
+        double[] a = array;
+        long t = (long) TOP.getOpaque(this) - 1;
+        TOP.setOpaque(this, t);
+        // Thieves must see the lowered top before the bottom is read
+        VarHandle.fullFence();
+        long b = (long) BOTTOM.getOpaque(this);
+        if (b < t) {
+            return a[(int) t & (a.length - 1)];
+        }
+        boolean taken = false;
+        double element = 0;
+        if (b == t) {
+            // Last element: race the thieves for it
+            element = a[(int) t & (a.length - 1)];
+            taken = BOTTOM.compareAndSet(this, b, b + 1);
+        }
+        TOP.setOpaque(this, t + 1);
+        if (!taken) {
+            throw new IllegalStateException("Stack Underflow");
+        }
+        return element;
+    }
+
+    /**
+     * Removes and returns the top element if there is one. Owner only.
+     *
+     * @return the element, or empty if the stack is empty or a thief took the last element
+     */
+    public OptionalDouble poll() {
+        if (isEmpty()) {
+            return OptionalDouble.empty();
+        }
+        try {
+            return OptionalDouble.of(pop());
+        } catch (IllegalStateException e) {
+            return OptionalDouble.empty();
+        }
+    }
+
+    /**
+     * Removes and returns the bottom element. Any thread but the owner may
+     * call this; it never waits.
+     *
+     * @return the element, or empty if the stack is empty or another thread took the element first
+     */
+    public OptionalDouble steal() {
+        long b = (long) BOTTOM.getAcquire(this);
+        // The bottom must be read before the top, as the owner's pop writes them the other way round
+        VarHandle.fullFence();
+        long t = (long) TOP.getAcquire(this);
+        if (b >= t) {
+            return OptionalDouble.empty();
+        }
+        double[] a = array;
+        double element = a[(int) b & (a.length - 1)];
+        if (!BOTTOM.compareAndSet(this, b, b + 1)) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(element);
+    }
+
+    /**
+     * Returns the top element without removing it. Owner only; a thief may
+     * take it meanwhile if it is the last one.
+     *
+     * @return the element at the top of the stack
+     * @throws IllegalStateException if the stack is empty
+     */
+    @Override
+    public double peek() {
+        long t = (long) TOP.getOpaque(this);
+        double[] a = array;
+        if (t - (long) BOTTOM.getAcquire(this) <= 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return a[(int) (t - 1) & (a.length - 1)];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return size() == capacity;
+    }
+
+    @Override
+    public int size() {
+        long b = bottom;
+        long t = top;
+        // Between a pop's lowering of top and its restoring, top may be one below bottom
+        return (int) Math.max(0, Math.min(t - b, capacity));
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the elements from bottom to top. Owner only; elements stolen
+     * meanwhile may still be included.
+     *
+     * @return a copy of the elements
+     */
+    @Override
+    public double[] getElements() {
+        double[] a = array;
+        long t = top;
+        long b = bottom;
+        double[] elements = new double[(int) Math.max(0, t - b)];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = a[(int) (b + i) & (a.length - 1)];
+        }
+        return elements;
+    }
+
+    private double[] grow(double[] old, long b, long t) {
+        double[] a = new double[Math.min(old.length * 2, lengthFor(capacity))];
+        for (long i = b; i < t; i++) {
+            a[(int) i & (a.length - 1)] = old[(int) i & (old.length - 1)];
+        }
+        array = a;
+        return a;
+    }
+
+    /**
+     * Smallest power of two not below the capacity, at most 2^30.
+     */
+    private static int lengthFor(int capacity) {
+        return capacity <= 1 ? 1 : capacity > MAX_LENGTH ? MAX_LENGTH : Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
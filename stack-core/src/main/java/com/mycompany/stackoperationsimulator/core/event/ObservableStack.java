@@ -0,0 +1,225 @@
+package com.mycompany.stackoperationsimulator.core.event;
+
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Stack that publishes its changes as a {@link Flow} of {@link StackChanges}
+ * batches.
+ *
+ * <p>Every push, pop and clear is applied to the wrapped {@link StackDemo}
+ * and recorded in the current batch. A batch is published when it reaches
+ * the batch size or when {@link #flush()} is called, so a caller that makes
+ * many changes in a row (a bulk load, a replay) emits a few large batches
+ * instead of one event per change. Peeks and size queries are not
+ * changes and are not recorded.</p>
+ *
+ * <p>Delivery uses a {@link SubmissionPublisher}: each subscriber receives
+ * batches on the executor, in order, as fast as it requests them, with up
+ * to the buffer capacity of batches queued for it. When a subscriber's
+ * queue is full, publishing blocks the stack's thread until that
+ * subscriber catches up, so a slow consumer slows the producer down rather
+ * than losing changes or growing memory without bound.</p>
+ *
+ * <p>A subscriber that joins a stack that already holds elements should read
+ * {@link #getElements()} and {@link #getSequence()} before subscribing, on
+ * the stack's thread, and skip changes with sequence numbers up to that
+ * value. Like {@link StackDemo}, this class is not thread-safe; only the
+ * subscribers run on other threads.</p>
+ */
+public class ObservableStack implements DoubleStack, Flow.Publisher<StackChanges>, AutoCloseable {
+
+    /**
+     * Default number of changes after which a batch is published.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private static final int INITIAL_BATCH_CAPACITY = 16;
+
+    private final StackDemo stack;
+    private final int batchSize;
+    private final SubmissionPublisher<StackChanges> publisher;
+
+    /**
+     * Sequence number of the most recent change.
+     */
+    private long sequence;
+
+    // Current batch; the arrays are handed to the published StackChanges
+    private byte[] kinds;
+    private double[] values;
+    private int[] sizes;
+    private int count;
+
+    /**
+     * Wraps a stack, delivering batches of up to {@link #DEFAULT_BATCH_SIZE}
+     * changes on the common pool.
+     *
+     * @param stack the stack to observe; it must only be changed through this object
+     */
+    public ObservableStack(StackDemo stack) {
+        this(stack, DEFAULT_BATCH_SIZE, new SubmissionPublisher<>());
+    }
+
+    /**
+     * Wraps a stack.
+     *
+     * @param stack the stack to observe; it must only be changed through this object
+     * @param batchSize number of changes after which a batch is published
+     * @param executor runs the subscribers
+     * @param bufferCapacity batches queued per subscriber before publishing blocks
+     * @throws IllegalArgumentException if batchSize or bufferCapacity is not positive
+     */
+    public ObservableStack(StackDemo stack, int batchSize, Executor executor, int bufferCapacity) {
+        this(stack, batchSize, new SubmissionPublisher<>(executor, bufferCapacity));
+    }
+
+    private ObservableStack(StackDemo stack, int batchSize, SubmissionPublisher<StackChanges> publisher) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.stack = stack;
+        this.batchSize = batchSize;
+        this.publisher = publisher;
+        newBatch();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super StackChanges> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    @Override
+    public void push(double element) {
+        stack.push(element);
+        record(StackChanges.PUSH, element);
+    }
+
+    /**
+     * Pushes every remaining element of the buffer, recording one change per
+     * element. Either all elements are pushed or none are.
+     *
+     * @param source the buffer to read from; its position is advanced to its limit
+     * @throws IllegalStateException if the elements do not fit (overflow condition)
+     */
+    public void pushAll(DoubleBuffer source) {
+        DoubleBuffer pushed = source.duplicate();
+        stack.pushAll(source);
+        int size = stack.size() - pushed.remaining();
+        while (pushed.hasRemaining()) {
+            record(StackChanges.PUSH, pushed.get(), ++size);
+        }
+    }
+
+    @Override
+    public double pop() {
+        double element = stack.pop();
+        record(StackChanges.POP, element);
+        return element;
+    }
+
+    /**
+     * Removes all elements, recording a single {@link StackChanges#CLEAR}
+     * change whose value is the number of elements removed.
+     */
+    public void clear() {
+        int removed = stack.size();
+        stack.clear();
+        record(StackChanges.CLEAR, removed);
+    }
+
+    @Override
+    public double peek() {
+        return stack.peek();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return stack.isEmpty();
+    }
+
+    @Override
+    public boolean isFull() {
+        return stack.isFull();
+    }
+
+    @Override
+    public int size() {
+        return stack.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return stack.getCapacity();
+    }
+
+    @Override
+    public double[] getElements() {
+        return stack.getElements();
+    }
+
+    /**
+     * @return the sequence number of the most recent change, 0 if there was none
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Publishes the changes recorded since the last batch, if any.
+     *
+     * <p>Blocks while a subscriber's queue is full.</p>
+     */
+    public void flush() {
+        if (count == 0) {
+            return;
+        }
+        StackChanges batch = new StackChanges(sequence - count + 1, count, kinds, values, sizes);
+        newBatch();
+        publisher.submit(batch);
+    }
+
+    /**
+     * Publishes the pending changes and completes every subscriber.
+     */
+    @Override
+    public void close() {
+        flush();
+        publisher.close();
+    }
+
+    private void record(byte kind, double value) {
+        record(kind, value, stack.size());
+    }
+
+    private void record(byte kind, double value, int size) {
+        if (count == kinds.length) {
+            int capacity = Math.min(count * 2, batchSize);
+            kinds = Arrays.copyOf(kinds, capacity);
+            values = Arrays.copyOf(values, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        kinds[count] = kind;
+        values[count] = value;
+        sizes[count] = size;
+        count++;
+        sequence++;
+        if (count == batchSize) {
+            flush();
+        }
+    }
+
+    private void newBatch() {
+        // Small batches (one click in the UI) stay small; large ones grow to batchSize
+        int capacity = Math.min(INITIAL_BATCH_CAPACITY, batchSize);
+        kinds = new byte[capacity];
+        values = new double[capacity];
+        sizes = new int[capacity];
+        count = 0;
+    }
+}
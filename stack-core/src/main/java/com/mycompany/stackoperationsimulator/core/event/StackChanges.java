@@ -0,0 +1,98 @@
+package com.mycompany.stackoperationsimulator.core.event;
+
+/**
+ * A batch of consecutive changes to an {@link ObservableStack}.
+ *
+ * <p>The changes are stored in parallel primitive arrays rather than as one
+ * object per change, so a batch of thousands of pushes costs three array
+ * allocations. Change {@code i} of the batch has the sequence number
+ * {@code getFirstSequence() + i}; sequence numbers start at 1 and have no
+ * gaps, so a subscriber can tell whether it has missed or already seen a
+ * change.</p>
+ *
+ * <p>Batches are immutable once published and may be shared between
+ * subscribers.</p>
+ */
+public final class StackChanges {
+
+    /**
+     * An element was pushed; the value is the element.
+     */
+    public static final byte PUSH = 1;
+
+    /**
+     * An element was popped; the value is the element.
+     */
+    public static final byte POP = 2;
+
+    /**
+     * The stack was cleared; the value is the number of elements removed.
+     */
+    public static final byte CLEAR = 3;
+
+    private final long firstSequence;
+    private final int count;
+    private final byte[] kinds;
+    private final double[] values;
+    private final int[] sizes;
+
+    StackChanges(long firstSequence, int count, byte[] kinds, double[] values, int[] sizes) {
+        this.firstSequence = firstSequence;
+        this.count = count;
+        this.kinds = kinds;
+        this.values = values;
+        this.sizes = sizes;
+    }
+
+    /**
+     * @return the sequence number of the first change in this batch
+     */
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * @return the sequence number of the last change in this batch
+     */
+    public long getLastSequence() {
+        return firstSequence + count - 1;
+    }
+
+    /**
+     * @return the number of changes in this batch
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param index the change index within this batch
+     * @return {@link #PUSH}, {@link #POP} or {@link #CLEAR}
+     */
+    public byte getKind(int index) {
+        return kinds[checkIndex(index)];
+    }
+
+    /**
+     * @param index the change index within this batch
+     * @return the pushed or popped element, or the number of elements a clear removed
+     */
+    public double getValue(int index) {
+        return values[checkIndex(index)];
+    }
+
+    /**
+     * @param index the change index within this batch
+     * @return the stack size right after the change
+     */
+    public int getSizeAfter(int index) {
+        return sizes[checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        return index;
+    }
+}
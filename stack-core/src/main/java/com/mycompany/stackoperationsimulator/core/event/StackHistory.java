@@ -0,0 +1,355 @@
+package com.mycompany.stackoperationsimulator.core.event;
+
+import java.util.Arrays;
+import java.util.concurrent.Flow;
+
+/**
+ * Records the stack size, and optionally the top value, after every change
+ * of an {@link ObservableStack}, for drawing a timeline.
+ *
+ * <p>Samples are kept in primitive ring buffers that grow on demand up to the
+ * history capacity and then overwrite the oldest samples. To draw millions
+ * of samples, {@link #downsampleSizes} and {@link #downsampleTops} reduce the
+ * retained history to a minimum and a maximum per pixel column in one pass
+ * (min/max decimation). Unlike averaging or picking every n-th sample, this
+ * keeps every spike visible. A minimum and maximum is also kept for every
+ * block of 64 samples as they are recorded, so the pass reads the block
+ * summaries and only the samples at column edges; ten million samples reduce
+ * in well under a millisecond, and the timeline can be redrawn after every
+ * operation without creating a node per point.</p>
+ *
+ * <p>The top value after a pop is not part of the change event, so a history
+ * that tracks top values keeps its own copy of the stack's elements.</p>
+ *
+ * <p>The history is a subscriber: subscribe it to the stack, or pass each
+ * batch to {@link #onNext} from another subscriber when the history must be
+ * up to date before that subscriber acts on the batch. It is updated on the
+ * publisher's executor; the query methods may be called from any
+ * thread.</p>
+ */
+public final class StackHistory implements Flow.Subscriber<StackChanges> {
+
+    private static final int INITIAL_LENGTH = 1024;
+
+    // Samples per block summary
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+
+    private final int capacity;
+    private final boolean trackTop;
+
+    // Ring buffers; sample n is at index n % length once the buffers are full
+    private int[] sizes;
+    private double[] tops;
+
+    // Minimum and maximum of each block of 64 ring entries, so that
+    // downsampling reads one summary instead of 64 samples per block
+    private int[] sizeBlockMin;
+    private int[] sizeBlockMax;
+    private double[] topBlockMin;
+    private double[] topBlockMax;
+
+    // Accumulators of the scan in progress
+    private int scanLow;
+    private int scanHigh;
+    private double scanTopLow;
+    private double scanTopHigh;
+
+    /**
+     * Number of samples ever recorded.
+     */
+    private long count;
+
+    // Copy of the stack's elements, kept only to know the top after a pop
+    private double[] elements;
+    private int depth;
+
+    /**
+     * Sequence number of the last change already recorded.
+     */
+    private long sequence;
+
+    private Flow.Subscription subscription;
+
+    /**
+     * Creates a history whose first sample is the current state of a stack.
+     * Must be called on the stack's thread, before the history receives any
+     * of the stack's batches.
+     *
+     * @param stack the stack to follow
+     * @param capacity the number of samples kept
+     * @param trackTop whether to record the top value as well as the size
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public StackHistory(ObservableStack stack, int capacity, boolean trackTop) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.trackTop = trackTop;
+        int length = Math.min(capacity, INITIAL_LENGTH);
+        sizes = new int[length];
+        sizeBlockMin = new int[blocks(length)];
+        sizeBlockMax = new int[blocks(length)];
+        if (trackTop) {
+            tops = new double[length];
+            topBlockMin = new double[blocks(length)];
+            topBlockMax = new double[blocks(length)];
+            elements = stack.getElements();
+            depth = elements.length;
+        }
+        sequence = stack.getSequence();
+        record(stack.size());
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized void onNext(StackChanges batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.getFirstSequence() + i <= sequence) {
+                continue;
+            }
+            if (trackTop) {
+                follow(batch.getKind(i), batch.getValue(i));
+            }
+            record(batch.getSizeAfter(i));
+        }
+        sequence = Math.max(sequence, batch.getLastSequence());
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        // Keep what was recorded
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    /**
+     * Stops recording, if the history was subscribed.
+     */
+    public void cancel() {
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    /**
+     * @return the number of samples ever recorded, including overwritten ones
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of samples currently kept
+     */
+    public synchronized int getRetained() {
+        return (int) Math.min(count, capacity);
+    }
+
+    /**
+     * @return whether top values are recorded
+     */
+    public boolean isTrackingTop() {
+        return trackTop;
+    }
+
+    /**
+     * Reduces the retained sizes to the minimum and maximum of each column.
+     * Column {@code c} covers an equal share of the samples, oldest first;
+     * with fewer samples than columns, there is one column per sample.
+     *
+     * @param columns the number of columns wanted
+     * @param min receives the smallest size per column
+     * @param max receives the largest size per column
+     * @return the number of columns filled
+     */
+    public synchronized int downsampleSizes(int columns, int[] min, int[] max) {
+        int retained = (int) Math.min(count, capacity);
+        int filled = Math.min(columns, retained);
+        long first = count - retained;
+        long from = first;
+        for (int c = 0; c < filled; c++) {
+            long to = first + (long) (c + 1) * retained / filled;
+            scanLow = Integer.MAX_VALUE;
+            scanHigh = Integer.MIN_VALUE;
+            int index = (int) (from % sizes.length);
+            int run = (int) Math.min(to - from, sizes.length - index);
+            // A column is at most two runs: up to the end of the ring, then from its start
+            scanSizes(index, index + run);
+            scanSizes(0, (int) (to - from) - run);
+            min[c] = scanLow;
+            max[c] = scanHigh;
+            from = to;
+        }
+        return filled;
+    }
+
+    /**
+     * Reduces the retained top values to the minimum and maximum of each
+     * column, like {@link #downsampleSizes}. Columns in which the stack was
+     * always empty are NaN.
+     *
+     * @param columns the number of columns wanted
+     * @param min receives the smallest top value per column
+     * @param max receives the largest top value per column
+     * @return the number of columns filled
+     * @throws IllegalStateException if top values are not recorded
+     */
+    public synchronized int downsampleTops(int columns, double[] min, double[] max) {
+        if (!trackTop) {
+            throw new IllegalStateException("Top values are not recorded");
+        }
+        int retained = (int) Math.min(count, capacity);
+        int filled = Math.min(columns, retained);
+        long first = count - retained;
+        long from = first;
+        for (int c = 0; c < filled; c++) {
+            long to = first + (long) (c + 1) * retained / filled;
+            scanTopLow = Double.POSITIVE_INFINITY;
+            scanTopHigh = Double.NEGATIVE_INFINITY;
+            int index = (int) (from % tops.length);
+            int run = (int) Math.min(to - from, tops.length - index);
+            scanTops(index, index + run);
+            scanTops(0, (int) (to - from) - run);
+            min[c] = scanTopLow <= scanTopHigh ? scanTopLow : Double.NaN;
+            max[c] = scanTopLow <= scanTopHigh ? scanTopHigh : Double.NaN;
+            from = to;
+        }
+        return filled;
+    }
+
+    /**
+     * Folds the sizes at ring indexes [from, to) into scanLow and scanHigh,
+     * reading block summaries for whole blocks.
+     */
+    private void scanSizes(int from, int to) {
+        int mixed = mixedBlock();
+        int low = scanLow;
+        int high = scanHigh;
+        int i = from;
+        while (i < to) {
+            int block = i >> BLOCK_SHIFT;
+            int blockEnd = (block + 1) << BLOCK_SHIFT;
+            if ((i & BLOCK_MASK) == 0 && blockEnd <= to && block != mixed) {
+                low = Math.min(low, sizeBlockMin[block]);
+                high = Math.max(high, sizeBlockMax[block]);
+                i = blockEnd;
+            } else {
+                int stop = Math.min(to, blockEnd);
+                for (; i < stop; i++) {
+                    low = Math.min(low, sizes[i]);
+                    high = Math.max(high, sizes[i]);
+                }
+            }
+        }
+        scanLow = low;
+        scanHigh = high;
+    }
+
+    /**
+     * Folds the top values at ring indexes [from, to) into scanTopLow and
+     * scanTopHigh, skipping NaN, reading block summaries for whole blocks.
+     */
+    private void scanTops(int from, int to) {
+        int mixed = mixedBlock();
+        double low = scanTopLow;
+        double high = scanTopHigh;
+        int i = from;
+        while (i < to) {
+            int block = i >> BLOCK_SHIFT;
+            int blockEnd = (block + 1) << BLOCK_SHIFT;
+            if ((i & BLOCK_MASK) == 0 && blockEnd <= to && block != mixed) {
+                // Summaries of all-NaN blocks are +/- infinity and change nothing
+                low = Math.min(low, topBlockMin[block]);
+                high = Math.max(high, topBlockMax[block]);
+                i = blockEnd;
+            } else {
+                int stop = Math.min(to, blockEnd);
+                for (; i < stop; i++) {
+                    // NaN (empty stack) fails both comparisons and is skipped
+                    double value = tops[i];
+                    low = value < low ? value : low;
+                    high = value > high ? value : high;
+                }
+            }
+        }
+        scanTopLow = low;
+        scanTopHigh = high;
+    }
+
+    /**
+     * Returns the block holding both new samples and samples from the
+     * previous pass around the ring (its summary covers only the new ones),
+     * or -1 if there is none.
+     */
+    private int mixedBlock() {
+        int index = (int) (count % sizes.length);
+        return count >= sizes.length && (index & BLOCK_MASK) != 0 ? index >> BLOCK_SHIFT : -1;
+    }
+
+    private void follow(byte kind, double value) {
+        switch (kind) {
+            case StackChanges.PUSH:
+                if (depth == elements.length) {
+                    elements = Arrays.copyOf(elements, Math.max(16, depth * 2));
+                }
+                elements[depth++] = value;
+                break;
+            case StackChanges.POP:
+                depth--;
+                break;
+            default:
+                depth = 0;
+                break;
+        }
+    }
+
+    private void record(int size) {
+        if (count == sizes.length && sizes.length < capacity) {
+            int length = (int) Math.min((long) sizes.length * 2, capacity);
+            int blocks = blocks(length);
+            sizes = Arrays.copyOf(sizes, length);
+            sizeBlockMin = Arrays.copyOf(sizeBlockMin, blocks);
+            sizeBlockMax = Arrays.copyOf(sizeBlockMax, blocks);
+            if (trackTop) {
+                tops = Arrays.copyOf(tops, length);
+                topBlockMin = Arrays.copyOf(topBlockMin, blocks);
+                topBlockMax = Arrays.copyOf(topBlockMax, blocks);
+            }
+        }
+        int index = (int) (count % sizes.length);
+        int block = index >> BLOCK_SHIFT;
+        boolean newBlock = (index & BLOCK_MASK) == 0;
+        sizes[index] = size;
+        sizeBlockMin[block] = newBlock ? size : Math.min(sizeBlockMin[block], size);
+        sizeBlockMax[block] = newBlock ? size : Math.max(sizeBlockMax[block], size);
+        if (trackTop) {
+            double top = depth == 0 ? Double.NaN : elements[depth - 1];
+            tops[index] = top;
+            if (newBlock) {
+                topBlockMin[block] = Double.POSITIVE_INFINITY;
+                topBlockMax[block] = Double.NEGATIVE_INFINITY;
+            }
+            if (top < topBlockMin[block]) {
+                topBlockMin[block] = top;
+            }
+            if (top > topBlockMax[block]) {
+                topBlockMax[block] = top;
+            }
+        }
+        count++;
+    }
+
+    private static int blocks(int length) {
+        return (length + BLOCK_MASK) >> BLOCK_SHIFT;
+    }
+}
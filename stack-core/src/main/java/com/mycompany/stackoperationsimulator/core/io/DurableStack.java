@@ -0,0 +1,585 @@
+package com.mycompany.stackoperationsimulator.core.io;
+
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Thread-safe stack whose mutations are made durable through a write-ahead
+ * log before they return.
+ *
+ * <p>Every successful push and pop appends a record to an in-memory batch
+ * and then waits until a background committer thread has written the batch
+ * to the current log segment and forced it to disk. All operations that
+ * arrive while a commit is in progress share the next one, so under load a
+ * single {@code fsync} covers many operations (group commit). The committer
+ * can also hold a batch open for up to {@code commitWindow} to collect more
+ * operations, and commits early once the batch reaches {@code maxBatchBytes}.</p>
+ *
+ * <p>The log directory contains checkpoints ({@code checkpoint-N.stk}, the
+ * binary format of {@link StackFiles}) and log segments ({@code wal-N.log}).
+ * Segment N holds the operations applied after checkpoint N. When a segment
+ * grows past {@code segmentBytes}, the committer starts segment N + 1, writes
+ * the stack contents as checkpoint N + 1 and deletes everything older, so
+ * the log never grows much beyond one segment plus the live contents.</p>
+ *
+ * <p>Opening a directory recovers the stack from the newest checkpoint and
+ * the segments after it. Segments are written in frames with a length and a
+ * CRC32C checksum; replay stops at the first incomplete or corrupt frame,
+ * which can only be the tail of a commit that never returned. The recovered
+ * state is then checkpointed, so the stack always starts with a fresh
+ * segment. Checkpoints are written to a temporary file and renamed into
+ * place; if the newest one still cannot be read, opening fails with an
+ * {@link IOException}.</p>
+ *
+ * <p>An operation's result is returned only once it is durable, but other
+ * threads can observe its effect (for example through {@link #peek()})
+ * while it is still being committed. If writing the log fails, or the
+ * committer thread is interrupted, the waiting and all later operations
+ * throw {@link UncheckedIOException}.</p>
+ */
+public class DurableStack implements DoubleStack, AutoCloseable {
+
+    /**
+     * Default size after which a segment is checkpointed and replaced (64 MB).
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    /**
+     * Default batch size that triggers a commit without waiting for the window.
+     */
+    public static final int DEFAULT_MAX_BATCH_BYTES = 64 << 10;
+
+    private static final byte PUSH = 1;
+    private static final byte POP = 2;
+
+    // Frame header: payload length and CRC32C of the payload
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".stk";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long commitWindowNanos;
+    private final int maxBatchBytes;
+    private final long segmentBytes;
+
+    private final StackDemo stack;
+
+    /**
+     * Guards the stack, the pending batch and the commit state.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchReady = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+
+    // Records appended since the last commit, and the buffer being written
+    private ByteBuffer pending;
+    private ByteBuffer writing;
+    private long pendingSince;
+
+    // Log sequence numbers: one per appended record
+    private long appendedLsn;
+    private long durableLsn;
+
+    private IOException failure;
+    private boolean closed;
+
+    // Owned by the committer thread
+    private long segment;
+    private FileChannel channel;
+    private long segmentSize;
+    private final CRC32C crc = new CRC32C();
+
+    private final Thread committer;
+
+    /**
+     * Opens or creates a durable stack with the default log settings and no
+     * commit window.
+     *
+     * @param directory the log directory, created if it does not exist
+     * @param capacity the capacity of a new stack; an existing log keeps its capacity
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     * @throws IOException if the log cannot be created or recovered
+     */
+    public DurableStack(Path directory, int capacity) throws IOException {
+        this(directory, capacity, 0, TimeUnit.MICROSECONDS, DEFAULT_MAX_BATCH_BYTES, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens or creates a durable stack.
+     *
+     * @param directory the log directory, created if it does not exist
+     * @param capacity the capacity of a new stack; an existing log keeps its capacity
+     * @param commitWindow how long a commit may wait for more operations, 0 to commit as soon as possible
+     * @param unit the unit of commitWindow
+     * @param maxBatchBytes batch size that triggers a commit before the window ends
+     * @param segmentBytes segment size that triggers a checkpoint
+     * @throws IllegalArgumentException if capacity, maxBatchBytes or segmentBytes
+     *         is less than or equal to zero, or commitWindow is negative
+     * @throws IOException if the log cannot be created or recovered
+     */
+    public DurableStack(Path directory, int capacity, long commitWindow, TimeUnit unit,
+            int maxBatchBytes, long segmentBytes) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (commitWindow < 0) {
+            throw new IllegalArgumentException("Commit window must not be negative");
+        }
+        if (maxBatchBytes <= 0 || segmentBytes <= 0) {
+            throw new IllegalArgumentException("Batch and segment sizes must be positive");
+        }
+        this.directory = directory;
+        this.commitWindowNanos = unit.toNanos(commitWindow);
+        this.maxBatchBytes = maxBatchBytes;
+        this.segmentBytes = segmentBytes;
+        this.pending = newBuffer(maxBatchBytes);
+        this.writing = newBuffer(maxBatchBytes);
+
+        Files.createDirectories(directory);
+        stack = recover(capacity);
+        startSegment(segment + 1, copyOf(stack));
+        deleteBefore(segment);
+
+        committer = new Thread(this::commitLoop, "stack-wal-" + directory.getFileName());
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    @Override
+    public void push(double element) {
+        long lsn;
+        lock.lock();
+        try {
+            checkOpen();
+            stack.push(element);
+            boolean first = pending.position() == 0;
+            ensurePending(1 + Double.BYTES);
+            pending.put(PUSH).putDouble(element);
+            lsn = append(first);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(lsn);
+    }
+
+    @Override
+    public double pop() {
+        long lsn;
+        double element;
+        lock.lock();
+        try {
+            checkOpen();
+            element = stack.pop();
+            boolean first = pending.position() == 0;
+            ensurePending(1);
+            pending.put(POP);
+            lsn = append(first);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(lsn);
+        return element;
+    }
+
+    @Override
+    public double peek() {
+        lock.lock();
+        try {
+            return stack.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return stack.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        lock.lock();
+        try {
+            return stack.isFull();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return stack.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return stack.getCapacity();
+    }
+
+    @Override
+    public double[] getElements() {
+        lock.lock();
+        try {
+            return stack.getElements();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Commits all pending operations and stops the committer. The log stays
+     * on disk and is recovered by the next stack opened on the directory.
+     *
+     * @throws IOException if the final commit fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            batchReady.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Assigns the next sequence number to the record just written to the
+     * pending batch and wakes the committer if needed. Must hold the lock.
+     */
+    private long append(boolean first) {
+        appendedLsn++;
+        if (first) {
+            pendingSince = System.nanoTime();
+            batchReady.signal();
+        } else if (pending.position() >= maxBatchBytes) {
+            batchReady.signal();
+        }
+        return appendedLsn;
+    }
+
+    private void awaitDurable(long lsn) {
+        lock.lock();
+        try {
+            while (durableLsn < lsn && failure == null) {
+                committed.awaitUninterruptibly();
+            }
+            if (durableLsn < lsn) {
+                throw new UncheckedIOException("Write-ahead log failed", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Stack is closed");
+        }
+    }
+
+    private void ensurePending(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = newBuffer(pending.capacity() * 2);
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+
+    /**
+     * Committer thread. However it stops before the stack is closed, every
+     * waiting and later operation fails instead of waiting forever.
+     */
+    private void commitLoop() {
+        try {
+            commitBatches();
+        } catch (IOException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            fail(new InterruptedIOException("Write-ahead log committer interrupted"));
+        } catch (RuntimeException | Error e) {
+            fail(new IOException("Write-ahead log committer failed", e));
+            throw e;
+        }
+    }
+
+    /**
+     * Records why the log stopped and wakes every operation waiting for a commit.
+     */
+    private void fail(IOException e) {
+        lock.lock();
+        try {
+            failure = e;
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a batch, lets it fill up for the commit window, then writes
+     * and forces it while new operations collect in the other buffer. Returns
+     * once the stack is closed and every batch is committed.
+     */
+    private void commitBatches() throws IOException, InterruptedException {
+        while (true) {
+            long batchLsn;
+            StackDemo checkpoint = null;
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    batchReady.awaitUninterruptibly();
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                long waited = System.nanoTime() - pendingSince;
+                while (!closed && waited < commitWindowNanos && pending.position() < maxBatchBytes) {
+                    batchReady.awaitNanos(commitWindowNanos - waited);
+                    waited = System.nanoTime() - pendingSince;
+                }
+                ByteBuffer batch = pending;
+                pending = writing;
+                writing = batch;
+                batchLsn = appendedLsn;
+                if (segmentSize + batch.position() + FRAME_HEADER_BYTES >= segmentBytes) {
+                    // The stack now reflects exactly the operations up to batchLsn
+                    checkpoint = copyOf(stack);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            writing.flip();
+            writeFrame(writing);
+            writing.clear();
+            if (checkpoint != null) {
+                rotate(checkpoint);
+            }
+
+            lock.lock();
+            try {
+                durableLsn = batchLsn;
+                committed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeFrame(ByteBuffer payload) throws IOException {
+        crc.reset();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(payload.remaining()).putInt((int) crc.getValue()).flip();
+        segmentSize += header.remaining() + payload.remaining();
+        ByteBuffer[] frame = {header, payload};
+        while (payload.hasRemaining()) {
+            channel.write(frame);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Starts the next segment and replaces the older files by a checkpoint
+     * of the stack at the end of the current segment.
+     */
+    private void rotate(StackDemo checkpoint) throws IOException {
+        long previous = segment;
+        channel.close();
+        startSegment(previous + 1, checkpoint);
+        deleteBefore(segment);
+    }
+
+    /**
+     * Writes checkpoint N atomically, then creates an empty segment N.
+     */
+    private void startSegment(long number, StackDemo contents) throws IOException {
+        Path checkpoint = directory.resolve(fileName(CHECKPOINT_PREFIX, number, CHECKPOINT_SUFFIX));
+        Path temporary = directory.resolve(checkpoint.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            StackFiles.writeBinary(contents, out);
+            out.force(true);
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        segment = number;
+        segmentSize = 0;
+        channel = FileChannel.open(directory.resolve(fileName(SEGMENT_PREFIX, number, SEGMENT_SUFFIX)),
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        forceDirectory();
+    }
+
+    /**
+     * Loads the newest checkpoint and replays the segments after it. Older
+     * checkpoints are deleted once a newer one is in place, so there is none
+     * to fall back to: an unreadable newest checkpoint fails the recovery.
+     * Leaves segment set to the last replayed segment number.
+     */
+    private StackDemo recover(int capacity) throws IOException {
+        List<Long> checkpoints = list(CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+        List<Long> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        segment = 0;
+        if (checkpoints.isEmpty()) {
+            return new StackDemo(capacity);
+        }
+        long start = checkpoints.get(checkpoints.size() - 1);
+        StackDemo recovered;
+        try (FileChannel in = FileChannel.open(directory.resolve(
+                fileName(CHECKPOINT_PREFIX, start, CHECKPOINT_SUFFIX)), StandardOpenOption.READ)) {
+            recovered = StackFiles.readBinary(in);
+        }
+        segment = start;
+        for (long number : segments) {
+            if (number < start) {
+                continue;
+            }
+            replay(directory.resolve(fileName(SEGMENT_PREFIX, number, SEGMENT_SUFFIX)), recovered);
+            segment = number;
+        }
+        return recovered;
+    }
+
+    private void replay(Path file, StackDemo target) throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        while (content.remaining() >= FRAME_HEADER_BYTES) {
+            int length = content.getInt();
+            int checksum = content.getInt();
+            if (length < 0 || length > content.remaining()) {
+                return;
+            }
+            ByteBuffer payload = content.slice().order(ByteOrder.LITTLE_ENDIAN);
+            payload.limit(length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+            content.position(content.position() + length);
+            try {
+                while (payload.hasRemaining()) {
+                    byte type = payload.get();
+                    if (type == PUSH) {
+                        target.push(payload.getDouble());
+                    } else if (type == POP) {
+                        target.pop();
+                    } else {
+                        throw new IOException("Unknown record type " + type + " in " + file);
+                    }
+                }
+            } catch (IllegalStateException | BufferUnderflowException e) {
+                throw new IOException("Log " + file + " does not match its checkpoint", e);
+            }
+        }
+    }
+
+    private void deleteBefore(long number) throws IOException {
+        for (long old : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (old < number) {
+                Files.deleteIfExists(directory.resolve(fileName(SEGMENT_PREFIX, old, SEGMENT_SUFFIX)));
+            }
+        }
+        for (long old : list(CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX)) {
+            if (old < number) {
+                Files.deleteIfExists(directory.resolve(fileName(CHECKPOINT_PREFIX, old, CHECKPOINT_SUFFIX)));
+            }
+        }
+    }
+
+    private List<Long> list(String prefix, String suffix) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * Makes file creations and renames in the log directory durable. Not
+     * supported on every platform, where it is skipped.
+     */
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened as channels on Windows
+        }
+    }
+
+    private static String fileName(String prefix, long number, String suffix) {
+        return String.format("%s%016d%s", prefix, number, suffix);
+    }
+
+    private static StackDemo copyOf(StackDemo source) {
+        StackDemo copy = new StackDemo(source.getCapacity());
+        copy.pushAll(DoubleBuffer.wrap(source.getElements()));
+        return copy;
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
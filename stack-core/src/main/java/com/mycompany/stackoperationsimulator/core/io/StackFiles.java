@@ -0,0 +1,612 @@
+package com.mycompany.stackoperationsimulator.core.io;
+
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.text.DoubleFormatter;
+import com.mycompany.stackoperationsimulator.core.text.DoubleParser;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Saves and loads stack contents together with their capacity and top index.
+ *
+ * <p>All formats are streamed: elements are read from the stack in fixed-size
+ * chunks with {@link StackDemo#copyTo(int, DoubleBuffer)} and written back with
+ * {@link StackDemo#pushAll(DoubleBuffer)}, so no full copy of the stack is made
+ * in either direction. The binary format is read through a direct buffer and
+ * copied in bulk into the stack's backing array, which makes loading large
+ * stacks bound by disk bandwidth rather than by per-element parsing.</p>
+ *
+ * <p>Malformed files are reported as {@link IOException}; a file whose
+ * elements exceed its declared capacity is rejected the same way, and so is
+ * a header that declares more elements than the file holds or a capacity
+ * too large for the heap. Nothing is allocated from a header before it has
+ * been checked.</p>
+ */
+public final class StackFiles {
+
+    // "STK1" read as a little-endian int
+    private static final int MAGIC = 0x314B5453;
+
+    // Magic, capacity, top and one reserved int keep the elements 8-byte aligned
+    private static final int HEADER_BYTES = 16;
+
+    // Size of the direct buffer used for binary transfers (multiple of 8)
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    // Number of elements formatted or parsed per chunk by the text formats
+    private static final int TEXT_CHUNK = 4096;
+
+    // Characters read at a time by the CSV reader
+    private static final int TEXT_BUFFER = 1 << 16;
+
+    private static final String CSV_HEADER = "capacity,top";
+
+    private StackFiles() {
+    }
+
+    /**
+     * Saves the stack to a file, choosing the format from the file extension.
+     *
+     * @param stack the stack to save
+     * @param path the target file, created or truncated
+     * @throws IOException if writing fails
+     */
+    public static void save(StackDemo stack, Path path) throws IOException {
+        save(stack, path, StackFormat.forPath(path));
+    }
+
+    /**
+     * Saves the stack to a file in the given format.
+     *
+     * @param stack the stack to save
+     * @param path the target file, created or truncated
+     * @param format the file format
+     * @throws IOException if writing fails
+     */
+    public static void save(StackDemo stack, Path path, StackFormat format) throws IOException {
+        switch (format) {
+            case CSV:
+                try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                    writeCsv(stack, writer);
+                }
+                break;
+            case JSON:
+                try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                    writeJson(stack, writer);
+                }
+                break;
+            default:
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    writeBinary(stack, channel);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Loads a stack from a file, choosing the format from the file extension.
+     *
+     * @param path the file to read
+     * @return a new stack with the saved capacity and contents
+     * @throws IOException if reading fails or the file is malformed
+     */
+    public static StackDemo load(Path path) throws IOException {
+        return load(path, StackFormat.forPath(path));
+    }
+
+    /**
+     * Loads a stack from a file in the given format.
+     *
+     * @param path the file to read
+     * @param format the file format
+     * @return a new stack with the saved capacity and contents
+     * @throws IOException if reading fails or the file is malformed
+     */
+    public static StackDemo load(Path path, StackFormat format) throws IOException {
+        switch (format) {
+            case CSV:
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    return readCsv(reader);
+                }
+            case JSON:
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    return readJson(reader);
+                }
+            default:
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    return readBinary(channel);
+                }
+        }
+    }
+
+    /**
+     * Writes the stack as CSV.
+     *
+     * @param stack the stack to write
+     * @param writer the destination; flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public static void writeCsv(StackDemo stack, Writer writer) throws IOException {
+        BufferedWriter out = buffered(writer);
+        out.write(CSV_HEADER);
+        out.newLine();
+        out.write(stack.getCapacity() + "," + (stack.size() - 1));
+        out.newLine();
+
+        DoubleFormatter formatter = new DoubleFormatter();
+        DoubleBuffer chunk = DoubleBuffer.allocate(TEXT_CHUNK);
+        int index = 0;
+        while (index < stack.size()) {
+            chunk.clear();
+            index += stack.copyTo(index, chunk);
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                formatter.write(chunk.get(), out);
+                out.newLine();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a stack written by {@link #writeCsv(StackDemo, Writer)}.
+     *
+     * @param reader the source; not closed
+     * @return a new stack with the saved capacity and contents
+     * @throws IOException if reading fails or the data is malformed
+     */
+    public static StackDemo readCsv(Reader reader) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader
+            ? (BufferedReader) reader
+            : new BufferedReader(reader);
+
+        String header = in.readLine();
+        if (header == null || !CSV_HEADER.equals(header.trim())) {
+            throw new IOException("Missing CSV header '" + CSV_HEADER + "'");
+        }
+        String meta = in.readLine();
+        int comma = meta == null ? -1 : meta.indexOf(',');
+        if (comma < 0) {
+            throw new IOException("Missing capacity and top values");
+        }
+        int capacity = parseInt(meta.substring(0, comma).trim(), "capacity");
+        int top = parseInt(meta.substring(comma + 1).trim(), "top");
+        StackDemo stack = newStack(capacity, top);
+
+        // Values are parsed straight out of the character buffer, one line at a time
+        char[] text = new char[TEXT_BUFFER];
+        CharBuffer view = CharBuffer.wrap(text);
+        DoubleBuffer chunk = DoubleBuffer.allocate(TEXT_CHUNK);
+        int lineNumber = 2;
+        int length = 0;
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            int read = in.read(text, length, text.length - length);
+            if (read < 0) {
+                endOfInput = true;
+                // Terminate a last line without a line break
+                if (length == text.length) {
+                    throw new IOException("Line " + (lineNumber + 1) + " is too long");
+                }
+                text[length++] = '\n';
+            } else {
+                length += read;
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (text[i] != '\n') {
+                    continue;
+                }
+                lineNumber++;
+                if (!isBlank(text, lineStart, i)) {
+                    if (!chunk.hasRemaining()) {
+                        pushChunk(stack, chunk, top);
+                    }
+                    try {
+                        chunk.put(DoubleParser.parse(view, lineStart, i));
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Line " + lineNumber + ": invalid value '"
+                            + new String(text, lineStart, i - lineStart).trim() + "'");
+                    }
+                }
+                lineStart = i + 1;
+            }
+
+            // Move the incomplete last line to the front of the buffer
+            if (lineStart == 0 && length == text.length) {
+                throw new IOException("Line " + (lineNumber + 1) + " is too long");
+            }
+            System.arraycopy(text, lineStart, text, 0, length - lineStart);
+            length -= lineStart;
+        }
+        pushChunk(stack, chunk, top);
+        checkComplete(stack, top);
+        return stack;
+    }
+
+    /**
+     * Writes the stack as a JSON object.
+     * NaN and infinite values are written as the strings {@code "NaN"},
+     * {@code "Infinity"} and {@code "-Infinity"}.
+     *
+     * @param stack the stack to write
+     * @param writer the destination; flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public static void writeJson(StackDemo stack, Writer writer) throws IOException {
+        BufferedWriter out = buffered(writer);
+        out.write("{\"capacity\":" + stack.getCapacity()
+            + ",\"top\":" + (stack.size() - 1)
+            + ",\"elements\":[");
+
+        DoubleFormatter formatter = new DoubleFormatter();
+        DoubleBuffer chunk = DoubleBuffer.allocate(TEXT_CHUNK);
+        int index = 0;
+        while (index < stack.size()) {
+            chunk.clear();
+            int first = index;
+            index += stack.copyTo(index, chunk);
+            chunk.flip();
+            for (int i = first; chunk.hasRemaining(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                double value = chunk.get();
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    out.write('"' + Double.toString(value) + '"');
+                } else {
+                    formatter.write(value, out);
+                }
+            }
+        }
+        out.write("]}");
+        out.newLine();
+        out.flush();
+    }
+
+    /**
+     * Reads a stack written by {@link #writeJson(StackDemo, Writer)}.
+     * The keys may appear in any order.
+     *
+     * @param reader the source; not closed
+     * @return a new stack with the saved capacity and contents
+     * @throws IOException if reading fails or the data is malformed
+     */
+    public static StackDemo readJson(Reader reader) throws IOException {
+        JsonCursor json = new JsonCursor(reader);
+
+        Integer capacity = null;
+        Integer top = null;
+        double[] elements = null;
+        int count = 0;
+
+        json.expect('{');
+        boolean more = !json.skipIf('}');
+        while (more) {
+            String key = json.readString();
+            json.expect(':');
+            switch (key) {
+                case "capacity":
+                    capacity = parseInt(json.readToken(), "capacity");
+                    break;
+                case "top":
+                    top = parseInt(json.readToken(), "top");
+                    break;
+                case "elements":
+                    // Grown with the elements actually present, never sized from the metadata
+                    elements = new double[16];
+                    json.expect('[');
+                    boolean moreElements = !json.skipIf(']');
+                    while (moreElements) {
+                        CharSequence token = json.readToken();
+                        if (top != null && count > top) {
+                            throw new IOException("More elements than top " + top + " allows");
+                        }
+                        if (count == elements.length) {
+                            elements = Arrays.copyOf(elements, count * 2);
+                        }
+                        try {
+                            elements[count++] = DoubleParser.parse(token);
+                        } catch (NumberFormatException e) {
+                            throw new IOException("Invalid element '" + token + "'");
+                        }
+                        moreElements = json.next(',', ']');
+                    }
+                    break;
+                default:
+                    throw new IOException("Unknown key '" + key + "'");
+            }
+            more = json.next(',', '}');
+        }
+
+        if (capacity == null || top == null || elements == null) {
+            throw new IOException("JSON must contain capacity, top and elements");
+        }
+        if (count != top + 1) {
+            throw new IOException("Expected " + (top + 1) + " elements but found " + count);
+        }
+        StackDemo stack = newStack(capacity, top);
+        stack.pushAll(DoubleBuffer.wrap(elements, 0, count));
+        return stack;
+    }
+
+    /**
+     * Writes the stack in the raw little-endian binary format.
+     *
+     * @param stack the stack to write
+     * @param channel the destination; not closed
+     * @throws IOException if writing fails
+     */
+    public static void writeBinary(StackDemo stack, WritableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(stack.getCapacity()).putInt(stack.size() - 1).putInt(0);
+        header.flip();
+        writeFully(channel, header);
+
+        ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int index = 0;
+        while (index < stack.size()) {
+            int copied = stack.copyTo(index, chunk.clear().asDoubleBuffer());
+            index += copied;
+            chunk.limit(copied * Double.BYTES);
+            writeFully(channel, chunk);
+        }
+    }
+
+    /**
+     * Reads a stack written by {@link #writeBinary(StackDemo, WritableByteChannel)}.
+     *
+     * @param channel the source; not closed
+     * @return a new stack with the saved capacity and contents
+     * @throws IOException if reading fails or the data is malformed
+     */
+    public static StackDemo readBinary(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a stack file");
+        }
+        int capacity = header.getInt();
+        int top = header.getInt();
+        long remaining = (long) (top + 1) * Double.BYTES;
+        if (channel instanceof SeekableByteChannel) {
+            SeekableByteChannel file = (SeekableByteChannel) channel;
+            if (top >= 0 && remaining > file.size() - file.position()) {
+                throw new IOException("Header declares " + (top + 1) + " elements but the file holds "
+                    + (file.size() - file.position()) / Double.BYTES);
+            }
+        }
+        StackDemo stack = newStack(capacity, top);
+
+        // Element bytes are copied straight from the direct buffer into the stack
+        ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (remaining > 0) {
+            chunk.clear().limit((int) Math.min(CHUNK_BYTES, remaining));
+            readFully(channel, chunk);
+            chunk.flip();
+            remaining -= chunk.remaining();
+            stack.pushAll(chunk.asDoubleBuffer());
+        }
+        return stack;
+    }
+
+    /**
+     * Validates saved metadata and creates the empty target stack.
+     */
+    private static StackDemo newStack(int capacity, int top) throws IOException {
+        if (capacity <= 0) {
+            throw new IOException("Invalid capacity: " + capacity);
+        }
+        if (top < -1 || top >= capacity) {
+            throw new IOException("Invalid top " + top + " for capacity " + capacity);
+        }
+        // A corrupt header must not be able to exhaust the heap
+        if ((long) capacity * Double.BYTES > Runtime.getRuntime().maxMemory()) {
+            throw new IOException("Capacity " + capacity + " does not fit in memory");
+        }
+        return new StackDemo(capacity);
+    }
+
+    /**
+     * Pushes the buffered text values, failing if they go past the saved top.
+     */
+    private static void pushChunk(StackDemo stack, DoubleBuffer chunk, int top) throws IOException {
+        chunk.flip();
+        if (stack.size() + chunk.remaining() > top + 1) {
+            throw new IOException("More elements than top " + top + " allows");
+        }
+        stack.pushAll(chunk);
+        chunk.clear();
+    }
+
+    private static void checkComplete(StackDemo stack, int top) throws IOException {
+        if (stack.size() != top + 1) {
+            throw new IOException("Expected " + (top + 1) + " elements but found " + stack.size());
+        }
+    }
+
+    private static boolean isBlank(char[] text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseInt(CharSequence text, String name) throws IOException {
+        try {
+            return Integer.parseInt(text, 0, text.length(), 10);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid " + name + " '" + text + "'");
+        }
+    }
+
+    private static BufferedWriter buffered(Writer writer) {
+        return writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer);
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of stack file");
+            }
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Minimal streaming tokenizer for the JSON layout written by this class.
+     */
+    private static final class JsonCursor {
+
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder token = new StringBuilder();
+        private int position;
+        private int limit;
+        private int peeked = -2;
+
+        JsonCursor(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the next raw character from the internal buffer, or -1 at the end.
+         */
+        private int nextChar() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+
+        /**
+         * Returns the next non-whitespace character without consuming it, or -1 at the end.
+         */
+        int peek() throws IOException {
+            if (peeked == -2) {
+                int c;
+                do {
+                    c = nextChar();
+                } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+                peeked = c;
+            }
+            return peeked;
+        }
+
+        int read() throws IOException {
+            int c = peek();
+            peeked = -2;
+            return c;
+        }
+
+        /**
+         * Consumes the next character if it matches.
+         *
+         * @return true if the character was consumed
+         */
+        boolean skipIf(char expected) throws IOException {
+            if (peek() == expected) {
+                peeked = -2;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char expected) throws IOException {
+            int c = read();
+            if (c != expected) {
+                throw new IOException("Expected '" + expected + "' but found " + describe(c));
+            }
+        }
+
+        /**
+         * Consumes a separator or a closing character.
+         *
+         * @return true if a separator was read and more values follow
+         */
+        boolean next(char separator, char close) throws IOException {
+            int c = read();
+            if (c == separator) {
+                return true;
+            }
+            if (c == close) {
+                return false;
+            }
+            throw new IOException("Expected '" + separator + "' or '" + close + "' but found " + describe(c));
+        }
+
+        String readString() throws IOException {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = nextChar()) != '"') {
+                if (c < 0 || c == '\\') {
+                    throw new IOException("Unsupported or unterminated string");
+                }
+                sb.append((char) c);
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Reads a number, or a quoted string used for NaN and infinities.
+         * The returned sequence is reused by the next call.
+         */
+        CharSequence readToken() throws IOException {
+            if (peek() == '"') {
+                return readString();
+            }
+            StringBuilder sb = token;
+            sb.setLength(0);
+            int c = read();
+            while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+                sb.append((char) c);
+                c = nextChar();
+            }
+            peeked = c;
+            if (peeked == ' ' || peeked == '\n' || peeked == '\r' || peeked == '\t') {
+                peeked = -2;
+            }
+            if (sb.length() == 0) {
+                throw new IOException("Expected a number but found " + describe(c));
+            }
+            return sb;
+        }
+
+        private static String describe(int c) {
+            return c < 0 ? "end of input" : "'" + (char) c + "'";
+        }
+    }
+}
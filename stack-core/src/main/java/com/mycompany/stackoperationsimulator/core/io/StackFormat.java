@@ -0,0 +1,61 @@
+package com.mycompany.stackoperationsimulator.core.io;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * File formats supported by {@link StackFiles}.
+ */
+public enum StackFormat {
+
+    /**
+     * Text format: a {@code capacity,top} header row, the two values, then
+     * one element per line from bottom to top.
+     */
+    CSV("csv"),
+
+    /**
+     * Text format: {@code {"capacity":N,"top":T,"elements":[...]}} with the
+     * elements from bottom to top.
+     */
+    JSON("json"),
+
+    /**
+     * Raw little-endian format: a 16-byte header (magic, capacity, top,
+     * reserved) followed by the elements as 8-byte doubles, bottom to top.
+     */
+    BINARY("stk");
+
+    private final String extension;
+
+    StackFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the file extension for this format, without the dot.
+     *
+     * @return the file extension
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Picks the format from a file name extension.
+     * Files without a {@code .csv} or {@code .json} extension are treated as binary.
+     *
+     * @param path the file path
+     * @return the matching format
+     */
+    public static StackFormat forPath(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith("." + CSV.extension)) {
+            return CSV;
+        }
+        if (name.endsWith("." + JSON.extension)) {
+            return JSON;
+        }
+        return BINARY;
+    }
+}
@@ -0,0 +1,383 @@
+package com.mycompany.stackoperationsimulator.core.io;
+
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Stack that keeps only the elements near the top in memory and spills the
+ * rest to a file.
+ *
+ * <p>The elements are divided into fixed-size segments. Up to
+ * {@code residentSegments} of them, always the topmost ones, are held in
+ * {@code double[]} buffers; older segments are written to a spill file in
+ * the background when pushes need a new buffer. When pops have drained the
+ * window to half its size, the next segment below is read back in the
+ * background, so that it is usually in memory by the time the window runs
+ * out. Push and pop only wait for I/O when the disk cannot keep up: when all
+ * buffers are still being written, or when a segment is needed before its
+ * prefetch has finished.</p>
+ *
+ * <p>All file access happens on one background thread, in the order the
+ * requests were made, so a segment read never overtakes the write of the
+ * same segment. I/O errors from that thread are rethrown as
+ * {@link UncheckedIOException} by the next operation that touches the disk.
+ * The spill file is deleted by {@link #close()}.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ */
+public class TieredStack implements DoubleStack, AutoCloseable {
+
+    /**
+     * Default number of elements per segment (512 KB).
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 16;
+
+    /**
+     * Default number of segments kept in memory.
+     */
+    public static final int DEFAULT_RESIDENT_SEGMENTS = 8;
+
+    private final int capacity;
+    private final int segmentSize;
+    private final int residentSegments;
+
+    /**
+     * In-memory segments, from the lowest (segment number base) to the top one.
+     */
+    private final ArrayDeque<double[]> resident = new ArrayDeque<>();
+    private int base;
+
+    /**
+     * The top segment and the number of elements in it.
+     */
+    private double[] top;
+    private int topCount;
+
+    private int size;
+
+    // Resident buffers plus one being written and one being prefetched
+    private final BlockingQueue<double[]> freeBuffers;
+    private final int maxBuffers;
+    private int allocatedBuffers;
+
+    private Future<double[]> prefetch;
+    private int prefetchSegment = -1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ExecutorService io;
+    private final ByteBuffer transfer;
+    private volatile IOException failure;
+
+    /**
+     * Creates a stack with the default segment size and window.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @param directory the directory for the spill file
+     * @throws IllegalArgumentException if capacity is less than or equal to zero
+     * @throws IOException if the spill file cannot be created
+     */
+    public TieredStack(int capacity, Path directory) throws IOException {
+        this(capacity, directory, DEFAULT_SEGMENT_SIZE, DEFAULT_RESIDENT_SEGMENTS);
+    }
+
+    /**
+     * Creates a stack.
+     *
+     * @param capacity the maximum number of elements this stack can hold
+     * @param directory the directory for the spill file
+     * @param segmentSize the number of elements per segment
+     * @param residentSegments the number of segments kept in memory, at least 2
+     * @throws IllegalArgumentException if capacity is less than or equal to zero,
+     *         segmentSize is out of range or residentSegments is less than 2
+     * @throws IOException if the spill file cannot be created
+     */
+    public TieredStack(int capacity, Path directory, int segmentSize, int residentSegments) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE / Double.BYTES) {
+            throw new IllegalArgumentException("Segment size must be between 1 and " + Integer.MAX_VALUE / Double.BYTES);
+        }
+        if (residentSegments < 2) {
+            throw new IllegalArgumentException("At least 2 resident segments are required");
+        }
+        this.capacity = capacity;
+        this.segmentSize = segmentSize;
+        this.residentSegments = residentSegments;
+        this.maxBuffers = residentSegments + 2;
+        this.freeBuffers = new ArrayBlockingQueue<>(maxBuffers);
+
+        file = Files.createTempFile(directory, "stack-", ".spill");
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        io = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "stack-spill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Only used on the I/O thread
+        transfer = ByteBuffer.allocateDirect(segmentSize * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        top = takeBuffer();
+        resident.addLast(top);
+    }
+
+    @Override
+    public void push(double element) {
+        if (size == capacity) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        if (topCount == segmentSize) {
+            advance();
+        }
+        top[topCount++] = element;
+        size++;
+    }
+
+    @Override
+    public double pop() {
+        if (size == 0) {
+            throw new IllegalStateException("Stack Underflow");
+        }
+        double element = top[--topCount];
+        size--;
+        if (topCount == 0 && size > 0) {
+            retreat();
+        }
+        return element;
+    }
+
+    @Override
+    public double peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return top[topCount - 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns a copy of all elements, reading the spilled segments from disk.
+     *
+     * @return a new array with the elements from bottom to top
+     * @throws UncheckedIOException if reading the spill file fails
+     */
+    @Override
+    public double[] getElements() {
+        double[] elements = new double[size];
+        int spilled = base;
+        await(io.submit(() -> {
+            for (int segment = 0; segment < spilled; segment++) {
+                readSegment(segment, elements, segment * segmentSize);
+            }
+            return null;
+        }));
+        int offset = base * segmentSize;
+        for (double[] segment : resident) {
+            int count = segment == top ? topCount : segmentSize;
+            System.arraycopy(segment, 0, elements, offset, count);
+            offset += count;
+        }
+        return elements;
+    }
+
+    /**
+     * @return the number of segments currently written out to the spill file
+     */
+    public int getSpilledSegments() {
+        return base;
+    }
+
+    /**
+     * Stops the I/O thread and deletes the spill file.
+     *
+     * @throws IOException if the file cannot be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        io.shutdownNow();
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Starts a new top segment, spilling the lowest one if the window is full.
+     */
+    private void advance() {
+        checkFailure();
+        top = takeBuffer();
+        topCount = 0;
+        resident.addLast(top);
+        if (resident.size() > residentSegments) {
+            double[] lowest = resident.pollFirst();
+            int segment = base++;
+            if (prefetch != null) {
+                // The window moved up, the segment below it is no longer next
+                discardPrefetch();
+            }
+            io.execute(() -> {
+                try {
+                    writeSegment(segment, lowest);
+                } catch (IOException e) {
+                    failure = e;
+                }
+                freeBuffers.add(lowest);
+            });
+        }
+    }
+
+    /**
+     * Drops the empty top segment and makes the one below it the top,
+     * reading it back from disk if needed.
+     */
+    private void retreat() {
+        freeBuffers.add(resident.pollLast());
+        if (resident.isEmpty()) {
+            if (prefetchSegment != base - 1) {
+                startPrefetch(base - 1);
+            }
+            double[] segment = await(prefetch);
+            prefetch = null;
+            prefetchSegment = -1;
+            resident.addFirst(segment);
+            base--;
+        }
+        top = resident.peekLast();
+        topCount = segmentSize;
+
+        // Approaching the bottom of the window: bring in the next segment early
+        if (prefetch == null && base > 0 && resident.size() <= residentSegments / 2) {
+            startPrefetch(base - 1);
+        }
+    }
+
+    private void startPrefetch(int segment) {
+        checkFailure();
+        double[] buffer = takeBuffer();
+        prefetchSegment = segment;
+        prefetch = io.submit(() -> {
+            readSegment(segment, buffer, 0);
+            return buffer;
+        });
+    }
+
+    private void discardPrefetch() {
+        Future<double[]> stale = prefetch;
+        prefetch = null;
+        prefetchSegment = -1;
+        // Runs after the read, the executor keeps submission order
+        io.execute(() -> {
+            try {
+                freeBuffers.add(stale.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                failure = e.getCause() instanceof IOException
+                    ? (IOException) e.getCause()
+                    : new IOException(e.getCause());
+            }
+        });
+    }
+
+    /**
+     * Returns a free buffer, allocating up to the limit and then waiting for
+     * the I/O thread to release one.
+     */
+    private double[] takeBuffer() {
+        double[] buffer = freeBuffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocatedBuffers < maxBuffers) {
+            allocatedBuffers++;
+            return new double[segmentSize];
+        }
+        try {
+            return freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the spill file", e);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the spill file", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void checkFailure() {
+        IOException e = failure;
+        if (e != null) {
+            throw new UncheckedIOException("Spill file failed", e);
+        }
+    }
+
+    private void writeSegment(int segment, double[] source) throws IOException {
+        transfer.clear();
+        transfer.asDoubleBuffer().put(source, 0, segmentSize);
+        long position = (long) segment * segmentSize * Double.BYTES;
+        while (transfer.hasRemaining()) {
+            position += channel.write(transfer, position);
+        }
+    }
+
+    private void readSegment(int segment, double[] target, int offset) throws IOException {
+        transfer.clear();
+        long position = (long) segment * segmentSize * Double.BYTES;
+        while (transfer.hasRemaining()) {
+            int read = channel.read(transfer, position);
+            if (read < 0) {
+                throw new IOException("Spill file truncated at segment " + segment);
+            }
+            position += read;
+        }
+        transfer.flip();
+        transfer.asDoubleBuffer().get(target, offset, segmentSize);
+    }
+}
@@ -0,0 +1,184 @@
+package com.mycompany.stackoperationsimulator.core.memory;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how many bytes a thread allocates on the heap per stack operation.
+ *
+ * <p>The figures come from HotSpot's per-thread allocation counter, read
+ * through {@code com.sun.management.ThreadMXBean.getThreadAllocatedBytes}.
+ * The counter counts every object the thread allocates, whether inside its
+ * allocation buffer or directly in the heap, and is cheap enough to read
+ * around a single push. Allocations the JIT compiler eliminates are not
+ * counted, as they never happen. The cost of reading the counter itself is
+ * measured once and subtracted.</p>
+ *
+ * <p>The counter lives in the {@code jdk.management} module, which this
+ * module only requires statically, so that a headless runtime image can leave
+ * it out. Without it, or on a JVM that does not count allocations,
+ * {@link #isSupported()} is false and every measurement is zero.</p>
+ *
+ * <p>A meter accumulates spans measured with {@link #begin()} and
+ * {@link #end(long)}, or recorded with {@link #record(long, long)} from
+ * another thread's measurement. It is not thread-safe.</p>
+ */
+public final class AllocationMeter {
+
+    private static final boolean MANAGEMENT = ModuleLayer.boot().findModule("jdk.management").isPresent();
+
+    private long start;
+    private long bytes;
+    private long operations;
+    private long lastBytes;
+    private long lastOperations;
+
+    /**
+     * Creates a meter with nothing recorded.
+     */
+    public AllocationMeter() {
+    }
+
+    /**
+     * @return true if allocations can be measured in this JVM
+     */
+    public static boolean isSupported() {
+        return MANAGEMENT && Counter.ENABLED;
+    }
+
+    /**
+     * Returns the number of bytes the current thread has allocated since it
+     * started. Only the difference between two readings is meaningful.
+     *
+     * @return allocated bytes, or 0 if allocations cannot be measured
+     */
+    public static long currentThreadAllocatedBytes() {
+        return isSupported() ? Counter.read() : 0;
+    }
+
+    /**
+     * Starts a span on the current thread.
+     */
+    public void begin() {
+        start = currentThreadAllocatedBytes();
+    }
+
+    /**
+     * Ends the span started by {@link #begin()} on the same thread and adds
+     * it to the totals.
+     *
+     * @param operations the number of operations the span performed
+     * @return bytes allocated in the span
+     */
+    public long end(long operations) {
+        long allocated = isSupported() ? Math.max(0, Counter.read() - start - Counter.OVERHEAD) : 0;
+        record(allocated, operations);
+        return allocated;
+    }
+
+    /**
+     * Adds a span measured elsewhere, for example on a worker thread with
+     * {@link #currentThreadAllocatedBytes()}.
+     *
+     * @param allocated bytes allocated in the span
+     * @param operations the number of operations the span performed
+     */
+    public void record(long allocated, long operations) {
+        bytes += allocated;
+        this.operations += operations;
+        lastBytes = allocated;
+        lastOperations = operations;
+    }
+
+    /**
+     * Clears the totals and the last span.
+     */
+    public void reset() {
+        bytes = 0;
+        operations = 0;
+        lastBytes = 0;
+        lastOperations = 0;
+    }
+
+    /**
+     * @return bytes allocated in all spans
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return operations performed in all spans
+     */
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return average bytes allocated per operation, or 0 before any operation
+     */
+    public double getBytesPerOperation() {
+        return operations == 0 ? 0 : (double) bytes / operations;
+    }
+
+    /**
+     * @return bytes allocated per operation in the last span, or 0 if it had no operations
+     */
+    public double getLastBytesPerOperation() {
+        return lastOperations == 0 ? 0 : (double) lastBytes / lastOperations;
+    }
+
+    @Override
+    public String toString() {
+        return isSupported()
+            ? String.format("%.1f B/op (%d B in %d ops)", getBytesPerOperation(), bytes, operations)
+            : "allocation not measured";
+    }
+
+    /**
+     * Loaded only when jdk.management is present, as its types appear in the
+     * constant pool.
+     */
+    private static final class Counter {
+        private static final com.sun.management.ThreadMXBean THREADS;
+        private static final boolean ENABLED;
+        private static final long OVERHEAD;
+
+        static {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            com.sun.management.ThreadMXBean threads = null;
+            boolean enabled = false;
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                threads = (com.sun.management.ThreadMXBean) bean;
+                try {
+                    if (threads.isThreadAllocatedMemorySupported()) {
+                        threads.setThreadAllocatedMemoryEnabled(true);
+                        enabled = true;
+                    }
+                } catch (UnsupportedOperationException | SecurityException e) {
+                    enabled = false;
+                }
+            }
+            THREADS = threads;
+            ENABLED = enabled;
+            OVERHEAD = enabled ? calibrate() : 0;
+        }
+
+        static long read() {
+            return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        /**
+         * Some JDKs allocate while reading the counter; that cost is taken
+         * as the smallest difference between back-to-back readings.
+         */
+        private static long calibrate() {
+            long smallest = Long.MAX_VALUE;
+            for (int i = 0; i < 16; i++) {
+                long first = read();
+                long second = read();
+                smallest = Math.min(smallest, second - first);
+            }
+            return Math.max(0, smallest);
+        }
+    }
+}
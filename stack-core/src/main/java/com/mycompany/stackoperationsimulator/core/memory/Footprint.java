@@ -0,0 +1,270 @@
+package com.mycompany.stackoperationsimulator.core.memory;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory retained by an object, typically a stack, split into what holds the
+ * elements and what organises them.
+ *
+ * <p>{@link #of(Object)} walks every object reachable from the root through
+ * instance fields and array elements, counting each object once:</p>
+ * <ul>
+ *   <li><em>data</em>: primitive arrays, such as a stack's backing array, its
+ *       aggregate levels or compressed words;</li>
+ *   <li><em>structure</em>: all other objects and reference arrays, such as
+ *       the stack object itself, segment tables and chunk headers;</li>
+ *   <li><em>off-heap</em>: the capacity of direct and mapped byte buffers,
+ *       which live outside the Java heap.</li>
+ * </ul>
+ *
+ * <p>Sizes follow the HotSpot layout with compressed references, the default
+ * for heaps under 32 GB: a 12-byte object header, a 16-byte array header,
+ * 4-byte references and 8-byte alignment. Field padding inside an object is
+ * not modelled, so an object may be a few bytes larger than reported.</p>
+ *
+ * <p>Fields are read only in classes this module may open, that is its own
+ * and the class path. Objects of other modules, such as the JDK, count with
+ * their own size; the elements of their collections and the arrays of their
+ * buffers are still followed through the public API. Classes, class loaders,
+ * threads and enum constants are shared by the whole program and are not
+ * counted. The walk does not synchronise with other threads, so measure a
+ * stack that is not being changed.</p>
+ */
+public final class Footprint {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<Layout>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return new Layout(type);
+        }
+    };
+
+    private final long dataBytes;
+    private final long structureBytes;
+    private final long offHeapBytes;
+    private final int objects;
+
+    private Footprint(long dataBytes, long structureBytes, long offHeapBytes, int objects) {
+        this.dataBytes = dataBytes;
+        this.structureBytes = structureBytes;
+        this.offHeapBytes = offHeapBytes;
+        this.objects = objects;
+    }
+
+    /**
+     * Measures the memory retained by an object.
+     *
+     * @param root the object to measure, usually a stack
+     * @return the footprint of root and everything reachable from it
+     */
+    public static Footprint of(Object root) {
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        ArrayDeque<Object> pending = new ArrayDeque<>();
+        long data = 0;
+        long structure = 0;
+        long offHeap = 0;
+        enqueue(root, visited, pending);
+        while (!pending.isEmpty()) {
+            Object object = pending.poll();
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                Class<?> component = type.getComponentType();
+                long length = Array.getLength(object);
+                if (component.isPrimitive()) {
+                    data += align(ARRAY_HEADER + length * primitiveSize(component));
+                } else {
+                    structure += align(ARRAY_HEADER + length * REFERENCE);
+                    for (Object element : (Object[]) object) {
+                        enqueue(element, visited, pending);
+                    }
+                }
+                continue;
+            }
+
+            Layout layout = LAYOUTS.get(type);
+            structure += layout.size;
+            for (Field field : layout.references) {
+                try {
+                    enqueue(field.get(object), visited, pending);
+                } catch (IllegalAccessException e) {
+                    // Not expected: the field was made accessible with its layout
+                }
+            }
+            if (layout.readable) {
+                continue;
+            }
+            if (object instanceof Buffer) {
+                Buffer buffer = (Buffer) object;
+                if (buffer.isDirect() && object instanceof ByteBuffer) {
+                    offHeap += buffer.capacity();
+                } else if (buffer.hasArray()) {
+                    enqueue(buffer.array(), visited, pending);
+                }
+            } else if (object instanceof Collection) {
+                // The internal table cannot be read, so count one reference per element
+                Collection<?> collection = (Collection<?>) object;
+                try {
+                    structure += align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+                    for (Object element : collection) {
+                        enqueue(element, visited, pending);
+                    }
+                } catch (RuntimeException e) {
+                    // Changed while iterating; the elements seen so far still count
+                }
+            }
+        }
+        return new Footprint(data, structure, offHeap, visited.size());
+    }
+
+    /**
+     * @return bytes of primitive arrays holding elements and their aggregates
+     */
+    public long getDataBytes() {
+        return dataBytes;
+    }
+
+    /**
+     * @return bytes of objects and reference arrays organising the data
+     */
+    public long getStructureBytes() {
+        return structureBytes;
+    }
+
+    /**
+     * @return bytes retained on the Java heap, data plus structure
+     */
+    public long getHeapBytes() {
+        return dataBytes + structureBytes;
+    }
+
+    /**
+     * @return bytes of direct and mapped buffers outside the Java heap
+     */
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * @return all retained bytes, on and off the heap
+     */
+    public long getTotalBytes() {
+        return getHeapBytes() + offHeapBytes;
+    }
+
+    /**
+     * @return the number of objects and arrays counted
+     */
+    public int getObjectCount() {
+        return objects;
+    }
+
+    /**
+     * Formats a byte count with a binary unit, e.g. {@code 7.6 MB}.
+     *
+     * @param bytes the number of bytes
+     * @return the formatted size
+     */
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        int unit = (63 - Long.numberOfLeadingZeros(bytes)) / 10;
+        return String.format("%.1f %sB", bytes / (double) (1L << (10 * unit)), " KMGTPE".charAt(unit));
+    }
+
+    @Override
+    public String toString() {
+        return formatBytes(getTotalBytes()) + " (data " + formatBytes(dataBytes)
+            + ", structure " + formatBytes(structureBytes)
+            + ", off-heap " + formatBytes(offHeapBytes)
+            + ", " + objects + " objects)";
+    }
+
+    private static void enqueue(Object object, Map<Object, Boolean> visited, ArrayDeque<Object> pending) {
+        if (object == null || isShared(object) || visited.put(object, Boolean.TRUE) != null) {
+            return;
+        }
+        pending.add(object);
+    }
+
+    private static boolean isShared(Object object) {
+        return object instanceof Class
+            || object instanceof ClassLoader
+            || object instanceof Thread
+            || object instanceof Enum
+            || object instanceof Module;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * Size and readable reference fields of a class, including inherited ones.
+     */
+    private static final class Layout {
+        final long size;
+        final boolean readable;
+        final Field[] references;
+
+        Layout(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            long bytes = OBJECT_HEADER;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                boolean open = isReadable(c);
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    Class<?> fieldType = field.getType();
+                    bytes += fieldType.isPrimitive() ? primitiveSize(fieldType) : REFERENCE;
+                    if (open && !fieldType.isPrimitive() && field.trySetAccessible()) {
+                        fields.add(field);
+                    }
+                }
+            }
+            this.size = align(bytes);
+            this.readable = isReadable(type);
+            this.references = fields.toArray(new Field[0]);
+        }
+
+        /**
+         * JDK classes are never read, even where an older runtime would still
+         * open them to the class path.
+         */
+        private static boolean isReadable(Class<?> type) {
+            ClassLoader loader = type.getClassLoader();
+            return loader != null
+                && loader != ClassLoader.getPlatformClassLoader()
+                && type.getModule().isOpen(type.getPackageName(), Footprint.class.getModule());
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.mycompany.stackoperationsimulator.core.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Blocking client for a {@link StackServer}.
+ *
+ * <p>The single-request methods send one request and wait for its response,
+ * costing one round trip each. {@link #pipeline()} queues any number of
+ * requests and sends them with one write, so a whole batch costs a single
+ * round trip. Failed stack operations throw {@link IllegalStateException}
+ * with the same message the local engine uses.</p>
+ *
+ * <p>A client is not thread-safe; use one connection per thread.</p>
+ */
+public final class StackClient implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 64 << 10;
+
+    // Requests a pipeline keeps in flight; bounded so that neither side's
+    // socket buffer fills up while the other is still writing
+    private static final int WINDOW = 4096;
+
+    private final SocketChannel channel;
+    private ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES);
+    private ByteBuffer in = ByteBuffer.allocate(BUFFER_BYTES);
+
+    /**
+     * Connects to a server on the loopback interface.
+     *
+     * @param port the server port
+     * @throws IOException if the connection fails
+     */
+    public StackClient(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Connects to a server.
+     *
+     * @param address the server address
+     * @throws IOException if the connection fails
+     */
+    public StackClient(InetSocketAddress address) throws IOException {
+        channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        in.flip();
+    }
+
+    /**
+     * @param element the element to push
+     * @throws IOException if the connection fails
+     * @throws IllegalStateException if the remote stack is full
+     */
+    public void push(double element) throws IOException {
+        ensureOutput(1 + Double.BYTES);
+        out.put(StackProtocol.PUSH).putDouble(element);
+        send();
+        check(readStatus());
+    }
+
+    /**
+     * @return the popped element
+     * @throws IOException if the connection fails
+     * @throws IllegalStateException if the remote stack is empty
+     */
+    public double pop() throws IOException {
+        return valueRequest(StackProtocol.POP);
+    }
+
+    /**
+     * @return the top element
+     * @throws IOException if the connection fails
+     * @throws IllegalStateException if the remote stack is empty
+     */
+    public double peek() throws IOException {
+        return valueRequest(StackProtocol.PEEK);
+    }
+
+    /**
+     * @return the number of elements on the remote stack
+     * @throws IOException if the connection fails
+     */
+    public int size() throws IOException {
+        ensureOutput(1);
+        out.put(StackProtocol.SIZE);
+        send();
+        check(readStatus());
+        return readInt();
+    }
+
+    /**
+     * Pushes {@code length} elements, bottom first, as one request. Either
+     * all elements are pushed or none.
+     *
+     * @param source the elements
+     * @param offset index of the first element to push
+     * @param length number of elements, at most {@link StackProtocol#MAX_BATCH}
+     * @throws IOException if the connection fails
+     * @throws IllegalStateException if the elements do not fit
+     * @throws IndexOutOfBoundsException if the range is outside source
+     */
+    public void pushAll(double[] source, int offset, int length) throws IOException {
+        checkBatch(length);
+        // Checked before writing, so a bad range cannot leave half a request queued
+        Objects.checkFromIndexSize(offset, length, source.length);
+        writePushMany(source, offset, length);
+        send();
+        check(readStatus());
+    }
+
+    /**
+     * Pops up to {@code max} elements as one request.
+     *
+     * @param max largest number of elements to pop, at most {@link StackProtocol#MAX_BATCH}
+     * @param target receives the popped elements, top first
+     * @return the number of elements popped, 0 if the stack was empty
+     * @throws IOException if the connection fails
+     * @throws IllegalArgumentException if max is out of range or target is shorter than max
+     */
+    public int popMany(int max, double[] target) throws IOException {
+        checkBatch(max);
+        if (target.length < max) {
+            // Checked before sending, so a short array cannot leave a response half read
+            throw new IllegalArgumentException("Target holds " + target.length + " elements, fewer than " + max);
+        }
+        ensureOutput(1 + Integer.BYTES);
+        out.put(StackProtocol.POP_MANY).putInt(max);
+        send();
+        check(readStatus());
+        return readDoubles(target, 0);
+    }
+
+    /**
+     * Starts a pipeline of requests on this connection.
+     *
+     * @return an empty pipeline
+     */
+    public Pipeline pipeline() {
+        return new Pipeline();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Requests queued on a client and sent together by {@link #sync()}.
+     *
+     * <p>Requests are queued with {@link #push}, {@link #pop}, {@link #peek}
+     * and {@link #size}; after {@code sync()} the status and result of
+     * request {@code i} are available from {@link #getStatus(int)} and
+     * {@link #getValue(int)}. Failures are reported as statuses rather than
+     * exceptions, so one failed pop does not hide the results after it. A
+     * pipeline can be reused after {@code sync()}. Queued requests share the
+     * client's send buffer, so no other request may be made on the client
+     * between queueing and {@code sync()}.</p>
+     */
+    public final class Pipeline {
+        private byte[] opcodes = new byte[16];
+        private byte[] statuses = new byte[16];
+        private double[] values = new double[16];
+        private int[] ends = new int[16];
+        private int count;
+        private boolean synced;
+
+        private Pipeline() {
+        }
+
+        /**
+         * Queues a push.
+         *
+         * @param element the element to push
+         * @return this pipeline
+         */
+        public Pipeline push(double element) {
+            add(StackProtocol.PUSH, 1 + Double.BYTES).putDouble(element);
+            return this;
+        }
+
+        /**
+         * Queues a pop.
+         *
+         * @return this pipeline
+         */
+        public Pipeline pop() {
+            add(StackProtocol.POP, 1);
+            return this;
+        }
+
+        /**
+         * Queues a peek.
+         *
+         * @return this pipeline
+         */
+        public Pipeline peek() {
+            add(StackProtocol.PEEK, 1);
+            return this;
+        }
+
+        /**
+         * Queues a size request.
+         *
+         * @return this pipeline
+         */
+        public Pipeline size() {
+            add(StackProtocol.SIZE, 1);
+            return this;
+        }
+
+        /**
+         * @return the number of requests queued since the last sync
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Sends all queued requests and reads their responses.
+         *
+         * @throws IOException if the connection fails
+         */
+        public void sync() throws IOException {
+            out.flip();
+            for (int first = 0; first < count; first += WINDOW) {
+                int last = Math.min(first + WINDOW, count);
+                int limit = out.limit();
+                out.limit(ends[last - 1]);
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                out.limit(limit);
+                for (int i = first; i < last; i++) {
+                    byte status = readStatus();
+                    statuses[i] = status;
+                    if (status == StackProtocol.OK && opcodes[i] != StackProtocol.PUSH) {
+                        values[i] = opcodes[i] == StackProtocol.SIZE ? readInt() : readDouble();
+                    }
+                }
+            }
+            out.clear();
+            synced = true;
+        }
+
+        /**
+         * @param index the request index, in queue order
+         * @return the status of that request
+         */
+        public byte getStatus(int index) {
+            checkIndex(index);
+            return statuses[index];
+        }
+
+        /**
+         * @param index the request index, in queue order
+         * @return the popped or peeked element, or the size
+         * @throws IllegalStateException if the request failed
+         */
+        public double getValue(int index) {
+            checkIndex(index);
+            check(statuses[index]);
+            return values[index];
+        }
+
+        private ByteBuffer add(byte opcode, int bytes) {
+            if (synced) {
+                count = 0;
+                synced = false;
+            }
+            if (count == opcodes.length) {
+                opcodes = Arrays.copyOf(opcodes, count * 2);
+                statuses = Arrays.copyOf(statuses, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            ensureOutput(bytes);
+            opcodes[count] = opcode;
+            ends[count++] = out.position() + bytes;
+            return out.put(opcode);
+        }
+
+        private void checkIndex(int index) {
+            if (!synced || index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("No synced request at index " + index);
+            }
+        }
+    }
+
+    private double valueRequest(byte opcode) throws IOException {
+        ensureOutput(1);
+        out.put(opcode);
+        send();
+        check(readStatus());
+        return readDouble();
+    }
+
+    private void writePushMany(double[] source, int offset, int length) {
+        ensureOutput(1 + Integer.BYTES + length * Double.BYTES);
+        out.put(StackProtocol.PUSH_MANY).putInt(length);
+        out.asDoubleBuffer().put(source, offset, length);
+        out.position(out.position() + length * Double.BYTES);
+    }
+
+    private static void checkBatch(int length) {
+        if (length < 0 || length > StackProtocol.MAX_BATCH) {
+            throw new IllegalArgumentException("Batch size must be between 0 and " + StackProtocol.MAX_BATCH);
+        }
+    }
+
+    private static void check(byte status) {
+        if (status != StackProtocol.OK) {
+            throw new IllegalStateException(StackProtocol.message(status));
+        }
+    }
+
+    private void ensureOutput(int bytes) {
+        if (out.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + bytes));
+            out.flip();
+            out = larger.put(out);
+        }
+    }
+
+    private void send() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void fill(int bytes) throws IOException {
+        if (in.remaining() >= bytes) {
+            return;
+        }
+        in.compact();
+        if (in.capacity() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(bytes);
+            in.flip();
+            in = larger.put(in);
+        }
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+        in.flip();
+    }
+
+    private byte readStatus() throws IOException {
+        fill(1);
+        byte status = in.get();
+        if (status == StackProtocol.BAD_REQUEST) {
+            throw new IOException(StackProtocol.message(status));
+        }
+        return status;
+    }
+
+    private int readInt() throws IOException {
+        fill(Integer.BYTES);
+        return in.getInt();
+    }
+
+    private double readDouble() throws IOException {
+        fill(Double.BYTES);
+        return in.getDouble();
+    }
+
+    private int readDoubles(double[] target, int offset) throws IOException {
+        int n = readInt();
+        for (int i = 0; i < n; i += BUFFER_BYTES / Double.BYTES) {
+            int chunk = Math.min(n - i, BUFFER_BYTES / Double.BYTES);
+            fill(chunk * Double.BYTES);
+            in.asDoubleBuffer().get(target, offset + i, chunk);
+            in.position(in.position() + chunk * Double.BYTES);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,95 @@
+package com.mycompany.stackoperationsimulator.core.net;
+
+/**
+ * Wire format shared by {@link StackServer} and {@link StackClient}.
+ *
+ * <p>All values are big-endian. A request is a one-byte opcode followed by
+ * its arguments; a response is a one-byte status followed, on success, by
+ * the result. Responses come back in request order, so a client may send
+ * any number of requests before reading the first response.</p>
+ *
+ * <table>
+ *   <caption>Requests and successful responses</caption>
+ *   <tr><th>Opcode</th><th>Arguments</th><th>Result</th></tr>
+ *   <tr><td>{@link #PUSH}</td><td>double</td><td>none</td></tr>
+ *   <tr><td>{@link #POP}</td><td>none</td><td>double</td></tr>
+ *   <tr><td>{@link #PEEK}</td><td>none</td><td>double</td></tr>
+ *   <tr><td>{@link #SIZE}</td><td>none</td><td>int</td></tr>
+ *   <tr><td>{@link #PUSH_MANY}</td><td>int n, n doubles (bottom first)</td><td>none</td></tr>
+ *   <tr><td>{@link #POP_MANY}</td><td>int max</td><td>int n, n doubles (top first)</td></tr>
+ * </table>
+ *
+ * <p>{@code PUSH_MANY} pushes all elements or none. {@code POP_MANY} pops up
+ * to {@code max} elements and succeeds with {@code n = 0} on an empty stack.
+ * Both accept at most {@link #MAX_BATCH} elements.</p>
+ */
+public final class StackProtocol {
+
+    // Opcodes, see the table above
+
+    public static final byte PUSH = 1;
+    public static final byte POP = 2;
+    public static final byte PEEK = 3;
+    public static final byte SIZE = 4;
+    public static final byte PUSH_MANY = 5;
+    public static final byte POP_MANY = 6;
+
+    /**
+     * The request succeeded and its result follows.
+     */
+    public static final byte OK = 0;
+
+    /**
+     * A push did not fit ("Stack Overflow").
+     */
+    public static final byte OVERFLOW = 1;
+
+    /**
+     * A pop found the stack empty ("Stack Underflow").
+     */
+    public static final byte UNDERFLOW = 2;
+
+    /**
+     * A peek found the stack empty ("Stack is empty").
+     */
+    public static final byte EMPTY = 3;
+
+    /**
+     * The request was malformed; the server closes the connection after this status.
+     */
+    public static final byte BAD_REQUEST = 4;
+
+    /**
+     * Largest element count of a single {@code PUSH_MANY} or {@code POP_MANY}.
+     */
+    public static final int MAX_BATCH = 1 << 16;
+
+    /**
+     * Default TCP port of the server.
+     */
+    public static final int DEFAULT_PORT = 7117;
+
+    private StackProtocol() {
+    }
+
+    /**
+     * Returns the exception message the engine uses for a failure status.
+     *
+     * @param status a status other than {@link #OK}
+     * @return the matching message
+     */
+    public static String message(byte status) {
+        switch (status) {
+            case OVERFLOW:
+                return "Stack Overflow";
+            case UNDERFLOW:
+                return "Stack Underflow";
+            case EMPTY:
+                return "Stack is empty";
+            case BAD_REQUEST:
+                return "Bad request";
+            default:
+                return "Unknown status " + status;
+        }
+    }
+}
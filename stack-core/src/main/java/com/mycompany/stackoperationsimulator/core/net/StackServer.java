@@ -0,0 +1,358 @@
+package com.mycompany.stackoperationsimulator.core.net;
+
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Serves one {@link StackDemo} to clients on the local machine over the
+ * binary {@link StackProtocol}.
+ *
+ * <p>A single thread runs a non-blocking selector loop over all
+ * connections. Each time a connection becomes readable, every complete
+ * request in its input buffer is executed against the stack in one go and
+ * the responses are written back with a single write, so a client that
+ * pipelines many requests pays for one system call per batch rather than
+ * per request. Because only the server thread touches the stack, no
+ * locking is needed; the stack must not be used by other threads while the
+ * server is running.</p>
+ *
+ * <p>When a client does not read its responses, the server stops reading
+ * that client's requests until the pending output has been written.</p>
+ *
+ * <p><strong>Usage:</strong></p>
+ * <pre>
+ * java -cp stack-core.jar com.mycompany.stackoperationsimulator.core.net.StackServer [--port N] [--capacity N]
+ * </pre>
+ */
+public final class StackServer implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 64 << 10;
+
+    // Largest request and response: opcode or status, count, MAX_BATCH doubles
+    private static final int MAX_MESSAGE_BYTES = 1 + Integer.BYTES + StackProtocol.MAX_BATCH * Double.BYTES;
+
+    private final StackDemo stack;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Starts a server on the loopback interface.
+     *
+     * @param stack the stack to serve
+     * @param port the TCP port, or 0 to pick a free one
+     * @throws IOException if the port cannot be opened
+     */
+    public StackServer(StackDemo stack, int port) throws IOException {
+        this.stack = stack;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::serve, "stack-server");
+        thread.start();
+    }
+
+    /**
+     * @return the TCP port the server listens on
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Stops the server and closes all connections.
+     *
+     * @throws IOException if closing a channel fails
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isWritable()) {
+                                connection.flush();
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.read();
+                            }
+                        }
+                    } catch (ClosedSelectorException e) {
+                        throw e;
+                    } catch (IOException | RuntimeException e) {
+                        // The client went away or sent something that broke
+                        // its request handling; drop only this connection
+                        key.channel().close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            running = false;
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    /**
+     * Buffers and request processing of one client.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocate(BUFFER_BYTES);
+        private ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES);
+        private boolean closeAfterFlush;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                channel.close();
+                return;
+            }
+            in.flip();
+            execute();
+            in.compact();
+            if (in.position() == in.capacity() && in.capacity() < MAX_MESSAGE_BYTES) {
+                // A single large PUSH_MANY does not fit yet
+                in = grow(in, MAX_MESSAGE_BYTES);
+            }
+            flush();
+        }
+
+        /**
+         * Executes all complete requests in the input buffer, stopping early
+         * if the output buffer cannot hold another response.
+         */
+        private void execute() {
+            while (in.hasRemaining() && !closeAfterFlush) {
+                int start = in.position();
+                byte opcode = in.get();
+                int needed = requestBytes(opcode);
+                if (needed < 0 || in.remaining() < needed || !reserveOutput(opcode)) {
+                    in.position(start);
+                    return;
+                }
+                apply(opcode);
+            }
+        }
+
+        /**
+         * @return the argument bytes the request needs after its opcode, or -1 if not yet known
+         */
+        private int requestBytes(byte opcode) {
+            switch (opcode) {
+                case StackProtocol.PUSH:
+                    return Double.BYTES;
+                case StackProtocol.POP:
+                case StackProtocol.PEEK:
+                case StackProtocol.SIZE:
+                    return 0;
+                case StackProtocol.POP_MANY:
+                    return Integer.BYTES;
+                case StackProtocol.PUSH_MANY:
+                    if (in.remaining() < Integer.BYTES) {
+                        return -1;
+                    }
+                    int count = in.getInt(in.position());
+                    return count < 0 || count > StackProtocol.MAX_BATCH
+                        ? 0 : Integer.BYTES + count * Double.BYTES;
+                default:
+                    return 0;
+            }
+        }
+
+        private boolean reserveOutput(byte opcode) {
+            int needed = 1 + Integer.BYTES + Double.BYTES;
+            if (opcode == StackProtocol.POP_MANY) {
+                // Only the elements the stack holds now are sent back
+                int max = in.getInt(in.position());
+                int count = Math.min(Math.min(Math.max(max, 0), StackProtocol.MAX_BATCH), stack.size());
+                needed = 1 + Integer.BYTES + count * Double.BYTES;
+            }
+            if (out.remaining() >= needed) {
+                return true;
+            }
+            if (out.position() == 0 && out.capacity() < needed) {
+                out = grow(out, needed);
+                return true;
+            }
+            // Responses already buffered must go out first
+            return false;
+        }
+
+        private void apply(byte opcode) {
+            switch (opcode) {
+                case StackProtocol.PUSH: {
+                    double element = in.getDouble();
+                    if (stack.isFull()) {
+                        out.put(StackProtocol.OVERFLOW);
+                    } else {
+                        stack.push(element);
+                        out.put(StackProtocol.OK);
+                    }
+                    break;
+                }
+                case StackProtocol.POP:
+                    if (stack.isEmpty()) {
+                        out.put(StackProtocol.UNDERFLOW);
+                    } else {
+                        out.put(StackProtocol.OK).putDouble(stack.pop());
+                    }
+                    break;
+                case StackProtocol.PEEK:
+                    if (stack.isEmpty()) {
+                        out.put(StackProtocol.EMPTY);
+                    } else {
+                        out.put(StackProtocol.OK).putDouble(stack.peek());
+                    }
+                    break;
+                case StackProtocol.SIZE:
+                    out.put(StackProtocol.OK).putInt(stack.size());
+                    break;
+                case StackProtocol.PUSH_MANY:
+                    pushMany();
+                    break;
+                case StackProtocol.POP_MANY:
+                    popMany();
+                    break;
+                default:
+                    badRequest();
+                    break;
+            }
+        }
+
+        private void pushMany() {
+            int count = in.getInt();
+            if (count < 0 || count > StackProtocol.MAX_BATCH) {
+                badRequest();
+                return;
+            }
+            int end = in.position() + count * Double.BYTES;
+            if (count > stack.getCapacity() - stack.size()) {
+                out.put(StackProtocol.OVERFLOW);
+            } else {
+                DoubleBuffer elements = in.asDoubleBuffer();
+                elements.limit(count);
+                stack.pushAll(elements);
+                out.put(StackProtocol.OK);
+            }
+            in.position(end);
+        }
+
+        private void popMany() {
+            int max = in.getInt();
+            if (max < 0 || max > StackProtocol.MAX_BATCH) {
+                badRequest();
+                return;
+            }
+            int count = Math.min(max, stack.size());
+            out.put(StackProtocol.OK).putInt(count);
+            for (int i = 0; i < count; i++) {
+                out.putDouble(stack.pop());
+            }
+        }
+
+        private void badRequest() {
+            out.put(StackProtocol.BAD_REQUEST);
+            closeAfterFlush = true;
+        }
+
+        /**
+         * Writes the buffered responses, then executes the requests held back
+         * for lack of output space, as long as the socket takes everything.
+         */
+        void flush() throws IOException {
+            for (;;) {
+                out.flip();
+                channel.write(out);
+                boolean drained = !out.hasRemaining();
+                out.compact();
+                if (drained && closeAfterFlush) {
+                    channel.close();
+                    return;
+                }
+                // Stop reading while responses are backed up
+                key.interestOps(drained ? SelectionKey.OP_READ : SelectionKey.OP_WRITE);
+                if (!drained || in.position() == 0) {
+                    return;
+                }
+                in.flip();
+                execute();
+                in.compact();
+                if (out.position() == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = StackProtocol.DEFAULT_PORT;
+        int capacity = 1 << 20;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[i + 1]);
+            } else if ("--capacity".equals(args[i])) {
+                capacity = Integer.parseInt(args[i + 1]);
+            }
+        }
+        StackServer server = new StackServer(new StackDemo(capacity), port);
+        System.out.println("Serving a stack of capacity " + capacity + " on port " + server.getPort());
+    }
+}
@@ -0,0 +1,144 @@
+package com.mycompany.stackoperationsimulator.core.text;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Fast {@code double} to text conversion with a cache of recent labels.
+ *
+ * <p>Values between 0.001 (inclusive) and 10,000,000 (exclusive) whose shortest
+ * round-trip decimal has at most 16 significant digits are formatted with
+ * integer arithmetic into a caller-supplied {@code char[]}, without allocating.
+ * The output uses the same layout as {@link Double#toString(double)} for that
+ * range (plain notation, at least one fraction digit, e.g. {@code 42.0} or
+ * {@code -12.5}), and always parses back to the same double. All other values
+ * are delegated to {@code Double.toString}.</p>
+ *
+ * <p>{@link #format(double)} memoizes the resulting strings in a small
+ * direct-mapped cache, so refreshing a display whose values have not changed
+ * returns the same {@code String} instances. Instances are not thread-safe;
+ * use one per thread or per view.</p>
+ */
+public final class DoubleFormatter {
+
+    /**
+     * Maximum number of characters written by {@link #format(double, char[], int)}.
+     */
+    public static final int MAX_LENGTH = 32;
+
+    // Number of memoized labels, must be a power of two
+    private static final int CACHE_SIZE = 1024;
+
+    // Powers of ten that are exact doubles, used to scale and verify candidates
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Largest scaled value that is still an exact integer as a double
+    private static final double MAX_EXACT_INTEGER = 0x1p53;
+
+    private final long[] cacheKeys = new long[CACHE_SIZE];
+    private final String[] cacheValues = new String[CACHE_SIZE];
+    private final char[] buffer = new char[MAX_LENGTH];
+
+    /**
+     * Creates a formatter with an empty cache.
+     */
+    public DoubleFormatter() {
+    }
+
+    /**
+     * Returns the text for a value, reusing the cached string when the same
+     * value was formatted recently.
+     *
+     * @param value the value to format
+     * @return the formatted value
+     */
+    public String format(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        int slot = (int) ((bits ^ (bits >>> 32)) * 0x9E3779B9L >>> 22) & (CACHE_SIZE - 1);
+        String cached = cacheValues[slot];
+        if (cached != null && cacheKeys[slot] == bits) {
+            return cached;
+        }
+        String text = new String(buffer, 0, format(value, buffer, 0));
+        cacheKeys[slot] = bits;
+        cacheValues[slot] = text;
+        return text;
+    }
+
+    /**
+     * Writes the text for a value to a writer through the internal buffer.
+     *
+     * @param value the value to format
+     * @param writer the destination
+     * @throws IOException if writing fails
+     */
+    public void write(double value, Writer writer) throws IOException {
+        writer.write(buffer, 0, format(value, buffer, 0));
+    }
+
+    /**
+     * Formats a value into a character array.
+     *
+     * @param value the value to format
+     * @param dest the destination array, with at least {@link #MAX_LENGTH} free characters after offset
+     * @param offset the index of the first character to write
+     * @return the number of characters written
+     */
+    public static int format(double value, char[] dest, int offset) {
+        if (value == 0) {
+            // Keep the sign of negative zero, like Double.toString
+            return copy(Double.doubleToRawLongBits(value) < 0 ? "-0.0" : "0.0", dest, offset);
+        }
+        double magnitude = Math.abs(value);
+        if (magnitude >= 1e-3 && magnitude < 1e7) {
+            // Fewest fraction digits whose integer candidate converts back exactly
+            for (int scale = 0; scale < POWERS_OF_TEN.length; scale++) {
+                double scaled = magnitude * POWERS_OF_TEN[scale];
+                if (scaled >= MAX_EXACT_INTEGER) {
+                    break;
+                }
+                long digits = Math.round(scaled);
+                if (digits / POWERS_OF_TEN[scale] == magnitude) {
+                    return writeFixed(value < 0, digits, scale, dest, offset);
+                }
+            }
+        }
+        return copy(Double.toString(value), dest, offset);
+    }
+
+    /**
+     * Writes digits / 10^scale in plain notation with at least one fraction digit.
+     */
+    private static int writeFixed(boolean negative, long digits, int scale, char[] dest, int offset) {
+        // Build the number backwards into a scratch area at the end of the range
+        int end = offset + MAX_LENGTH;
+        int pos = end;
+        if (scale == 0) {
+            dest[--pos] = '0';
+        }
+        for (int i = 0; i < scale; i++) {
+            dest[--pos] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        dest[--pos] = '.';
+        do {
+            dest[--pos] = (char) ('0' + digits % 10);
+            digits /= 10;
+        } while (digits != 0);
+        if (negative) {
+            dest[--pos] = '-';
+        }
+
+        int length = end - pos;
+        System.arraycopy(dest, pos, dest, offset, length);
+        return length;
+    }
+
+    private static int copy(String text, char[] dest, int offset) {
+        text.getChars(0, text.length(), dest, offset);
+        return text.length();
+    }
+}
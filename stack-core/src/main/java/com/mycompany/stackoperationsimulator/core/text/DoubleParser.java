@@ -0,0 +1,264 @@
+package com.mycompany.stackoperationsimulator.core.text;
+
+import java.math.BigInteger;
+
+/**
+ * Allocation-free parser for decimal {@code double} values.
+ *
+ * <p>Parses directly from any {@link CharSequence} range, so callers can
+ * parse out of a reusable buffer without creating a {@code String} per
+ * value. The result is always identical to {@link Double#parseDouble(String)}:</p>
+ * <ul>
+ *   <li>Plain decimals with up to 19 significant digits are converted with
+ *       Clinger's fast path when the value is exactly representable, and with
+ *       the Eisel-Lemire algorithm otherwise. Neither allocates.</li>
+ *   <li>Everything else (NaN, Infinity, hexadecimal, {@code d}/{@code f}
+ *       suffixes, more than 19 digits, subnormal results, invalid input)
+ *       falls back to {@code Double.parseDouble}, which also produces the
+ *       usual {@link NumberFormatException}.</li>
+ * </ul>
+ *
+ * <p>This class is stateless and safe to use from any thread.</p>
+ */
+public final class DoubleParser {
+
+    // Range of decimal exponents covered by the power-of-five table
+    private static final int SMALLEST_POWER = -342;
+    private static final int LARGEST_POWER = 308;
+
+    // Powers of ten that are exact doubles (Clinger's fast path)
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Largest integer that converts to double exactly
+    private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+    // 128-bit normalized approximations of 5^q, split into high and low words
+    private static final long[] POWER_OF_FIVE_HIGH = new long[LARGEST_POWER - SMALLEST_POWER + 1];
+    private static final long[] POWER_OF_FIVE_LOW = new long[LARGEST_POWER - SMALLEST_POWER + 1];
+
+    static {
+        // Computed once rather than stored as a 1300-entry literal table.
+        // Positive powers are truncated, negative powers (reciprocals) are rounded up.
+        BigInteger five = BigInteger.valueOf(5);
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+            BigInteger value;
+            if (q >= 0) {
+                BigInteger power = five.pow(q);
+                int shift = power.bitLength() - 128;
+                value = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                BigInteger power = five.pow(-q);
+                value = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power).add(BigInteger.ONE);
+            }
+            POWER_OF_FIVE_HIGH[q - SMALLEST_POWER] = value.shiftRight(64).longValue();
+            POWER_OF_FIVE_LOW[q - SMALLEST_POWER] = value.and(mask).longValue();
+        }
+    }
+
+    private DoubleParser() {
+    }
+
+    /**
+     * Parses the whole character sequence.
+     *
+     * @param text the text to parse; leading and trailing whitespace is ignored
+     * @return the parsed value, identical to {@code Double.parseDouble(text.toString())}
+     * @throws NumberFormatException if the text is not a valid number
+     */
+    public static double parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses a range of the character sequence.
+     *
+     * @param text the text to parse
+     * @param start index of the first character, inclusive
+     * @param end index of the last character, exclusive
+     * @return the parsed value, identical to {@code Double.parseDouble} on the same characters
+     * @throws NumberFormatException if the range is not a valid number
+     */
+    public static double parse(CharSequence text, int start, int end) {
+        int from = start;
+        int to = end;
+        // Same whitespace rule as Double.parseDouble (String.trim)
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+
+        int i = from;
+        boolean negative = false;
+        if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+
+        // Integer part; leading zeros are not significant
+        while (i < to) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            anyDigit = true;
+            if (mantissa != 0 || digit != 0) {
+                if (++significantDigits > 19) {
+                    return fallback(text, start, end);
+                }
+                mantissa = mantissa * 10 + digit;
+            }
+            i++;
+        }
+
+        // Fraction part; every digit shifts the decimal exponent
+        if (i < to && text.charAt(i) == '.') {
+            i++;
+            while (i < to) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                anyDigit = true;
+                if (mantissa != 0 || digit != 0) {
+                    if (++significantDigits > 19) {
+                        return fallback(text, start, end);
+                    }
+                    mantissa = mantissa * 10 + digit;
+                }
+                exponent--;
+                i++;
+            }
+        }
+        if (!anyDigit) {
+            return fallback(text, start, end);
+        }
+
+        // Exponent part
+        if (i < to && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                negativeExponent = text.charAt(i) == '-';
+                i++;
+            }
+            int digitsStart = i;
+            int explicitExponent = 0;
+            while (i < to) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                // Saturate, anything this large is zero or infinity anyway
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + digit;
+                }
+                i++;
+            }
+            if (i == digitsStart) {
+                return fallback(text, start, end);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        // Suffixes such as 'd' or 'f', or trailing garbage
+        if (i != to) {
+            return fallback(text, start, end);
+        }
+
+        double value = toDouble(mantissa, exponent);
+        if (Double.isNaN(value)) {
+            return fallback(text, start, end);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Converts mantissa * 10^exponent to the nearest double.
+     *
+     * @return the value, or NaN if this case needs the slow path
+     */
+    private static double toDouble(long mantissa, int exponent) {
+        if (mantissa == 0) {
+            return 0.0;
+        }
+
+        // Clinger's fast path: both operands exact, so one IEEE operation rounds correctly
+        // (19-digit mantissas can exceed Long.MAX_VALUE and are treated as unsigned)
+        if (exponent >= -22 && exponent <= 22 && mantissa >= 0 && mantissa <= MAX_EXACT_INTEGER) {
+            double value = mantissa;
+            return exponent < 0
+                ? value / EXACT_POWERS_OF_TEN[-exponent]
+                : value * EXACT_POWERS_OF_TEN[exponent];
+        }
+        if (exponent < SMALLEST_POWER) {
+            return Double.NaN;
+        }
+        if (exponent > LARGEST_POWER) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        // Eisel-Lemire: multiply the normalized mantissa by a 128-bit power of five
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        long w = mantissa << leadingZeros;
+        int index = exponent - SMALLEST_POWER;
+
+        long low = w * POWER_OF_FIVE_HIGH[index];
+        long high = unsignedMultiplyHigh(w, POWER_OF_FIVE_HIGH[index]);
+        if ((high & 0x1FF) == 0x1FF) {
+            // Not enough precision in the first product, include the low word
+            long secondHigh = unsignedMultiplyHigh(w, POWER_OF_FIVE_LOW[index]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) {
+                high++;
+            }
+        }
+        if (low == -1L && (exponent < -27 || exponent > 55)) {
+            // Result may be off by one; leave it to the slow path
+            return Double.NaN;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        long bits = high >>> (upperBit + 9);
+        int power2 = (((152170 + 65536) * exponent) >> 16) + 63 + upperBit - leadingZeros + 1023;
+        if (power2 <= 0) {
+            // Subnormal result
+            return Double.NaN;
+        }
+
+        // Round half to even when the product is exactly halfway
+        if (Long.compareUnsigned(low, 1) <= 0 && exponent >= -4 && exponent <= 23 && (bits & 3) == 1
+                && (bits << (upperBit + 9)) == high) {
+            bits &= ~1L;
+        }
+        bits += bits & 1;
+        bits >>>= 1;
+        if (bits >= (2L << 52)) {
+            bits = 1L << 52;
+            power2++;
+        }
+        bits &= ~(1L << 52);
+        if (power2 >= 0x7FF) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Double.longBitsToDouble(bits | ((long) power2 << 52));
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    private static double fallback(CharSequence text, int start, int end) {
+        return Double.parseDouble(text.subSequence(start, end).toString());
+    }
+}
@@ -0,0 +1,127 @@
+package com.mycompany.stackoperationsimulator.core.text;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Integer-only text conversion for fixed-point values.
+ *
+ * <p>A fixed-point value is a {@code long} count of units of
+ * 10<sup>-scale</sup>: with scale 2, {@code 1230} is {@code 12.30}. The text
+ * always has exactly {@code scale} fraction digits and no exponent, and is
+ * produced by integer division alone, so it never shows binary rounding
+ * artefacts and costs a few nanoseconds per digit.</p>
+ *
+ * <p>Like {@link DoubleFormatter}, {@link #format(long)} memoizes recent
+ * strings in a small direct-mapped cache. Instances are not thread-safe;
+ * use one per thread or per view.</p>
+ */
+public final class FixedPointFormatter {
+
+    /**
+     * Largest supported scale: 10<sup>18</sup> is the largest power of ten in a {@code long}.
+     */
+    public static final int MAX_SCALE = 18;
+
+    /**
+     * Maximum number of characters written by {@link #format(long, int, char[], int)}:
+     * sign, 19 digits, decimal point and a leading zero.
+     */
+    public static final int MAX_LENGTH = 22;
+
+    // Number of memoized labels, must be a power of two
+    private static final int CACHE_SIZE = 1024;
+
+    private final int scale;
+    private final long[] cacheKeys = new long[CACHE_SIZE];
+    private final String[] cacheValues = new String[CACHE_SIZE];
+    private final char[] buffer = new char[MAX_LENGTH];
+
+    /**
+     * Creates a formatter for one scale.
+     *
+     * @param scale the number of fraction digits, 0 to {@link #MAX_SCALE}
+     * @throws IllegalArgumentException if the scale is out of range
+     */
+    public FixedPointFormatter(int scale) {
+        this.scale = checkScale(scale);
+    }
+
+    /**
+     * @return the number of fraction digits
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns the text for a value, reusing the cached string when the same
+     * value was formatted recently.
+     *
+     * @param unscaled the value in units of 10^-scale
+     * @return the formatted value
+     */
+    public String format(long unscaled) {
+        int slot = (int) ((unscaled ^ (unscaled >>> 32)) * 0x9E3779B9L >>> 22) & (CACHE_SIZE - 1);
+        String cached = cacheValues[slot];
+        if (cached != null && cacheKeys[slot] == unscaled) {
+            return cached;
+        }
+        String text = new String(buffer, 0, format(unscaled, scale, buffer, 0));
+        cacheKeys[slot] = unscaled;
+        cacheValues[slot] = text;
+        return text;
+    }
+
+    /**
+     * Writes the text for a value to a writer through the internal buffer.
+     *
+     * @param unscaled the value in units of 10^-scale
+     * @param writer the destination
+     * @throws IOException if writing fails
+     */
+    public void write(long unscaled, Writer writer) throws IOException {
+        writer.write(buffer, 0, format(unscaled, scale, buffer, 0));
+    }
+
+    /**
+     * Formats a value into a character array.
+     *
+     * @param unscaled the value in units of 10^-scale
+     * @param scale the number of fraction digits, 0 to {@link #MAX_SCALE}
+     * @param dest the destination array, with at least {@link #MAX_LENGTH} free characters after offset
+     * @param offset the index of the first character to write
+     * @return the number of characters written
+     */
+    public static int format(long unscaled, int scale, char[] dest, int offset) {
+        // Digits are taken from the non-positive value, so Long.MIN_VALUE needs no special case
+        long rest = unscaled > 0 ? -unscaled : unscaled;
+        int end = offset + MAX_LENGTH;
+        int pos = end;
+        for (int i = 0; i < scale; i++) {
+            dest[--pos] = (char) ('0' - rest % 10);
+            rest /= 10;
+        }
+        if (scale > 0) {
+            dest[--pos] = '.';
+        }
+        do {
+            dest[--pos] = (char) ('0' - rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        if (unscaled < 0) {
+            dest[--pos] = '-';
+        }
+
+        int length = end - pos;
+        System.arraycopy(dest, pos, dest, offset, length);
+        return length;
+    }
+
+    static int checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE);
+        }
+        return scale;
+    }
+}
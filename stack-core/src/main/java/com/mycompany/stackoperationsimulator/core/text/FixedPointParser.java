@@ -0,0 +1,122 @@
+package com.mycompany.stackoperationsimulator.core.text;
+
+/**
+ * Exact parser for fixed-point decimal values.
+ *
+ * <p>Accepts an optional sign, digits, and an optional decimal point followed
+ * by more digits ({@code 12}, {@code -0.05}, {@code +3.}, {@code .5}),
+ * with surrounding whitespace ignored. The result is the value as a
+ * {@code long} count of units of 10<sup>-scale</sup>, computed with integer
+ * arithmetic only, so {@code "0.10"} at scale 2 is exactly {@code 10}.
+ * Fraction digits beyond the scale must be zeros: a value that cannot be
+ * represented is rejected instead of rounded. Exponents, NaN and Infinity
+ * are not accepted.</p>
+ *
+ * <p>This class is stateless and safe to use from any thread.</p>
+ */
+public final class FixedPointParser {
+
+    private FixedPointParser() {
+    }
+
+    /**
+     * Parses a whole string.
+     *
+     * @param text the text to parse
+     * @param scale the number of fraction digits, 0 to {@link FixedPointFormatter#MAX_SCALE}
+     * @return the value in units of 10^-scale
+     * @throws NumberFormatException if the text is not a decimal, has
+     *         non-zero digits beyond the scale, or is out of range
+     * @throws IllegalArgumentException if the scale is out of range
+     */
+    public static long parse(CharSequence text, int scale) {
+        return parse(text, 0, text.length(), scale);
+    }
+
+    /**
+     * Parses the characters from start (inclusive) to end (exclusive).
+     *
+     * @param text the text containing the value
+     * @param start index of the first character
+     * @param end index after the last character
+     * @param scale the number of fraction digits, 0 to {@link FixedPointFormatter#MAX_SCALE}
+     * @return the value in units of 10^-scale
+     * @throws NumberFormatException if the range is not a decimal, has
+     *         non-zero digits beyond the scale, or is out of range
+     * @throws IllegalArgumentException if the scale is out of range
+     */
+    public static long parse(CharSequence text, int start, int end, int scale) {
+        FixedPointFormatter.checkScale(scale);
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        // Accumulated as a negative number so that Long.MIN_VALUE parses
+        long value = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw invalid(text, start, end);
+            }
+            digits++;
+            if (fractionDigits >= 0) {
+                if (fractionDigits == scale) {
+                    if (c != '0') {
+                        throw new NumberFormatException("More than " + scale + " decimal places: "
+                            + text.subSequence(start, end));
+                    }
+                    continue;
+                }
+                fractionDigits++;
+            }
+            value = appendDigit(value, c - '0', text, start, end);
+        }
+        if (digits == 0) {
+            throw invalid(text, start, end);
+        }
+        for (int f = Math.max(fractionDigits, 0); f < scale; f++) {
+            value = appendDigit(value, 0, text, start, end);
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw outOfRange(text, start, end);
+            }
+            value = -value;
+        }
+        return value;
+    }
+
+    private static long appendDigit(long value, int digit, CharSequence text, int start, int end) {
+        if (value < Long.MIN_VALUE / 10) {
+            throw outOfRange(text, start, end);
+        }
+        long shifted = value * 10;
+        if (shifted < Long.MIN_VALUE + digit) {
+            throw outOfRange(text, start, end);
+        }
+        return shifted - digit;
+    }
+
+    private static NumberFormatException invalid(CharSequence text, int start, int end) {
+        return new NumberFormatException("Invalid decimal: " + text.subSequence(start, end));
+    }
+
+    private static NumberFormatException outOfRange(CharSequence text, int start, int end) {
+        return new NumberFormatException("Out of fixed-point range: " + text.subSequence(start, end));
+    }
+}
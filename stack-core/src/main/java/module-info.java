@@ -0,0 +1,12 @@
+module com.mycompany.stackoperationsimulator.core {
+    // Only AllocationMeter uses it, and only when present; a headless image can leave it out
+    requires static jdk.management;
+
+    exports com.mycompany.stackoperationsimulator.core;
+    exports com.mycompany.stackoperationsimulator.core.concurrent;
+    exports com.mycompany.stackoperationsimulator.core.event;
+    exports com.mycompany.stackoperationsimulator.core.io;
+    exports com.mycompany.stackoperationsimulator.core.memory;
+    exports com.mycompany.stackoperationsimulator.core.net;
+    exports com.mycompany.stackoperationsimulator.core.text;
+}
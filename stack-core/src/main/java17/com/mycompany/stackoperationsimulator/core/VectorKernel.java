@@ -0,0 +1,133 @@
+package com.mycompany.stackoperationsimulator.core;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of {@link AnalyticsKernel}.
+ *
+ * <p>Processes the array in chunks of the widest vector the CPU supports and
+ * finishes the remaining elements with scalar code. Loaded reflectively by
+ * {@link StackAnalytics} only when {@code jdk.incubator.vector} is resolved.</p>
+ */
+final class VectorKernel implements AnalyticsKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public double sum(double[] array, int length) {
+        // Lane-wise accumulation, reduced once at the end
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            sums = sums.add(DoubleVector.fromArray(SPECIES, array, i));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += array[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(double[] array, int length) {
+        // MIN follows Math.min, so NaN and negative zero behave like the scalar kernel
+        DoubleVector mins = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            mins = mins.min(DoubleVector.fromArray(SPECIES, array, i));
+        }
+        double min = mins.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++) {
+            min = Math.min(min, array[i]);
+        }
+        return min;
+    }
+
+    @Override
+    public double max(double[] array, int length) {
+        DoubleVector maxs = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            maxs = maxs.max(DoubleVector.fromArray(SPECIES, array, i));
+        }
+        double max = maxs.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            max = Math.max(max, array[i]);
+        }
+        return max;
+    }
+
+    @Override
+    public int countPositive(double[] array, int length) {
+        int count = 0;
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            count += DoubleVector.fromArray(SPECIES, array, i).compare(VectorOperators.GT, 0.0).trueCount();
+        }
+        for (; i < length; i++) {
+            if (array[i] > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countNegative(double[] array, int length) {
+        int count = 0;
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            count += DoubleVector.fromArray(SPECIES, array, i).compare(VectorOperators.LT, 0.0).trueCount();
+        }
+        for (; i < length; i++) {
+            if (array[i] < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int indexOf(double[] array, int length, double value) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            VectorMask<Double> matches = DoubleVector.fromArray(SPECIES, array, i).compare(VectorOperators.EQ, value);
+            if (matches.anyTrue()) {
+                return i + matches.firstTrue();
+            }
+        }
+        for (; i < length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(double[] array, int length, double value) {
+        // Scalar tail first, it holds the highest indexes
+        int bound = SPECIES.loopBound(length);
+        for (int i = length - 1; i >= bound; i--) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        for (int i = bound - SPECIES.length(); i >= 0; i -= SPECIES.length()) {
+            VectorMask<Double> matches = DoubleVector.fromArray(SPECIES, array, i).compare(VectorOperators.EQ, value);
+            if (matches.anyTrue()) {
+                return i + matches.lastTrue();
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,1580 @@
+package com.mycompany.stackoperationsimulator;
+
+import com.mycompany.stackoperationsimulator.core.AggregateStack;
+import com.mycompany.stackoperationsimulator.core.FixedPointStack;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.event.ObservableStack;
+import com.mycompany.stackoperationsimulator.core.event.StackChanges;
+import com.mycompany.stackoperationsimulator.core.event.StackHistory;
+import com.mycompany.stackoperationsimulator.core.memory.AllocationMeter;
+import com.mycompany.stackoperationsimulator.core.memory.Footprint;
+import com.mycompany.stackoperationsimulator.core.text.DoubleFormatter;
+import com.mycompany.stackoperationsimulator.core.text.DoubleParser;
+import com.mycompany.stackoperationsimulator.core.text.FixedPointFormatter;
+import com.mycompany.stackoperationsimulator.core.text.FixedPointParser;
+import java.io.File;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Flow;
+import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Separator;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+/**
+ * Stack Operation Simulator - JavaFX Application
+ *
+ * <p>This application provides a visual, interactive demonstration of stack
+ * data structure operations following LIFO (Last-In-First-Out) principles.</p>
+ *
+ * <p>Features include push, pop, peek, size, isEmpty operations with proper
+ * overflow and underflow handling, all visualized in real-time.</p>
+ */
+public class App extends Application {
+
+    // Rows drawn in the visualization; larger stacks show their top elements only
+    private static final int MAX_VISIBLE_ROWS = 20;
+
+    // Operations kept by the timeline
+    private static final int HISTORY_CAPACITY = 10_000_000;
+
+    // Stack instance (tracks min, max, sum and mean for the information panel)
+    private AggregateStack stack;
+
+    // All changes go through this wrapper, which publishes them to the display
+    private ObservableStack changes;
+
+    // Sequence number of the last change shown on screen
+    private long displayedSequence;
+
+    // Set while a console command changes the stack on a background thread
+    private volatile boolean consoleRunning;
+
+    // Size and top value after every operation, drawn by the timeline
+    private StackHistory history;
+
+    // Root layout, kept so that deferred panels can be attached later
+    private BorderPane root;
+
+    // Formats element values; caches the labels of values on screen
+    private final DoubleFormatter formatter = new DoubleFormatter();
+
+    // With -Dstack.scale=N, input is read and every value shown as a decimal with N fraction digits
+    private final int scale = Integer.getInteger("stack.scale", -1);
+    private final FixedPointFormatter decimals =
+        scale >= 0 && scale <= FixedPointFormatter.MAX_SCALE ? new FixedPointFormatter(scale) : null;
+
+    // UI Components
+    private VBox controlPanel;
+    private TextField inputField;
+    private VBox stackVisualization;
+    private Label statusLabel;
+
+    // Buttons for dynamic enable/disable
+    private Button pushButton;
+    private Button popButton;
+    private Button peekButton;
+
+    // Information panel components
+    private Label maxSizeLabel;
+    private Label currentSizeLabel;
+    private Label footprintLabel;
+    private Label allocationLabel;
+    private Label isEmptyLabel;
+    private Label isFullLabel;
+    private Label minLabel;
+    private Label maxLabel;
+    private Label sumLabel;
+    private Label meanLabel;
+
+    // Timeline components and their reusable column buffers
+    private Canvas timelineCanvas;
+    private CheckBox timelineTopCheckBox;
+    private Label timelineLabel;
+    private int[] sizeMin = new int[0];
+    private int[] sizeMax = new int[0];
+    private double[] topMin = new double[0];
+    private double[] topMax = new double[0];
+
+    // Command console components
+    private TextField commandField;
+    private Label commandResultLabel;
+
+    // Status bar components
+    private Label lastOperationLabel;
+
+    // Capacity display components
+    private Label capacityDisplayLabel;
+    private ProgressBar capacityProgressBar;
+
+    // Stack capacity (configurable)
+    private int stackCapacity = 12;
+
+    // Initial data for stack (optional)
+    private double[] initialData = null;
+
+    // Heap bytes allocated by stack operations from the buttons and the console
+    private final AllocationMeter allocations = new AllocationMeter();
+
+    // Session recording and replay
+    private SessionLog recording;
+    private long recordingStart;
+    private SessionReplayer replayer;
+    private Alert replayAlert;
+    private Button recordButton;
+    private Button replayButton;
+    private ComboBox<String> replaySpeedBox;
+
+    // Time spent bringing the display up to date with the stack
+    private long refreshNanos;
+    private long refreshCount;
+
+    /**
+     * Default constructor - initializes with default capacity of 12.
+     */
+    public App() {
+        this.stackCapacity = 12;
+    }
+
+    /**
+     * Constructor that accepts capacity parameter.
+     *
+     * @param capacity the maximum number of elements the stack can hold
+     */
+    public App(int capacity) {
+        this.stackCapacity = capacity;
+    }
+
+    @Override
+    public void start(Stage stage) {
+        // Initialize stack
+        stack = new AggregateStack(stackCapacity);
+
+        // Push initial data if provided
+        if (initialData != null) {
+            for (double value : initialData) {
+                try {
+                    stack.push(value);
+                } catch (IllegalStateException e) {
+                    // Stop if stack becomes full
+                    break;
+                }
+            }
+        }
+
+        // The display starts from the current contents and then follows the changes
+        changes = new ObservableStack(stack);
+        displayedSequence = changes.getSequence();
+        history = new StackHistory(changes, HISTORY_CAPACITY, true);
+
+        // Initialize UI
+        initializeUI(stage);
+
+        changes.subscribe(new DisplaySubscriber());
+    }
+
+    @Override
+    public void stop() {
+        if (changes != null) {
+            changes.close();
+        }
+    }
+
+    /**
+     * Initializes all UI components and displays the stage.
+     *
+     * @param stage the primary stage for this application
+     */
+    private void initializeUI(Stage stage) {
+        // Stage configuration
+        stage.setTitle("Stack Operation Simulator");
+        stage.setMinWidth(900);
+        stage.setMinHeight(600);
+
+        // Create root layout
+        root = new BorderPane();
+
+        // Create and configure left side (controls)
+        controlPanel = createControlPanel();
+        root.setLeft(controlPanel);
+
+        // Create center layout (separator and visualization)
+        root.setCenter(createCenterLayout());
+
+        // Initial display update
+        updateStackDisplay();
+        updateButtonStates();
+
+        // Create and set scene
+        Scene scene = new Scene(root, 1000, 650);
+
+        // Load external CSS stylesheet
+        String css = getClass().getResource("styles.css").toExternalForm();
+        scene.getStylesheets().add(css);
+
+        StartupTimer.trackFirstFrame(scene, "simulator");
+
+        stage.setScene(scene);
+        stage.show();
+
+        // Build the information panel and status bar after the first frame.
+        // The runnable is queued before any input event can reach this window,
+        // so the panels always exist by the time a handler runs.
+        Platform.runLater(this::createSecondaryPanels);
+    }
+
+    /**
+     * Creates the information panel and the status bar and adds them to the
+     * root layout. These panels are not needed for the first frame, so their
+     * construction is deferred until after the stage is shown.
+     */
+    private void createSecondaryPanels() {
+        if (statusLabel != null) {
+            return;
+        }
+
+        // Create and configure right side (information panel)
+        VBox infoPanel = createInformationPanel();
+        root.setRight(infoPanel);
+
+        // Create and configure bottom (timeline above the status bar)
+        HBox statusBar = createStatusBar();
+        root.setBottom(new VBox(createTimeline(), statusBar));
+
+        // Command console goes below the operation buttons
+        controlPanel.getChildren().addAll(createCommandConsole());
+
+        updateInformationPanel();
+        drawTimeline();
+
+        // Scripted replay, for measuring a recorded session from the command line
+        String session = System.getProperty("stack.replay");
+        if (session != null) {
+            String speed = System.getProperty("stack.replay.speed", "1");
+            Platform.runLater(() -> startReplay(Paths.get(session), parseSpeed(speed), true));
+        }
+    }
+
+    /**
+     * Creates the timeline of the stack size (and top value) over the
+     * operations so far.
+     *
+     * @return VBox with a header row and the canvas
+     */
+    private VBox createTimeline() {
+        VBox timeline = new VBox(5);
+        timeline.setPadding(new Insets(5, 10, 5, 10));
+
+        Label timelineHeader = new Label("Size over operations");
+        timelineHeader.getStyleClass().add("status-bar-label");
+
+        timelineTopCheckBox = new CheckBox("Top value");
+        timelineTopCheckBox.setOnAction(e -> drawTimeline());
+
+        timelineLabel = new Label("");
+        timelineLabel.getStyleClass().add("status-bar-value");
+
+        HBox header = new HBox(20, timelineHeader, timelineTopCheckBox, timelineLabel);
+        header.setAlignment(Pos.CENTER_LEFT);
+
+        // The canvas follows the width of its pane and is redrawn on resize
+        Pane canvasPane = new Pane();
+        canvasPane.setPrefHeight(80);
+        timelineCanvas = new Canvas(0, 80);
+        timelineCanvas.widthProperty().bind(canvasPane.widthProperty());
+        timelineCanvas.widthProperty().addListener((obs, oldWidth, newWidth) -> drawTimeline());
+        canvasPane.getChildren().add(timelineCanvas);
+
+        timeline.getChildren().addAll(header, canvasPane);
+        return timeline;
+    }
+
+    /**
+     * Draws the timeline from the history, reduced to the minimum and maximum
+     * of each pixel column, so the cost depends on the history length only
+     * through one linear scan.
+     */
+    private void drawTimeline() {
+        // Timeline has not been built yet
+        if (timelineCanvas == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        double width = timelineCanvas.getWidth();
+        double height = timelineCanvas.getHeight();
+        GraphicsContext graphics = timelineCanvas.getGraphicsContext2D();
+        graphics.clearRect(0, 0, width, height);
+
+        int columns = (int) width;
+        if (columns <= 0) {
+            return;
+        }
+        if (sizeMin.length < columns) {
+            sizeMin = new int[columns];
+            sizeMax = new int[columns];
+            topMin = new double[columns];
+            topMax = new double[columns];
+        }
+
+        // Sizes, scaled to the capacity
+        int filled = history.downsampleSizes(columns, sizeMin, sizeMax);
+        double columnWidth = width / filled;
+        graphics.setFill(Color.web("#42A5F5"));
+        for (int c = 0; c < filled; c++) {
+            double top = height - height * sizeMax[c] / stackCapacity;
+            double bottom = height - height * sizeMin[c] / stackCapacity;
+            graphics.fillRect(c * columnWidth, top, Math.max(columnWidth, 1), Math.max(bottom - top, 1));
+        }
+
+        // Top values, scaled to their own range
+        if (timelineTopCheckBox.isSelected()) {
+            int topFilled = history.downsampleTops(columns, topMin, topMax);
+            double low = Double.POSITIVE_INFINITY;
+            double high = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < topFilled; c++) {
+                // NaN columns (empty stack) fail both comparisons
+                if (topMin[c] < low) {
+                    low = topMin[c];
+                }
+                if (topMax[c] > high) {
+                    high = topMax[c];
+                }
+            }
+            double range = high > low ? high - low : 1;
+            graphics.setFill(Color.web("#FF7043"));
+            for (int c = 0; c < topFilled; c++) {
+                if (Double.isNaN(topMin[c])) {
+                    continue;
+                }
+                double top = height - height * (topMax[c] - low) / range;
+                double bottom = height - height * (topMin[c] - low) / range;
+                graphics.fillRect(c * columnWidth, top, Math.max(columnWidth, 1), Math.max(bottom - top, 1));
+            }
+        }
+
+        long micros = (System.nanoTime() - start) / 1000;
+        timelineLabel.setText("Operations: " + (history.getCount() - 1) + " | Showing: " + history.getRetained()
+            + " | Drawn in " + micros + " us");
+    }
+
+    /**
+     * Creates the command console for bulk operations.
+     *
+     * @return the console components, in layout order
+     */
+    private Region[] createCommandConsole() {
+        Separator separator = new Separator();
+
+        Label commandLabel = new Label("Command:");
+        commandLabel.getStyleClass().add("input-label");
+
+        commandField = new TextField();
+        commandField.setPromptText("push 1..1000 step 0.5");
+        commandField.setPrefWidth(120);
+        commandField.setOnAction(e -> handleRunCommand());
+
+        Button runButton = new Button("Run");
+        runButton.setPrefWidth(120);
+        runButton.getStyleClass().add("secondary-button");
+        runButton.setOnAction(e -> handleRunCommand());
+
+        commandResultLabel = new Label("");
+        commandResultLabel.getStyleClass().add("info-label");
+        commandResultLabel.setWrapText(true);
+        commandResultLabel.setMaxWidth(120);
+
+        return new Region[] {separator, commandLabel, commandField, runButton, commandResultLabel};
+    }
+
+    /**
+     * Creates the control panel with input field and operation buttons.
+     *
+     * @return VBox containing all control components
+     */
+    private VBox createControlPanel() {
+        VBox controls = new VBox(10);
+        controls.setPadding(new Insets(20));
+        controls.setAlignment(Pos.TOP_CENTER);
+        controls.getStyleClass().add("control-panel");
+
+        // Label for input
+        Label inputLabel = new Label("Enter Value:");
+        inputLabel.getStyleClass().add("input-label");
+
+        // TextField for numeric input
+        inputField = new TextField();
+        inputField.setPromptText("Enter number");
+        inputField.setPrefWidth(120);
+
+        // Create buttons with CSS styling
+        pushButton = new Button("Push");
+        pushButton.setPrefWidth(120);
+        pushButton.getStyleClass().add("primary-button");
+        pushButton.setOnAction(e -> handlePush());
+
+        popButton = new Button("Pop");
+        popButton.setPrefWidth(120);
+        popButton.getStyleClass().add("primary-button");
+        popButton.setOnAction(e -> handlePop());
+
+        peekButton = new Button("Peek");
+        peekButton.setPrefWidth(120);
+        peekButton.getStyleClass().add("primary-button");
+        peekButton.setOnAction(e -> handlePeek());
+
+        Button sizeButton = new Button("Size");
+        sizeButton.setPrefWidth(120);
+        sizeButton.getStyleClass().add("secondary-button");
+        sizeButton.setOnAction(e -> handleSize());
+
+        Button isEmptyButton = new Button("Is Empty");
+        isEmptyButton.setPrefWidth(120);
+        isEmptyButton.getStyleClass().add("secondary-button");
+        isEmptyButton.setOnAction(e -> handleIsEmpty());
+
+        Button clearButton = new Button("Clear Stack");
+        clearButton.setPrefWidth(120);
+        clearButton.getStyleClass().add("clear-button");
+        clearButton.setOnAction(e -> handleClear());
+
+        // Add all components to controls VBox
+        controls.getChildren().addAll(
+            inputLabel,
+            inputField,
+            pushButton,
+            popButton,
+            peekButton,
+            sizeButton,
+            isEmptyButton,
+            clearButton
+        );
+
+        return controls;
+    }
+
+    /**
+     * Creates the center layout with separator and visualization panel.
+     *
+     * @return HBox containing separator and visualization
+     */
+    private HBox createCenterLayout() {
+        HBox centerLayout = new HBox();
+
+        // Create separator
+        Region separator = new Region();
+        separator.getStyleClass().add("separator");
+        separator.setPrefWidth(2);
+
+        // Create visualization panel
+        stackVisualization = createVisualizationPanel();
+
+        centerLayout.getChildren().addAll(separator, stackVisualization);
+        HBox.setHgrow(stackVisualization, Priority.ALWAYS);
+
+        return centerLayout;
+    }
+
+    /**
+     * Creates the visualization panel for displaying stack elements.
+     *
+     * @return VBox configured for stack visualization
+     */
+    private VBox createVisualizationPanel() {
+        VBox visualization = new VBox(5);
+        visualization.setAlignment(Pos.BOTTOM_CENTER);
+        visualization.setPadding(new Insets(20));
+        visualization.getStyleClass().add("visualization-panel");
+
+        return visualization;
+    }
+
+    /**
+     * Creates the status label for displaying operation messages.
+     *
+     * @return Label configured for status messages
+     */
+    private Label createStatusLabel() {
+        Label label = new Label("Ready");
+        label.getStyleClass().add("status-label");
+        label.setAlignment(Pos.CENTER);
+        label.setMaxWidth(Double.MAX_VALUE);
+
+        return label;
+    }
+
+    /**
+     * Creates the information panel for the right side of the screen.
+     *
+     * @return VBox containing stack information and operation descriptions
+     */
+    private VBox createInformationPanel() {
+        VBox infoPanel = new VBox(15);
+        infoPanel.setPadding(new Insets(20));
+        infoPanel.setPrefWidth(250);
+        infoPanel.getStyleClass().add("info-panel");
+
+        // Stack Information Section
+        Label infoHeader = new Label("Stack Information");
+        infoHeader.getStyleClass().add("info-header");
+
+        Separator separator1 = new Separator();
+
+        maxSizeLabel = new Label("Maximum Size: " + stackCapacity);
+        maxSizeLabel.getStyleClass().add("info-label");
+
+        currentSizeLabel = new Label("Current Size: 0");
+        currentSizeLabel.getStyleClass().add("info-label");
+
+        footprintLabel = new Label("Footprint: -");
+        footprintLabel.getStyleClass().add("info-label");
+        footprintLabel.setTooltip(new Tooltip());
+
+        allocationLabel = new Label("Allocation: -");
+        allocationLabel.getStyleClass().add("info-label");
+
+        isEmptyLabel = new Label("Is Empty: Yes");
+        isEmptyLabel.getStyleClass().add("info-label");
+
+        isFullLabel = new Label("Is Full: No");
+        isFullLabel.getStyleClass().add("info-label");
+
+        minLabel = new Label("Min Value: -");
+        minLabel.getStyleClass().add("info-label");
+
+        maxLabel = new Label("Max Value: -");
+        maxLabel.getStyleClass().add("info-label");
+
+        sumLabel = new Label("Sum: 0.0");
+        sumLabel.getStyleClass().add("info-label");
+
+        meanLabel = new Label("Mean: -");
+        meanLabel.getStyleClass().add("info-label");
+
+        // Operation Descriptions Section
+        Label opsHeader = new Label("Stack Operations:");
+        opsHeader.getStyleClass().add("info-header");
+
+        Separator separator2 = new Separator();
+
+        TextArea opsDescription = new TextArea(
+            "Push: Adds an element to the top of the stack\n\n" +
+            "Pop: Removes and returns the element at the top of the stack\n\n" +
+            "Peek: Returns the top element without removing it\n\n" +
+            "LIFO Principle:\n" +
+            "Last-In-First-Out"
+        );
+        opsDescription.setEditable(false);
+        opsDescription.setWrapText(true);
+        opsDescription.setPrefHeight(300);
+        opsDescription.getStyleClass().add("ops-description");
+
+        infoPanel.getChildren().addAll(
+            infoHeader,
+            separator1,
+            maxSizeLabel,
+            currentSizeLabel,
+            footprintLabel,
+            allocationLabel,
+            isEmptyLabel,
+            isFullLabel,
+            minLabel,
+            maxLabel,
+            sumLabel,
+            meanLabel,
+            opsHeader,
+            separator2,
+            opsDescription
+        );
+
+        return infoPanel;
+    }
+
+    /**
+     * Creates the status bar at the bottom of the screen.
+     *
+     * @return HBox containing status bar components
+     */
+    private HBox createStatusBar() {
+        HBox statusBar = new HBox(20);
+        statusBar.setPadding(new Insets(10));
+        statusBar.setAlignment(Pos.CENTER_LEFT);
+        statusBar.getStyleClass().add("status-bar");
+
+        // Add separator line above status bar
+        VBox statusContainer = new VBox();
+        Separator separator = new Separator();
+
+        Label lastOpLabel = new Label("Last Operation:");
+        lastOpLabel.getStyleClass().add("status-bar-label");
+
+        lastOperationLabel = new Label("");
+        lastOperationLabel.getStyleClass().add("status-bar-value");
+
+        // Create and initialize statusLabel
+        statusLabel = createStatusLabel();
+
+        // Add a spacer region to push status label to the right
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        // Session controls
+        recordButton = new Button("Record");
+        recordButton.getStyleClass().add("secondary-button");
+        recordButton.setOnAction(e -> handleRecord());
+
+        replaySpeedBox = new ComboBox<>();
+        replaySpeedBox.getItems().addAll("1x", "4x", "16x", "Max");
+        replaySpeedBox.setValue("1x");
+
+        replayButton = new Button("Replay...");
+        replayButton.getStyleClass().add("secondary-button");
+        replayButton.setOnAction(e -> handleReplay());
+
+        statusBar.getChildren().addAll(lastOpLabel, lastOperationLabel, spacer, statusLabel,
+            recordButton, replaySpeedBox, replayButton);
+
+        statusContainer.getChildren().addAll(separator, statusBar);
+
+        // Return the container with separator and status bar
+        return statusBar;
+    }
+
+    /**
+     * Updates the information panel with current stack state.
+     */
+    private void updateInformationPanel() {
+        // Information panel has not been built yet
+        if (currentSizeLabel == null) {
+            return;
+        }
+
+        int size = stack.size();
+        boolean isEmpty = stack.isEmpty();
+        boolean isFull = stack.isFull();
+
+        currentSizeLabel.setText("Current Size: " + size);
+        isEmptyLabel.setText("Is Empty: " + (isEmpty ? "Yes" : "No"));
+        isFullLabel.setText("Is Full: " + (isFull ? "Yes" : "No"));
+
+        // Aggregates are maintained by the stack, so these reads are O(1)
+        minLabel.setText("Min Value: " + (isEmpty ? "-" : format(stack.getMin())));
+        maxLabel.setText("Max Value: " + (isEmpty ? "-" : format(stack.getMax())));
+        sumLabel.setText("Sum: " + format(stack.getSum()));
+        meanLabel.setText("Mean: " + (isEmpty ? "-" : format(stack.getMean())));
+
+        // A walk over a handful of objects; the element arrays are sized, not scanned
+        Footprint footprint = Footprint.of(stack);
+        footprintLabel.setText("Footprint: " + Footprint.formatBytes(footprint.getTotalBytes()));
+        footprintLabel.getTooltip().setText(
+            "Data arrays: " + Footprint.formatBytes(footprint.getDataBytes()) + "\n" +
+            "Structure: " + Footprint.formatBytes(footprint.getStructureBytes()) + "\n" +
+            "Off-heap: " + Footprint.formatBytes(footprint.getOffHeapBytes()) + "\n" +
+            "Objects: " + footprint.getObjectCount());
+        updateAllocationLabel();
+    }
+
+    /**
+     * Formats a value for display: as a decimal with the configured number
+     * of fraction digits through integer arithmetic, or as a double.
+     */
+    private String format(double value) {
+        if (decimals != null) {
+            try {
+                return decimals.format(FixedPointStack.toUnscaled(value, scale));
+            } catch (ArithmeticException e) {
+                // Not finite or beyond the fixed-point range
+            }
+        }
+        return formatter.format(value);
+    }
+
+    /**
+     * Shows the heap allocation of the last operation and the average so far.
+     */
+    private void updateAllocationLabel() {
+        if (allocationLabel == null) {
+            return;
+        }
+        if (!AllocationMeter.isSupported()) {
+            allocationLabel.setText("Allocation: not measured");
+            return;
+        }
+        allocationLabel.setText(String.format("Allocation: %.1f B/op (avg %.1f)",
+            allocations.getLastBytesPerOperation(), allocations.getBytesPerOperation()));
+    }
+
+    /**
+     * Handles the Push button action.
+     * Validates input, pushes value to stack, and updates display.
+     */
+    private void handlePush() {
+        String input = inputField.getText();
+        record(SessionLog.Action.PUSH, input);
+
+        // Validate input is not empty or whitespace only
+        if (input == null || input.trim().isEmpty()) {
+            showAlert(AlertType.WARNING, "Invalid Input", "Input field is empty. Please enter a numeric value.");
+            setStatusText("Invalid input. Enter numbers only.", "red");
+            return;
+        }
+
+        try {
+            // Parse input to double (surrounding whitespace is ignored)
+            double value = decimals == null
+                ? DoubleParser.parse(input)
+                : (double) FixedPointParser.parse(input, scale) / FixedPointStack.unit(scale);
+
+            // Push to stack
+            allocations.begin();
+            changes.push(value);
+            allocations.end(1);
+
+            // Update status and display
+            String text = format(value);
+            setStatusText("Pushed: " + text, "green");
+            lastOperationLabel.setText("Pushed: " + text + " | Stack Size: " + stack.size());
+            lastOperationLabel.getStyleClass().removeAll("status-success", "status-error", "status-info");
+            lastOperationLabel.getStyleClass().add("status-success");
+
+            inputField.clear();
+
+            // Animate the update
+            PauseTransition pause = new PauseTransition(Duration.millis(100));
+            pause.setOnFinished(e -> flushChanges());
+            pause.play();
+
+        } catch (NumberFormatException e) {
+            showAlert(AlertType.WARNING, "Invalid Input", "Please enter a valid numeric value.");
+            setStatusText("Invalid input. Enter numbers only.", "red");
+        } catch (IllegalStateException e) {
+            showAlert(AlertType.ERROR, "Stack Overflow", e.getMessage());
+            setStatusText(e.getMessage(), "red");
+        }
+    }
+
+    /**
+     * Handles the Pop button action.
+     * Removes top element from stack and updates display.
+     */
+    private void handlePop() {
+        record(SessionLog.Action.POP, null);
+        try {
+            allocations.begin();
+            double value = changes.pop();
+            allocations.end(1);
+            String text = format(value);
+            setStatusText("Popped: " + text, "green");
+            lastOperationLabel.setText("Popped: " + text + " | Stack Size: " + stack.size());
+            lastOperationLabel.getStyleClass().removeAll("status-success", "status-error", "status-info");
+            lastOperationLabel.getStyleClass().add("status-success");
+
+            // Animate the fade out effect
+            PauseTransition pause = new PauseTransition(Duration.millis(300));
+            pause.setOnFinished(e -> flushChanges());
+            pause.play();
+        } catch (IllegalStateException e) {
+            showAlert(AlertType.ERROR, "Stack Underflow", e.getMessage());
+            setStatusText(e.getMessage(), "red");
+        }
+    }
+
+    /**
+     * Handles the Peek button action.
+     * Displays top element without removing it.
+     */
+    private void handlePeek() {
+        record(SessionLog.Action.PEEK, null);
+        try {
+            allocations.begin();
+            double value = stack.peek();
+            allocations.end(1);
+            updateAllocationLabel();
+            String text = format(value);
+            setStatusText("Top element: " + text, "blue");
+            lastOperationLabel.setText("Peek: " + text + " | No change");
+            lastOperationLabel.getStyleClass().removeAll("status-success", "status-error", "status-info");
+            lastOperationLabel.getStyleClass().add("status-info");
+        } catch (IllegalStateException e) {
+            showAlert(AlertType.ERROR, "Stack Empty", e.getMessage());
+            setStatusText(e.getMessage(), "red");
+        }
+    }
+
+    /**
+     * Handles the Size button action.
+     * Displays current number of elements in stack.
+     */
+    private void handleSize() {
+        record(SessionLog.Action.SIZE, null);
+        int size = stack.size();
+        setStatusText("Stack size: " + size, "blue");
+        lastOperationLabel.setText("Size: " + size + " | No change");
+        lastOperationLabel.getStyleClass().removeAll("status-success", "status-error", "status-info", "status-warning");
+        lastOperationLabel.getStyleClass().add("status-info");
+    }
+
+    /**
+     * Handles the Is Empty button action.
+     * Checks and displays if stack is empty.
+     */
+    private void handleIsEmpty() {
+        record(SessionLog.Action.IS_EMPTY, null);
+        boolean empty = stack.isEmpty();
+        setStatusText("Stack is empty: " + empty, "blue");
+        lastOperationLabel.setText("Is Empty: " + (empty ? "Yes" : "No") + " | No change");
+        lastOperationLabel.getStyleClass().removeAll("status-success", "status-error", "status-info", "status-warning");
+        lastOperationLabel.getStyleClass().add("status-info");
+    }
+
+    /**
+     * Handles the Clear button action.
+     * Empties the stack and updates display.
+     */
+    private void handleClear() {
+        record(SessionLog.Action.CLEAR, null);
+        allocations.begin();
+        changes.clear();
+        allocations.end(1);
+        changes.flush();
+        setStatusText("Stack cleared", "orange");
+        lastOperationLabel.setText("Stack cleared | Stack Size: 0");
+        lastOperationLabel.getStyleClass().removeAll("status-success", "status-error", "status-info");
+        lastOperationLabel.getStyleClass().add("status-warning");
+    }
+
+    /**
+     * Handles the console's Run button and Enter key.
+     * Parses the command line, then runs it on a background thread with the
+     * controls disabled. The display is refreshed once when it finishes.
+     */
+    private void handleRunCommand() {
+        String line = commandField.getText();
+        List<BatchCommand> commands;
+        try {
+            commands = BatchCommand.parseAll(line == null ? "" : line);
+        } catch (IllegalArgumentException e) {
+            record(SessionLog.Action.COMMAND, line);
+            setStatusText(e.getMessage(), "red");
+            return;
+        }
+        // The parsed form carries the seed a random command picked, so a replay pushes the same values
+        record(SessionLog.Action.COMMAND, BatchCommand.format(commands));
+
+        // Set before the flush, so the display skips the pending changes too and
+        // never reads the stack while the command is changing it
+        consoleRunning = true;
+        // Changes still waiting for their animation are published first
+        changes.flush();
+        controlPanel.setDisable(true);
+        setStatusText("Running: " + line, "blue");
+
+        Thread worker = new Thread(() -> {
+            long start = System.nanoTime();
+            long allocatedBefore = AllocationMeter.currentThreadAllocatedBytes();
+            long elements = 0;
+            String error = null;
+            try {
+                for (BatchCommand command : commands) {
+                    elements += command.execute(changes);
+                }
+            } catch (IllegalStateException | IOException e) {
+                error = e.getMessage();
+            }
+            changes.flush();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            long allocated = AllocationMeter.currentThreadAllocatedBytes() - allocatedBefore;
+            long sequence = changes.getSequence();
+            long done = elements;
+            String failure = error;
+            Platform.runLater(() -> finishCommand(line, done, millis, allocated, sequence, failure));
+        }, "stack-console");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Shows the result of a console command and refreshes the display once.
+     *
+     * @param line the command line that ran
+     * @param elements number of elements pushed, popped or removed
+     * @param millis run time in milliseconds
+     * @param allocated heap bytes the command allocated on the console thread
+     * @param sequence sequence number of the last change the command made
+     * @param error the failure message, or null if every command succeeded
+     */
+    private void finishCommand(String line, long elements, long millis, long allocated, long sequence,
+                               String error) {
+        consoleRunning = false;
+        allocations.record(allocated, elements);
+        displayedSequence = Math.max(displayedSequence, sequence);
+        controlPanel.setDisable(replayer != null);
+
+        long start = System.nanoTime();
+        updateStackDisplay();
+        updateButtonStates();
+        updateInformationPanel();
+        drawTimeline();
+        recordRefresh(start);
+
+        commandResultLabel.setText(elements + " elements in " + millis + " ms");
+        lastOperationLabel.getStyleClass().removeAll("status-success", "status-error", "status-info", "status-warning");
+        if (error == null) {
+            setStatusText("Done: " + line, "green");
+            lastOperationLabel.setText("Command: " + line + " | Stack Size: " + stack.size());
+            lastOperationLabel.getStyleClass().add("status-success");
+            commandField.clear();
+        } else {
+            showAlert(AlertType.ERROR, "Command Failed", error);
+            setStatusText(error, "red");
+            lastOperationLabel.setText("Command failed: " + error + " | Stack Size: " + stack.size());
+            lastOperationLabel.getStyleClass().add("status-error");
+        }
+    }
+
+    /**
+     * Publishes pending changes to the display, unless a console command
+     * currently owns the stack.
+     */
+    private void flushChanges() {
+        if (!consoleRunning) {
+            changes.flush();
+        }
+    }
+
+    /**
+     * Receives the stack's change batches and applies them on the JavaFX
+     * thread. The next batch is requested only once the previous one is on
+     * screen, so a fast producer is held back instead of flooding the event
+     * queue.
+     */
+    private final class DisplaySubscriber implements Flow.Subscriber<StackChanges> {
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(StackChanges batch) {
+            // Recorded before the display hears of the batch, so every later draw includes it
+            history.onNext(batch);
+            if (consoleRunning) {
+                // The console refreshes everything once it finishes
+                subscription.request(1);
+                return;
+            }
+            Platform.runLater(() -> {
+                // A command may have started since; it refreshes everything when it finishes
+                if (!consoleRunning) {
+                    long start = System.nanoTime();
+                    applyChanges(batch);
+                    recordRefresh(start);
+                }
+                subscription.request(1);
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            Platform.runLater(() -> setStatusText("Display stopped: " + throwable.getMessage(), "red"));
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    /**
+     * Applies a batch of changes to the visualization row by row, then
+     * refreshes the capacity indicator, buttons and information panel once.
+     *
+     * @param batch the changes, in order
+     */
+    private void applyChanges(StackChanges batch) {
+        if (stackCapacity > MAX_VISIBLE_ROWS) {
+            // Only a window of rows is shown; rebuilding it is cheaper than replaying the batch
+            if (batch.getLastSequence() > displayedSequence) {
+                displayedSequence = batch.getLastSequence();
+                updateStackDisplay();
+                updateButtonStates();
+                updateInformationPanel();
+            }
+            drawTimeline();
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.getFirstSequence() + i <= displayedSequence) {
+                continue;
+            }
+            int size = batch.getSizeAfter(i);
+            switch (batch.getKind(i)) {
+                case StackChanges.PUSH:
+                    // Children: capacity section, element rows (top first), empty rows
+                    stackVisualization.getChildren().remove(size);
+                    if (size > 1) {
+                        setTopIndicator((HBox) stackVisualization.getChildren().get(1), false);
+                    }
+                    stackVisualization.getChildren().add(1, createElementRow(size - 1, batch.getValue(i), true));
+                    break;
+                case StackChanges.POP:
+                    stackVisualization.getChildren().remove(1);
+                    stackVisualization.getChildren().add(1 + size, createEmptyRow());
+                    if (size > 0) {
+                        setTopIndicator((HBox) stackVisualization.getChildren().get(1), true);
+                    }
+                    break;
+                default:
+                    for (int row = 0; row < (int) batch.getValue(i); row++) {
+                        stackVisualization.getChildren().remove(1);
+                        stackVisualization.getChildren().add(createEmptyRow());
+                    }
+                    break;
+            }
+        }
+        displayedSequence = Math.max(displayedSequence, batch.getLastSequence());
+        updateCapacityIndicator(stack.size());
+        updateButtonStates();
+        updateInformationPanel();
+        drawTimeline();
+    }
+
+    /**
+     * Updates the visual representation of the stack.
+     * Displays current elements, empty slots, and capacity indicator.
+     * Uses value-based color coding: green for positive, red for negative, blue for zero.
+     * Rebuilds every row; afterwards the rows follow the stack's changes (see applyChanges).
+     * Stacks with more than MAX_VISIBLE_ROWS slots show their top elements and
+     * a count of the rows left out.
+     */
+    private void updateStackDisplay() {
+        // Clear current display
+        stackVisualization.getChildren().clear();
+
+        // Add capacity indicator with progress bar
+        VBox capacitySection = new VBox(5);
+        capacitySection.setAlignment(Pos.CENTER);
+
+        capacityDisplayLabel = new Label();
+        capacityDisplayLabel.getStyleClass().add("capacity-display-label");
+
+        capacityProgressBar = new ProgressBar();
+        capacityProgressBar.setPrefWidth(250);
+        capacityProgressBar.setPrefHeight(20);
+
+        int currentSize = stack.size();
+        updateCapacityIndicator(currentSize);
+
+        capacitySection.getChildren().addAll(capacityDisplayLabel, capacityProgressBar);
+        stackVisualization.getChildren().add(capacitySection);
+
+        // Get the topmost stack elements
+        int visible = Math.min(currentSize, MAX_VISIBLE_ROWS);
+        double[] elements = new double[visible];
+        stack.copyTo(currentSize - visible, DoubleBuffer.wrap(elements));
+
+        // Display stack elements (from top to bottom visually)
+        for (int i = visible - 1; i >= 0; i--) {
+            int index = currentSize - visible + i;
+            stackVisualization.getChildren().add(createElementRow(index, elements[i], i == visible - 1));
+        }
+        if (currentSize > visible) {
+            stackVisualization.getChildren().add(createSummaryRow((currentSize - visible) + " more elements below"));
+        }
+
+        // Add empty slots visualization
+        int emptySlots = stackCapacity - currentSize;
+        int visibleEmpty = Math.min(emptySlots, MAX_VISIBLE_ROWS - visible);
+        for (int i = 0; i < visibleEmpty; i++) {
+            stackVisualization.getChildren().add(createEmptyRow());
+        }
+        if (emptySlots > visibleEmpty) {
+            stackVisualization.getChildren().add(createSummaryRow((emptySlots - visibleEmpty) + " more empty slots"));
+        }
+    }
+
+    /**
+     * Creates the row standing in for rows that are not drawn.
+     *
+     * @param text what the row stands for
+     * @return HBox with a centered label
+     */
+    private HBox createSummaryRow(String text) {
+        HBox rowBox = new HBox();
+        rowBox.setAlignment(Pos.CENTER);
+
+        Label summaryLabel = new Label("... " + text);
+        summaryLabel.getStyleClass().add("empty-text-label");
+
+        rowBox.getChildren().add(summaryLabel);
+        return rowBox;
+    }
+
+    /**
+     * Updates the capacity label and progress bar for the given stack size.
+     *
+     * @param currentSize the number of elements on the stack
+     */
+    private void updateCapacityIndicator(int currentSize) {
+        double fillPercentage = (double) currentSize / stackCapacity;
+
+        capacityDisplayLabel.setText("Capacity: " + stackCapacity + " | Used: " + currentSize);
+        capacityProgressBar.setProgress(fillPercentage);
+
+        // Set progress bar color based on fill percentage
+        if (fillPercentage < 0.7) {
+            capacityProgressBar.setStyle("-fx-accent: #66BB6A;"); // Green
+        } else if (fillPercentage < 0.9) {
+            capacityProgressBar.setStyle("-fx-accent: #FDD835;"); // Yellow
+        } else {
+            capacityProgressBar.setStyle("-fx-accent: #EF5350;"); // Red
+        }
+    }
+
+    /**
+     * Creates the row showing one stack element.
+     *
+     * @param index the element's stack index (0 is the bottom)
+     * @param value the element
+     * @param top whether the element is the top of the stack
+     * @return HBox with index label, element box and top indicator
+     */
+    private HBox createElementRow(int index, double value, boolean top) {
+        HBox rowBox = new HBox(10);
+        rowBox.setAlignment(Pos.CENTER);
+
+        // Add index label on the left
+        Label indexLabel = new Label("[" + index + "]");
+        indexLabel.getStyleClass().add("index-label");
+        indexLabel.setPrefWidth(40);
+
+        // Create element box
+        HBox elementBox = new HBox();
+        elementBox.setAlignment(Pos.CENTER);
+        elementBox.setPadding(new Insets(15));
+        elementBox.setPrefHeight(60);
+        elementBox.setPrefWidth(200);
+
+        // Apply CSS class based on value (positive, negative, or zero)
+        if (value > 0) {
+            elementBox.getStyleClass().add("stack-element-positive");
+        } else if (value < 0) {
+            elementBox.getStyleClass().add("stack-element-negative");
+        } else {
+            elementBox.getStyleClass().add("stack-element-zero");
+        }
+
+        Label valueLabel = new Label(format(value));
+        valueLabel.getStyleClass().add("stack-value-label");
+
+        elementBox.getChildren().add(valueLabel);
+
+        // Add TOP indicator for topmost element on the right
+        Label topIndicator = new Label("");
+        topIndicator.setPrefWidth(60);
+
+        rowBox.getChildren().addAll(indexLabel, elementBox, topIndicator);
+        setTopIndicator(rowBox, top);
+        return rowBox;
+    }
+
+    /**
+     * Shows or hides the TOP indicator of an element row.
+     *
+     * @param rowBox a row created by createElementRow
+     * @param top whether the row's element is the top of the stack
+     */
+    private void setTopIndicator(HBox rowBox, boolean top) {
+        Label topIndicator = (Label) rowBox.getChildren().get(2);
+        if (top) {
+            topIndicator.setText("← TOP");
+            topIndicator.getStyleClass().add("top-indicator");
+        } else {
+            topIndicator.setText("");
+            topIndicator.getStyleClass().remove("top-indicator");
+        }
+    }
+
+    /**
+     * Creates the row showing one unused slot.
+     *
+     * @return HBox with an empty slot box
+     */
+    private HBox createEmptyRow() {
+        HBox rowBox = new HBox(10);
+        rowBox.setAlignment(Pos.CENTER);
+
+        // Empty index label
+        Label emptyIndexLabel = new Label("");
+        emptyIndexLabel.setPrefWidth(40);
+
+        // Create empty slot box
+        VBox emptyBox = new VBox(2);
+        emptyBox.setAlignment(Pos.CENTER);
+        emptyBox.setPadding(new Insets(15));
+        emptyBox.setPrefHeight(60);
+        emptyBox.setPrefWidth(200);
+        emptyBox.getStyleClass().add("empty-slot");
+
+        Label emptyLabel = new Label("---");
+        emptyLabel.getStyleClass().add("empty-slot-label");
+
+        Label emptyTextLabel = new Label("(empty)");
+        emptyTextLabel.getStyleClass().add("empty-text-label");
+
+        emptyBox.getChildren().addAll(emptyLabel, emptyTextLabel);
+
+        // Empty space on right
+        Label emptySpace = new Label("");
+        emptySpace.setPrefWidth(60);
+
+        rowBox.getChildren().addAll(emptyIndexLabel, emptyBox, emptySpace);
+        return rowBox;
+    }
+
+    /**
+     * Updates button enabled/disabled states based on current stack state.
+     * Disables Push button when stack is full.
+     * Disables Pop and Peek buttons when stack is empty.
+     */
+    private void updateButtonStates() {
+        // Disable Push button when stack is full
+        pushButton.setDisable(stack.isFull());
+
+        // Disable Pop and Peek buttons when stack is empty
+        boolean isEmpty = stack.isEmpty();
+        popButton.setDisable(isEmpty);
+        peekButton.setDisable(isEmpty);
+    }
+
+    /**
+     * Shows an Alert dialog with specified type, title, and message.
+     *
+     * @param type the type of alert (ERROR, WARNING, INFORMATION)
+     * @param title the title of the alert dialog
+     * @param message the message content
+     */
+    private void showAlert(AlertType type, String title, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        if (replayer != null) {
+            // A modal wait would stall the replay; the alert is closed before the next action
+            closeReplayAlert();
+            replayAlert = alert;
+            alert.show();
+            return;
+        }
+        alert.showAndWait();
+    }
+
+    /**
+     * Adds a handler invocation to the session being recorded, if any.
+     *
+     * @param action the handler
+     * @param text the text the handler reads, or null
+     */
+    private void record(SessionLog.Action action, String text) {
+        if (recording != null) {
+            recording.add(action, System.nanoTime() - recordingStart, text);
+        }
+    }
+
+    /**
+     * Adds the time since start to the display refresh statistics.
+     */
+    private void recordRefresh(long start) {
+        refreshNanos += System.nanoTime() - start;
+        refreshCount++;
+    }
+
+    /**
+     * Handles the Record button: starts recording a session, or stops and
+     * saves it.
+     */
+    private void handleRecord() {
+        if (recording == null) {
+            if (consoleRunning) {
+                setStatusText("Wait for the command to finish", "red");
+                return;
+            }
+            // The session starts from the current contents
+            changes.flush();
+            recording = new SessionLog(stackCapacity, stack.getElements());
+            recordingStart = System.nanoTime();
+            recordButton.setText("Stop");
+            replayButton.setDisable(true);
+            setStatusText("Recording session", "orange");
+            return;
+        }
+
+        SessionLog log = recording;
+        recording = null;
+        recordButton.setText("Record");
+        replayButton.setDisable(false);
+        File file = sessionChooser("Save Session").showSaveDialog(root.getScene().getWindow());
+        if (file == null) {
+            setStatusText("Session discarded", "orange");
+            return;
+        }
+        try {
+            log.write(file.toPath());
+            setStatusText("Session saved: " + log.size() + " actions", "green");
+        } catch (IOException e) {
+            showAlert(AlertType.ERROR, "Save Failed", e.getMessage());
+            setStatusText("Session not saved: " + e.getMessage(), "red");
+        }
+    }
+
+    /**
+     * Handles the Replay button: replays a saved session at the chosen speed.
+     */
+    private void handleReplay() {
+        if (consoleRunning) {
+            setStatusText("Wait for the command to finish", "red");
+            return;
+        }
+        File file = sessionChooser("Replay Session").showOpenDialog(root.getScene().getWindow());
+        if (file != null) {
+            startReplay(file.toPath(), parseSpeed(replaySpeedBox.getValue()), false);
+        }
+    }
+
+    private static FileChooser sessionChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Stack sessions", "*.stks"));
+        return chooser;
+    }
+
+    /**
+     * Parses a replay speed such as {@code 4x}, {@code 4} or {@code max}.
+     */
+    private static double parseSpeed(String text) {
+        String speed = text.trim().toLowerCase();
+        if ("max".equals(speed)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Double.parseDouble(speed.endsWith("x") ? speed.substring(0, speed.length() - 1) : speed);
+    }
+
+    /**
+     * Resets the stack to the session's starting contents and replays it.
+     *
+     * @param file the session log
+     * @param speed how many times faster than recorded
+     * @param scripted true when started from the command line: the result
+     *        goes to stderr and the application exits if
+     *        {@code stack.replay.exit} is set
+     */
+    private void startReplay(Path file, double speed, boolean scripted) {
+        SessionLog log;
+        try {
+            log = SessionLog.read(file);
+            if (log.getCapacity() != stackCapacity) {
+                throw new IOException("Session was recorded with capacity " + log.getCapacity()
+                    + ", this stack has " + stackCapacity);
+            }
+        } catch (IOException e) {
+            if (scripted) {
+                System.err.println("Replay failed: " + e.getMessage());
+                exitAfterReplay();
+            } else {
+                showAlert(AlertType.ERROR, "Replay Failed", e.getMessage());
+            }
+            setStatusText(e.getMessage(), "red");
+            return;
+        }
+
+        changes.clear();
+        changes.pushAll(DoubleBuffer.wrap(log.getInitialElements()));
+        changes.flush();
+
+        controlPanel.setDisable(true);
+        recordButton.setDisable(true);
+        replayButton.setDisable(true);
+        setStatusText("Replaying " + log.size() + " actions", "blue");
+        replayer = new SessionReplayer(log, speed, new ReplayTarget(), result -> finishReplay(result, scripted));
+        replayer.start();
+    }
+
+    /**
+     * Shows the measurements of a finished replay and gives the controls back.
+     */
+    private void finishReplay(SessionReplayer.Result result, boolean scripted) {
+        closeReplayAlert();
+        replayer = null;
+        controlPanel.setDisable(false);
+        recordButton.setDisable(false);
+        replayButton.setDisable(false);
+        updateButtonStates();
+
+        setStatusText("Replay finished", "green");
+        lastOperationLabel.setText("Replay: " + result);
+        lastOperationLabel.getStyleClass().removeAll("status-success", "status-error", "status-info", "status-warning");
+        lastOperationLabel.getStyleClass().add("status-info");
+        if (scripted) {
+            System.err.println("Replay: " + result);
+            exitAfterReplay();
+        }
+    }
+
+    private static void exitAfterReplay() {
+        if (Boolean.getBoolean("stack.replay.exit")) {
+            Platform.runLater(Platform::exit);
+        }
+    }
+
+    private void closeReplayAlert() {
+        if (replayAlert != null) {
+            replayAlert.close();
+            replayAlert = null;
+        }
+    }
+
+    /**
+     * Runs replayed actions through the same handlers as the controls.
+     */
+    private final class ReplayTarget implements SessionReplayer.Target {
+
+        @Override
+        public void perform(SessionLog.Action action, String text) {
+            closeReplayAlert();
+            switch (action) {
+                case PUSH:
+                    inputField.setText(text);
+                    handlePush();
+                    break;
+                case POP:
+                    handlePop();
+                    break;
+                case PEEK:
+                    handlePeek();
+                    break;
+                case SIZE:
+                    handleSize();
+                    break;
+                case IS_EMPTY:
+                    handleIsEmpty();
+                    break;
+                case CLEAR:
+                    handleClear();
+                    break;
+                default:
+                    commandField.setText(text);
+                    handleRunCommand();
+                    break;
+            }
+        }
+
+        @Override
+        public boolean isBusy() {
+            return consoleRunning;
+        }
+
+        @Override
+        public long getRefreshNanos() {
+            return refreshNanos;
+        }
+
+        @Override
+        public long getRefreshCount() {
+            return refreshCount;
+        }
+    }
+
+    /**
+     * Sets the status label text with specified color using CSS classes.
+     *
+     * @param message the message to display
+     * @param color the color name (green, red, blue, orange)
+     */
+    private void setStatusText(String message, String color) {
+        statusLabel.setText(message);
+
+        // Remove all color-related CSS classes
+        statusLabel.getStyleClass().removeAll("status-success", "status-error", "status-info", "status-warning");
+
+        // Add appropriate CSS class based on color
+        switch (color.toLowerCase()) {
+            case "green":
+                statusLabel.getStyleClass().add("status-success");
+                break;
+            case "red":
+                statusLabel.getStyleClass().add("status-error");
+                break;
+            case "blue":
+                statusLabel.getStyleClass().add("status-info");
+                break;
+            case "orange":
+                statusLabel.getStyleClass().add("status-warning");
+                break;
+        }
+    }
+
+    /**
+     * Sets the stack capacity.
+     * Must be called before start() method.
+     *
+     * @param capacity the maximum number of elements the stack can hold
+     */
+    public void setStackCapacity(int capacity) {
+        this.stackCapacity = capacity;
+    }
+
+    /**
+     * Sets the initial data to be pushed to the stack.
+     * Must be called before start() method.
+     *
+     * @param data array of doubles to push to the stack initially
+     */
+    public void setInitialData(double[] data) {
+        this.initialData = data;
+    }
+
+    /**
+     * Gets the stack instance for direct manipulation.
+     * Allows external classes (like launcher) to access the stack.
+     *
+     * @return the StackDemo instance
+     */
+    public StackDemo getStack() {
+        return stack;
+    }
+
+    public static void main(String[] args) {
+        StartupTimer.markLaunch();
+        launch();
+    }
+}
@@ -0,0 +1,287 @@
+package com.mycompany.stackoperationsimulator;
+
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.event.ObservableStack;
+import com.mycompany.stackoperationsimulator.core.io.StackFiles;
+import com.mycompany.stackoperationsimulator.core.text.DoubleParser;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One command of the simulator's command console.
+ *
+ * <p>Supported commands, several of which can be separated by {@code ;}:</p>
+ * <ul>
+ *   <li>{@code push 42} pushes one value</li>
+ *   <li>{@code push 1..1000000 step 0.5} pushes a range, counting down if
+ *       the end is below the start; the step defaults to 1</li>
+ *   <li>{@code pop 5000} pops that many elements (one without a count)</li>
+ *   <li>{@code random 1e6 seed 42} pushes random values between -99.99 and
+ *       99.99, like the launcher's random data</li>
+ *   <li>{@code load stack.csv} replaces the contents with a file saved by
+ *       {@link StackFiles}</li>
+ *   <li>{@code clear} empties the stack</li>
+ * </ul>
+ *
+ * <p>Each command is all-or-nothing: it checks that the stack has enough
+ * elements or free space before changing anything. Pushes are generated in
+ * chunks and written with bulk pushes, so a million-element command does not
+ * make a million calls.</p>
+ */
+final class BatchCommand {
+
+    private static final int CHUNK = 8192;
+
+    private enum Kind { PUSH, PUSH_RANGE, POP, RANDOM, LOAD, CLEAR }
+
+    private final Kind kind;
+    private final double first;
+    private final double last;
+    private final double step;
+    private final long count;
+    private final long seed;
+    private final String path;
+
+    private BatchCommand(Kind kind, double first, double last, double step, long count, long seed, String path) {
+        this.kind = kind;
+        this.first = first;
+        this.last = last;
+        this.step = step;
+        this.count = count;
+        this.seed = seed;
+        this.path = path;
+    }
+
+    /**
+     * Parses a console line.
+     *
+     * @param line one or more commands separated by {@code ;}
+     * @return the commands in order
+     * @throws IllegalArgumentException if a command is not understood
+     */
+    static List<BatchCommand> parseAll(String line) {
+        List<BatchCommand> commands = new ArrayList<>();
+        for (String part : line.split(";")) {
+            if (!part.trim().isEmpty()) {
+                commands.add(parse(part.trim()));
+            }
+        }
+        if (commands.isEmpty()) {
+            throw new IllegalArgumentException("Enter a command, e.g. push 1..100");
+        }
+        return commands;
+    }
+
+    private static BatchCommand parse(String text) {
+        String[] words = text.split("\\s+");
+        String name = words[0].toLowerCase();
+        switch (name) {
+            case "push":
+                if (words.length == 2 && !words[1].contains("..")) {
+                    return new BatchCommand(Kind.PUSH, number(words[1]), 0, 0, 1, 0, null);
+                }
+                if (words.length == 2 || (words.length == 4 && "step".equalsIgnoreCase(words[2]))) {
+                    return range(words);
+                }
+                break;
+            case "pop":
+                if (words.length <= 2) {
+                    long count = words.length == 2 ? count(words[1]) : 1;
+                    return new BatchCommand(Kind.POP, 0, 0, 0, count, 0, null);
+                }
+                break;
+            case "random":
+                if (words.length == 2 || (words.length == 4 && "seed".equalsIgnoreCase(words[2]))) {
+                    long seed = words.length == 4 ? seed(words[3]) : System.nanoTime();
+                    return new BatchCommand(Kind.RANDOM, 0, 0, 0, count(words[1]), seed, null);
+                }
+                break;
+            case "load":
+                if (words.length >= 2) {
+                    // The rest of the line, so paths may contain spaces
+                    String path = text.substring(words[0].length()).trim();
+                    return new BatchCommand(Kind.LOAD, 0, 0, 0, 0, 0, path);
+                }
+                break;
+            case "clear":
+                if (words.length == 1) {
+                    return new BatchCommand(Kind.CLEAR, 0, 0, 0, 0, 0, null);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + words[0]);
+        }
+        throw new IllegalArgumentException("Invalid " + name + " command: " + text);
+    }
+
+    /**
+     * Formats commands as a console line that parses back to the same
+     * commands, with the seed of every random command spelled out.
+     *
+     * @param commands the commands
+     * @return the line, commands separated by {@code ; }
+     */
+    static String format(List<BatchCommand> commands) {
+        StringBuilder line = new StringBuilder();
+        for (BatchCommand command : commands) {
+            if (line.length() > 0) {
+                line.append("; ");
+            }
+            line.append(command);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case PUSH:
+                return "push " + first;
+            case PUSH_RANGE:
+                return "push " + first + ".." + last + " step " + Math.abs(step);
+            case POP:
+                return "pop " + count;
+            case RANDOM:
+                return "random " + count + " seed " + seed;
+            case LOAD:
+                return "load " + path;
+            default:
+                return "clear";
+        }
+    }
+
+    private static BatchCommand range(String[] words) {
+        int dots = words[1].indexOf("..");
+        double first = number(words[1].substring(0, dots));
+        double last = number(words[1].substring(dots + 2));
+        double step = words.length == 4 ? number(words[3]) : 1;
+        if (!(step > 0) || Double.isInfinite(step)) {
+            throw new IllegalArgumentException("Step must be positive: " + words[3]);
+        }
+        // Tolerate the rounding error of ranges like 0..1 step 0.1
+        double steps = Math.floor(Math.abs(last - first) / step + 1e-9);
+        if (Double.isNaN(steps) || steps >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Range is too large: " + words[1]);
+        }
+        return new BatchCommand(Kind.PUSH_RANGE, first, last, last < first ? -step : step, (long) steps + 1, 0, null);
+    }
+
+    private static double number(String word) {
+        try {
+            return DoubleParser.parse(word);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + word);
+        }
+    }
+
+    private static double integer(String word) {
+        double value = number(word);
+        if (value != Math.rint(value) || Math.abs(value) > Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Not a whole number: " + word);
+        }
+        return value;
+    }
+
+    private static long seed(String word) {
+        // Exact for every long, which a double is not beyond 2^53
+        try {
+            return Long.parseLong(word);
+        } catch (NumberFormatException e) {
+            return (long) integer(word);
+        }
+    }
+
+    private static long count(String word) {
+        double value = integer(word);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Count out of range: " + word);
+        }
+        return (long) value;
+    }
+
+    /**
+     * Runs the command.
+     *
+     * @param stack the stack to change
+     * @return the number of elements pushed, popped or removed
+     * @throws IllegalStateException if the stack has too few elements or too little space
+     * @throws IOException if a file cannot be loaded
+     */
+    long execute(ObservableStack stack) throws IOException {
+        switch (kind) {
+            case PUSH:
+                stack.push(first);
+                return 1;
+            case PUSH_RANGE:
+                checkSpace(stack, count);
+                pushGenerated(stack, i -> first + i * step);
+                return count;
+            case POP:
+                if (count > stack.size()) {
+                    throw new IllegalStateException("Stack Underflow");
+                }
+                for (long i = 0; i < count; i++) {
+                    stack.pop();
+                }
+                return count;
+            case RANDOM: {
+                checkSpace(stack, count);
+                Random random = new Random(seed);
+                pushGenerated(stack, i -> random.nextDouble() * 199.98 - 99.99);
+                return count;
+            }
+            case LOAD:
+                return load(stack);
+            default: {
+                int removed = stack.size();
+                stack.clear();
+                return removed;
+            }
+        }
+    }
+
+    private long load(ObservableStack stack) throws IOException {
+        StackDemo loaded = StackFiles.load(Paths.get(path));
+        if (loaded.size() > stack.getCapacity()) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+        stack.clear();
+        double[] chunk = new double[Math.min(CHUNK, Math.max(loaded.size(), 1))];
+        for (int index = 0; index < loaded.size(); ) {
+            DoubleBuffer buffer = DoubleBuffer.wrap(chunk);
+            index += loaded.copyTo(index, buffer);
+            buffer.flip();
+            stack.pushAll(buffer);
+        }
+        return loaded.size();
+    }
+
+    private void pushGenerated(ObservableStack stack, Generator generator) {
+        double[] chunk = new double[(int) Math.min(CHUNK, count)];
+        for (long done = 0; done < count; ) {
+            int length = (int) Math.min(chunk.length, count - done);
+            for (int i = 0; i < length; i++) {
+                chunk[i] = generator.value(done + i);
+            }
+            stack.pushAll(DoubleBuffer.wrap(chunk, 0, length));
+            done += length;
+        }
+    }
+
+    private static void checkSpace(ObservableStack stack, long elements) {
+        if (elements > stack.getCapacity() - stack.size()) {
+            throw new IllegalStateException("Stack Overflow");
+        }
+    }
+
+    /**
+     * Value of the i-th pushed element.
+     */
+    private interface Generator {
+        double value(long index);
+    }
+}
@@ -0,0 +1,224 @@
+package com.mycompany.stackoperationsimulator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The actions a user performed in the simulator window, with their times,
+ * so that the session can be replayed.
+ *
+ * <p>A log starts from the stack's capacity and contents when recording
+ * began, so a replay starts from the same state. Each action keeps the text
+ * its handler read: the input field for a push (also when it is not a
+ * number) and the command line for the console.</p>
+ *
+ * <p>The file format is compact: a header ({@code "STKS"}, a version byte,
+ * the capacity and the starting elements as raw doubles), then per action
+ * one byte for the action, the time since the previous action in
+ * microseconds as an unsigned LEB128 varint, and for push and console
+ * actions the text as UTF-8, preceded by its length in bytes as another
+ * varint, so texts of any length fit. A click costs two or three bytes.
+ * Version 1 files, whose texts were limited to 64 KB of modified UTF-8,
+ * are still read.</p>
+ */
+final class SessionLog {
+
+    /**
+     * A handler of the simulator window.
+     */
+    enum Action { PUSH, POP, PEEK, SIZE, IS_EMPTY, CLEAR, COMMAND }
+
+    private static final int MAGIC = 0x53544B53;
+    private static final int VERSION = 2;
+
+    // Magic, version, capacity and element count
+    private static final int HEADER_BYTES = 13;
+    private static final Action[] ACTIONS = Action.values();
+
+    private final int capacity;
+    private final double[] initialElements;
+
+    // One entry per action, in order
+    private byte[] actions = new byte[64];
+    private long[] times = new long[64];
+    private String[] texts = new String[64];
+    private int count;
+
+    /**
+     * Creates an empty log.
+     *
+     * @param capacity the capacity of the recorded stack
+     * @param initialElements the stack's elements when recording began, bottom first
+     */
+    SessionLog(int capacity, double[] initialElements) {
+        this.capacity = capacity;
+        this.initialElements = initialElements;
+    }
+
+    /**
+     * Appends an action.
+     *
+     * @param action the handler that ran
+     * @param nanos time since recording began, not before the previous action
+     * @param text the text the handler read, or null for actions without text
+     */
+    void add(Action action, long nanos, String text) {
+        if (count == actions.length) {
+            actions = Arrays.copyOf(actions, count * 2);
+            times = Arrays.copyOf(times, count * 2);
+            texts = Arrays.copyOf(texts, count * 2);
+        }
+        actions[count] = (byte) action.ordinal();
+        // Stored in microseconds, so keep the times the file will give back
+        times[count] = nanos / 1000 * 1000;
+        texts[count] = hasText(action) ? (text == null ? "" : text) : null;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    double[] getInitialElements() {
+        return initialElements;
+    }
+
+    Action getAction(int index) {
+        return ACTIONS[actions[index]];
+    }
+
+    /**
+     * @return time of the action since recording began, in nanoseconds
+     */
+    long getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * @return the text of a push or console action, null for other actions
+     */
+    String getText(int index) {
+        return texts[index];
+    }
+
+    /**
+     * Writes the log to a file.
+     *
+     * @param file the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(capacity);
+            out.writeInt(initialElements.length);
+            for (double element : initialElements) {
+                out.writeDouble(element);
+            }
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                out.writeByte(actions[i]);
+                writeVarLong(out, (times[i] - previous) / 1000);
+                previous = times[i];
+                if (texts[i] != null) {
+                    byte[] text = texts[i].getBytes(StandardCharsets.UTF_8);
+                    writeVarLong(out, text.length);
+                    out.write(text);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a log written by {@link #write(Path)}.
+     *
+     * @param file the file to read
+     * @return the log
+     * @throws IOException if the file cannot be read or is not a session log
+     */
+    static SessionLog read(Path file) throws IOException {
+        // Lengths in the file are checked against its size before anything is allocated from them
+        long size = Files.size(file);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readInt() == MAGIC ? in.readByte() : -1;
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Not a session log: " + file);
+            }
+            int capacity = in.readInt();
+            int elements = in.readInt();
+            if (capacity <= 0 || elements < 0 || elements > capacity
+                    || (long) elements * Double.BYTES > size - HEADER_BYTES) {
+                throw new IOException("Corrupt session log: " + file);
+            }
+            double[] initial = new double[elements];
+            for (int i = 0; i < elements; i++) {
+                initial[i] = in.readDouble();
+            }
+            SessionLog log = new SessionLog(capacity, initial);
+            long time = 0;
+            int action;
+            while ((action = in.read()) >= 0) {
+                if (action >= ACTIONS.length) {
+                    throw new IOException("Corrupt session log: " + file);
+                }
+                time += readVarLong(in) * 1000;
+                Action kind = ACTIONS[action];
+                log.add(kind, time, hasText(kind) ? readText(in, version, size, file) : null);
+            }
+            return log;
+        }
+    }
+
+    private static String readText(DataInputStream in, int version, long size, Path file) throws IOException {
+        if (version == 1) {
+            return in.readUTF();
+        }
+        long length = readVarLong(in);
+        if (length < 0 || length > size || length > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt session log: " + file);
+        }
+        byte[] text = new byte[(int) length];
+        in.readFully(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    private static boolean hasText(Action action) {
+        return action == Action.PUSH || action == Action.COMMAND;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated session log");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt session log");
+    }
+}
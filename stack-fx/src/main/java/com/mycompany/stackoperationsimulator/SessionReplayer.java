@@ -0,0 +1,264 @@
+package com.mycompany.stackoperationsimulator;
+
+import com.mycompany.stackoperationsimulator.core.memory.AllocationMeter;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import javafx.animation.AnimationTimer;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+/**
+ * Replays a {@link SessionLog} through the real handlers of the simulator
+ * window and measures how the window keeps up.
+ *
+ * <p>Actions run on the JavaFX thread with the recorded gaps between them,
+ * divided by the speed factor; with an infinite speed each action is queued
+ * as soon as the previous one has run, so frames are drawn in between
+ * whenever they are due. A console command is waited for before the next
+ * action, and the gap is measured from the moment it finished, so slow
+ * commands delay the rest of the session instead of piling up.</p>
+ *
+ * <p>While replaying, an animation timer keeps a frame coming every vsync
+ * and records the time between frames. Any gap longer than a frame is work
+ * that held up the JavaFX thread. The result also gives the time spent in
+ * the handlers and in refreshing the display, and the heap bytes the JavaFX
+ * thread allocated (see {@link AllocationMeter}).</p>
+ */
+final class SessionReplayer {
+
+    /**
+     * What the replayer drives.
+     */
+    interface Target {
+
+        /**
+         * Runs a recorded action, as if the user had performed it.
+         */
+        void perform(SessionLog.Action action, String text);
+
+        /**
+         * @return true while a console command is still running
+         */
+        boolean isBusy();
+
+        /**
+         * @return total nanoseconds the window has spent refreshing its display
+         */
+        long getRefreshNanos();
+
+        /**
+         * @return number of display refreshes so far
+         */
+        long getRefreshCount();
+    }
+
+    // A frame gap above this counts as a dropped frame (two 60 Hz frames)
+    private static final long SLOW_FRAME_NANOS = 33_333_333L;
+
+    // Time for the window's delayed refreshes to catch up with the last action
+    private static final Duration SETTLE = Duration.millis(500);
+
+    private static final Duration BUSY_POLL = Duration.millis(5);
+
+    private final SessionLog log;
+    private final double speed;
+    private final Target target;
+    private final Consumer<Result> onFinished;
+    private final AllocationMeter allocations = new AllocationMeter();
+
+    private int next;
+    private long previousTime;
+    private long previousRun;
+    private long handlerNanos;
+    private long startNanos;
+    private long startRefreshNanos;
+    private long startRefreshCount;
+
+    private long[] frameGaps = new long[1024];
+    private int frames;
+    private long lastFrame;
+    private final AnimationTimer frameTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastFrame != 0) {
+                if (frames == frameGaps.length) {
+                    frameGaps = Arrays.copyOf(frameGaps, frames * 2);
+                }
+                frameGaps[frames++] = now - lastFrame;
+            }
+            lastFrame = now;
+        }
+    };
+
+    /**
+     * Creates a replayer.
+     *
+     * @param log the session to replay
+     * @param speed how many times faster than recorded, or infinity for as fast as possible
+     * @param target the window to drive
+     * @param onFinished receives the result on the JavaFX thread
+     * @throws IllegalArgumentException if speed is not positive
+     */
+    SessionReplayer(SessionLog log, double speed, Target target, Consumer<Result> onFinished) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be positive");
+        }
+        this.log = log;
+        this.speed = speed;
+        this.target = target;
+        this.onFinished = onFinished;
+    }
+
+    /**
+     * Starts the replay. Must be called on the JavaFX thread.
+     */
+    void start() {
+        startNanos = System.nanoTime();
+        previousRun = startNanos;
+        startRefreshNanos = target.getRefreshNanos();
+        startRefreshCount = target.getRefreshCount();
+        allocations.begin();
+        frameTimer.start();
+        schedule();
+    }
+
+    private void schedule() {
+        if (next == log.size()) {
+            PauseTransition settle = new PauseTransition(SETTLE);
+            settle.setOnFinished(e -> finish());
+            settle.play();
+            return;
+        }
+        long gap = log.getTime(next) - previousTime;
+        long due = previousRun + (long) (gap / speed);
+        long delay = due - System.nanoTime();
+        if (delay <= 0) {
+            Platform.runLater(this::runNext);
+        } else {
+            PauseTransition pause = new PauseTransition(Duration.millis(delay / 1e6));
+            pause.setOnFinished(e -> runNext());
+            pause.play();
+        }
+    }
+
+    private void runNext() {
+        if (target.isBusy()) {
+            PauseTransition poll = new PauseTransition(BUSY_POLL);
+            poll.setOnFinished(e -> runNext());
+            poll.play();
+            return;
+        }
+        long start = System.nanoTime();
+        target.perform(log.getAction(next), log.getText(next));
+        long end = System.nanoTime();
+        handlerNanos += end - start;
+        previousTime = log.getTime(next);
+        previousRun = end;
+        next++;
+        schedule();
+    }
+
+    private void finish() {
+        frameTimer.stop();
+        long allocated = allocations.end(log.size());
+        long[] gaps = Arrays.copyOf(frameGaps, frames);
+        Arrays.sort(gaps);
+        onFinished.accept(new Result(
+            log.size(),
+            System.nanoTime() - startNanos - (long) (SETTLE.toMillis() * 1e6),
+            gaps,
+            handlerNanos,
+            target.getRefreshNanos() - startRefreshNanos,
+            target.getRefreshCount() - startRefreshCount,
+            AllocationMeter.isSupported() ? allocated : -1));
+    }
+
+    /**
+     * Measurements of one replay.
+     */
+    static final class Result {
+        private final int actions;
+        private final long elapsedNanos;
+        private final long[] frameGaps;
+        private final long handlerNanos;
+        private final long refreshNanos;
+        private final long refreshes;
+        private final long allocatedBytes;
+
+        Result(int actions, long elapsedNanos, long[] sortedFrameGaps, long handlerNanos,
+               long refreshNanos, long refreshes, long allocatedBytes) {
+            this.actions = actions;
+            this.elapsedNanos = elapsedNanos;
+            this.frameGaps = sortedFrameGaps;
+            this.handlerNanos = handlerNanos;
+            this.refreshNanos = refreshNanos;
+            this.refreshes = refreshes;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        int getActions() {
+            return actions;
+        }
+
+        double getElapsedMillis() {
+            return elapsedNanos / 1e6;
+        }
+
+        int getFrames() {
+            return frameGaps.length;
+        }
+
+        /**
+         * @return time between frames at the given quantile, in milliseconds
+         */
+        double getFrameMillis(double quantile) {
+            if (frameGaps.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(frameGaps.length - 1, Math.ceil(quantile * frameGaps.length) - 1);
+            return frameGaps[Math.max(index, 0)] / 1e6;
+        }
+
+        /**
+         * @return frames that took longer than two 60 Hz frames
+         */
+        int getSlowFrames() {
+            int slow = 0;
+            for (int i = frameGaps.length - 1; i >= 0 && frameGaps[i] > SLOW_FRAME_NANOS; i--) {
+                slow++;
+            }
+            return slow;
+        }
+
+        double getHandlerMillis() {
+            return handlerNanos / 1e6;
+        }
+
+        double getRefreshMillis() {
+            return refreshNanos / 1e6;
+        }
+
+        long getRefreshes() {
+            return refreshes;
+        }
+
+        /**
+         * @return heap bytes the JavaFX thread allocated, or -1 if not measured
+         */
+        long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            String allocation = allocatedBytes < 0
+                ? "not measured"
+                : String.format("%.1f MB (%.0f B/action)", allocatedBytes / 1e6, (double) allocatedBytes / Math.max(actions, 1));
+            return String.format("%d actions in %.0f ms | frames: %d, median %.1f ms, p99 %.1f ms, max %.1f ms, %d slow"
+                    + " | handlers: %.1f ms | refresh: %.1f ms in %d | allocated: %s",
+                actions, getElapsedMillis(), getFrames(), getFrameMillis(0.5), getFrameMillis(0.99),
+                getFrameMillis(1), getSlowFrames(), getHandlerMillis(), getRefreshMillis(), refreshes, allocation);
+        }
+    }
+}
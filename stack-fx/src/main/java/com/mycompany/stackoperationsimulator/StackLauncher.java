@@ -28,13 +28,23 @@ import java.util.Random;
  * to configure stack parameters before starting the main simulator.</p>
  *
  * <p>Features include:
- * - Configurable maximum stack size (5-20)
+ * - Configurable maximum stack size (5-2,000,000)
  * - Option to start with empty stack or random data
  * - Configurable number of random elements (1-10)
  * </p>
+ *
+ * <p>Passing {@code --quick} on the command line skips the configuration
+ * screen and opens the simulator directly with the default settings, so
+ * only one window is built at startup.</p>
  */
 public class StackLauncher extends Application {
 
+    // Default stack size, shared by the spinner and the quick-start path
+    private static final int DEFAULT_STACK_SIZE = 10;
+
+    // Largest stack size; large stacks are filled with the simulator's command console
+    private static final int MAX_STACK_SIZE = 2_000_000;
+
     // UI Components
     private Spinner<Integer> stackSizeSpinner;
     private RadioButton emptyStackRadio;
@@ -44,6 +54,12 @@ public class StackLauncher extends Application {
 
     @Override
     public void start(Stage stage) {
+        // Quick start: open the simulator without building the launcher scene
+        if (getParameters().getRaw().contains("--quick")) {
+            new App(DEFAULT_STACK_SIZE).start(stage);
+            return;
+        }
+
         // Stage configuration
         stage.setTitle("Stack Simulator Launcher");
         stage.setWidth(500);
@@ -70,6 +86,8 @@ public class StackLauncher extends Application {
         String css = getClass().getResource("styles.css").toExternalForm();
         scene.getStylesheets().add(css);
 
+        StartupTimer.trackFirstFrame(scene, "launcher");
+
         stage.setScene(scene);
         stage.centerOnScreen();
         stage.show();
@@ -133,7 +151,7 @@ public class StackLauncher extends Application {
 
         stackSizeSpinner = new Spinner<>();
         SpinnerValueFactory<Integer> stackSizeFactory =
-            new SpinnerValueFactory.IntegerSpinnerValueFactory(5, 20, 10);
+            new SpinnerValueFactory.IntegerSpinnerValueFactory(5, MAX_STACK_SIZE, DEFAULT_STACK_SIZE);
         stackSizeSpinner.setValueFactory(stackSizeFactory);
         stackSizeSpinner.setEditable(true);
         stackSizeSpinner.setPrefWidth(80);
@@ -195,13 +213,14 @@ public class StackLauncher extends Application {
      * @return HBox containing the action buttons
      */
     private HBox createButtonPanel() {
-        HBox buttonPanel = new HBox(20);
+        // Three buttons share the 440 pixels between the margins
+        HBox buttonPanel = new HBox(10);
         buttonPanel.setAlignment(Pos.CENTER);
         buttonPanel.setPadding(new Insets(30, 0, 0, 0));
 
         // Start Simulator Button
         Button startButton = new Button("Start Simulator");
-        startButton.setPrefWidth(150);
+        startButton.setPrefWidth(140);
         startButton.setPrefHeight(40);
         startButton.getStyleClass().add("launcher-start-button");
         startButton.setStyle(
@@ -209,14 +228,14 @@ public class StackLauncher extends Application {
             "-fx-text-fill: white; " +
             "-fx-font-size: 14px; " +
             "-fx-font-weight: bold; " +
-            "-fx-padding: 10px 20px; " +
+            "-fx-padding: 10px; " +
             "-fx-background-radius: 5px;"
         );
         startButton.setOnAction(e -> handleStartSimulator());
 
         // Exit Button
         Button exitButton = new Button("Exit");
-        exitButton.setPrefWidth(150);
+        exitButton.setPrefWidth(140);
         exitButton.setPrefHeight(40);
         exitButton.getStyleClass().add("launcher-exit-button");
         exitButton.setStyle(
@@ -224,12 +243,26 @@ public class StackLauncher extends Application {
             "-fx-text-fill: white; " +
             "-fx-font-size: 14px; " +
             "-fx-font-weight: bold; " +
-            "-fx-padding: 10px 20px; " +
+            "-fx-padding: 10px; " +
             "-fx-background-radius: 5px;"
         );
         exitButton.setOnAction(e -> handleExit());
 
-        buttonPanel.getChildren().addAll(startButton, exitButton);
+        // Workspace Button
+        Button workspaceButton = new Button("Workspace");
+        workspaceButton.setPrefWidth(140);
+        workspaceButton.setPrefHeight(40);
+        workspaceButton.setStyle(
+            "-fx-background-color: #2196F3; " +
+            "-fx-text-fill: white; " +
+            "-fx-font-size: 14px; " +
+            "-fx-font-weight: bold; " +
+            "-fx-padding: 10px; " +
+            "-fx-background-radius: 5px;"
+        );
+        workspaceButton.setOnAction(e -> handleStartWorkspace());
+
+        buttonPanel.getChildren().addAll(startButton, workspaceButton, exitButton);
 
         return buttonPanel;
     }
@@ -277,6 +310,18 @@ public class StackLauncher extends Application {
         launcherStage.close();
     }
 
+    /**
+     * Handles the Workspace button action.
+     * Opens the workspace comparing all stack implementations at the configured size.
+     */
+    private void handleStartWorkspace() {
+        new Workspace(stackSizeSpinner.getValue()).start(new Stage());
+
+        // Close launcher stage
+        Stage launcherStage = (Stage) stackSizeSpinner.getScene().getWindow();
+        launcherStage.close();
+    }
+
     /**
      * Handles the Exit button action.
      * Closes the application.
@@ -286,6 +331,7 @@ public class StackLauncher extends Application {
     }
 
     public static void main(String[] args) {
+        StartupTimer.markLaunch();
         launch(args);
     }
 }
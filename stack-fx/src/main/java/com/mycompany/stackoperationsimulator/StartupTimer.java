@@ -0,0 +1,74 @@
+package com.mycompany.stackoperationsimulator;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+/**
+ * Measures the time from {@code main} to the first rendered frame.
+ *
+ * <p>The launch timestamp is taken as early as possible in {@code main}, and
+ * the first frame is detected with a post-layout pulse listener on the scene
+ * that is shown first. Reporting is off by default and controlled with system
+ * properties so the same build can be used for normal runs and for timing:</p>
+ * <ul>
+ *   <li>{@code -Dstack.startup.report=true} prints the elapsed time to stderr</li>
+ *   <li>{@code -Dstack.startup.exit=true} exits right after the first frame,
+ *       which is used by the AppCDS training run and by startup benchmarks</li>
+ * </ul>
+ */
+public final class StartupTimer {
+
+    // Fallback when the application was started without going through main()
+    private static final long CLASS_INIT_NANOS = System.nanoTime();
+
+    // Launch timestamp recorded by main(), 0 if main() was not used
+    private static long launchNanos;
+
+    // Guards against reporting more than one first frame
+    private static boolean firstFrameSeen;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Records the launch timestamp. Should be the first statement of main().
+     */
+    public static void markLaunch() {
+        launchNanos = System.nanoTime();
+    }
+
+    /**
+     * Registers a listener that reports the first frame of the given scene.
+     * Only the first scene to produce a frame is reported.
+     *
+     * @param scene the scene that is about to be shown
+     * @param name a short name for the window, used in the report
+     */
+    public static void trackFirstFrame(Scene scene, String name) {
+        boolean report = Boolean.getBoolean("stack.startup.report");
+        boolean exit = Boolean.getBoolean("stack.startup.exit");
+        if (!report && !exit) {
+            return;
+        }
+
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            if (firstFrameSeen) {
+                return;
+            }
+            firstFrameSeen = true;
+
+            long start = launchNanos != 0 ? launchNanos : CLASS_INIT_NANOS;
+            double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+            if (report) {
+                System.err.printf("Startup: first frame of %s after %.1f ms%n", name, elapsedMillis);
+            }
+            if (exit) {
+                // Let the current pulse finish before shutting the toolkit down
+                Platform.runLater(Platform::exit);
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+}
@@ -0,0 +1,436 @@
+package com.mycompany.stackoperationsimulator;
+
+import com.mycompany.stackoperationsimulator.core.AdaptiveStack;
+import com.mycompany.stackoperationsimulator.core.AggregateStack;
+import com.mycompany.stackoperationsimulator.core.CompressedStack;
+import com.mycompany.stackoperationsimulator.core.DoubleStack;
+import com.mycompany.stackoperationsimulator.core.StackArena;
+import com.mycompany.stackoperationsimulator.core.StackDemo;
+import com.mycompany.stackoperationsimulator.core.StackFactory;
+import com.mycompany.stackoperationsimulator.core.StackHints;
+import com.mycompany.stackoperationsimulator.core.concurrent.FlatCombiningStack;
+import com.mycompany.stackoperationsimulator.core.memory.AllocationMeter;
+import com.mycompany.stackoperationsimulator.core.memory.Footprint;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+/**
+ * Workspace that runs one workload against several stack implementations
+ * side by side.
+ *
+ * <p>Every implementation gets a lane with a depth chart and its measured
+ * cost. A single {@link AnimationTimer} drives all lanes: on each pulse it
+ * generates the next batch of operations once, replays the same batch into
+ * every lane while timing each one, and then redraws every lane. Lanes run in
+ * a different order on each pulse, so no implementation always finds the
+ * caches warmed up by another.</p>
+ *
+ * <p>The workload never overflows or underflows: the generator tracks the
+ * depth itself and only pops from a non-empty stack and pushes onto one
+ * that is not full, so all lanes stay identical.</p>
+ */
+public class Workspace extends Application {
+
+    private static final int DEFAULT_CAPACITY = 100_000;
+
+    // Lane statistics are refreshed a few times per second, charts on every pulse
+    private static final long LABEL_INTERVAL_NANOS = 250_000_000L;
+
+    private static final String[] WORKLOADS = {"Random push/pop", "Fill and drain", "Repeating values"};
+
+    // The lane whose stack StackFactory picks for the workspace's capacity
+    private static final String FACTORY_LANE = "StackFactory";
+
+    /**
+     * The implementations that can be compared; each creates an empty stack of a capacity.
+     */
+    private static final List<Implementation> IMPLEMENTATIONS = List.of(
+        new Implementation("StackDemo", StackDemo::new),
+        new Implementation("AggregateStack", AggregateStack::new),
+        new Implementation("CompressedStack", CompressedStack::new),
+        new Implementation("AdaptiveStack", AdaptiveStack::new),
+        new Implementation("FlatCombiningStack", FlatCombiningStack::new),
+        new Implementation("StackArena", capacity -> {
+            StackArena arena = new StackArena(capacity);
+            return arena.view(arena.create(capacity));
+        }),
+        new Implementation(FACTORY_LANE, Workspace::createFromFactory)
+    );
+
+    private final int capacity;
+
+    private final List<Lane> lanes = new ArrayList<>();
+    private final List<CheckBox> implementationBoxes = new ArrayList<>();
+    private HBox laneBox;
+
+    private ComboBox<String> workloadBox;
+    private Spinner<Integer> opsPerFrameSpinner;
+    private Button runButton;
+    private Label frameLabel;
+
+    private AnimationTimer pulse;
+    private boolean running;
+    private long lastLabelUpdate;
+
+    // The batch replayed into every lane; true is a push
+    private boolean[] pushes = new boolean[0];
+    private double[] values = new double[0];
+
+    // Generator state, shared by all lanes
+    private SplittableRandom random;
+    private int depth;
+    private boolean filling;
+    private long generated;
+
+    /**
+     * Default constructor - compares stacks of capacity 100,000.
+     */
+    public Workspace() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor that accepts capacity parameter.
+     *
+     * @param capacity the capacity of every compared stack
+     */
+    public Workspace(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void start(Stage stage) {
+        stage.setTitle(String.format("Stack Workspace - capacity %,d", capacity));
+        stage.setMinWidth(900);
+        stage.setMinHeight(500);
+
+        BorderPane root = new BorderPane();
+        root.setTop(new VBox(10, createControls(), createImplementationRow()));
+        laneBox = new HBox(10);
+        laneBox.setPadding(new Insets(10));
+        root.setCenter(laneBox);
+        reset();
+
+        Scene scene = new Scene(root, 1200, 600);
+        String css = getClass().getResource("styles.css").toExternalForm();
+        scene.getStylesheets().add(css);
+        stage.setScene(scene);
+
+        pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onPulse(now);
+            }
+        };
+        pulse.start();
+        stage.setOnHidden(e -> pulse.stop());
+        stage.show();
+    }
+
+    @Override
+    public void stop() {
+        if (pulse != null) {
+            pulse.stop();
+        }
+    }
+
+    /**
+     * Creates the workload, speed and run controls.
+     *
+     * @return HBox with the controls
+     */
+    private HBox createControls() {
+        Label workloadLabel = new Label("Workload:");
+        workloadLabel.getStyleClass().add("input-label");
+        workloadBox = new ComboBox<>();
+        workloadBox.getItems().addAll(WORKLOADS);
+        workloadBox.getSelectionModel().selectFirst();
+        workloadBox.setOnAction(e -> reset());
+
+        Label speedLabel = new Label("Operations per frame:");
+        speedLabel.getStyleClass().add("input-label");
+        opsPerFrameSpinner = new Spinner<>(1, 1_000_000, 10_000, 1_000);
+        opsPerFrameSpinner.setEditable(true);
+        opsPerFrameSpinner.setPrefWidth(120);
+
+        runButton = new Button("Start");
+        runButton.getStyleClass().add("primary-button");
+        runButton.setOnAction(e -> {
+            running = !running;
+            runButton.setText(running ? "Pause" : "Start");
+        });
+
+        Button resetButton = new Button("Reset");
+        resetButton.getStyleClass().add("clear-button");
+        resetButton.setOnAction(e -> reset());
+
+        frameLabel = new Label("");
+        frameLabel.getStyleClass().add("status-bar-value");
+
+        HBox controls = new HBox(10, workloadLabel, workloadBox, speedLabel, opsPerFrameSpinner,
+            runButton, resetButton, frameLabel);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        controls.setPadding(new Insets(10, 10, 0, 10));
+        return controls;
+    }
+
+    /**
+     * Creates one check box per implementation; changing the selection
+     * starts the comparison over.
+     *
+     * @return HBox with the check boxes
+     */
+    private HBox createImplementationRow() {
+        HBox row = new HBox(15);
+        row.setPadding(new Insets(0, 10, 0, 10));
+        Label label = new Label("Compare:");
+        label.getStyleClass().add("input-label");
+        row.getChildren().add(label);
+        for (Implementation implementation : IMPLEMENTATIONS) {
+            CheckBox box = new CheckBox(implementation.name);
+            box.setSelected(true);
+            box.setOnAction(e -> reset());
+            implementationBoxes.add(box);
+            row.getChildren().add(box);
+        }
+        return row;
+    }
+
+    /**
+     * Creates fresh stacks for the selected implementations and restarts the workload.
+     */
+    private void reset() {
+        lanes.clear();
+        laneBox.getChildren().clear();
+        for (int i = 0; i < IMPLEMENTATIONS.size(); i++) {
+            if (implementationBoxes.get(i).isSelected()) {
+                Lane lane = new Lane(IMPLEMENTATIONS.get(i), capacity);
+                lanes.add(lane);
+                HBox.setHgrow(lane.view, Priority.ALWAYS);
+                laneBox.getChildren().add(lane.view);
+            }
+        }
+        random = new SplittableRandom(42);
+        depth = 0;
+        filling = true;
+        generated = 0;
+        lastLabelUpdate = 0;
+        frameLabel.setText("");
+    }
+
+    /**
+     * One pulse of the shared loop: generate, replay into every lane, draw.
+     *
+     * @param now the pulse time in nanoseconds
+     */
+    private void onPulse(long now) {
+        long frameStart = System.nanoTime();
+        if (running && !lanes.isEmpty()) {
+            int count = opsPerFrameSpinner.getValue();
+            generate(count);
+            // Rotate the starting lane so that cache effects are shared out evenly
+            int first = (int) (generated / count % lanes.size());
+            for (int i = 0; i < lanes.size(); i++) {
+                lanes.get((first + i) % lanes.size()).run(pushes, values, count);
+            }
+        }
+        long workNanos = System.nanoTime() - frameStart;
+        for (Lane lane : lanes) {
+            lane.draw();
+        }
+        if (now - lastLabelUpdate >= LABEL_INTERVAL_NANOS) {
+            lastLabelUpdate = now;
+            for (Lane lane : lanes) {
+                lane.updateLabel();
+            }
+            if (running) {
+                frameLabel.setText(String.format("Frame: %.1f ms (stacks %.1f ms)",
+                    (System.nanoTime() - frameStart) / 1e6, workNanos / 1e6));
+            }
+        }
+    }
+
+    /**
+     * Fills the batch arrays with the next operations of the selected workload.
+     *
+     * @param count the number of operations
+     */
+    private void generate(int count) {
+        if (pushes.length < count) {
+            pushes = new boolean[count];
+            values = new double[count];
+        }
+        int workload = workloadBox.getSelectionModel().getSelectedIndex();
+        for (int i = 0; i < count; i++, generated++) {
+            if (depth == capacity) {
+                filling = false;
+            } else if (depth == 0) {
+                filling = true;
+            }
+            boolean push;
+            if (workload == 1) {
+                // Fill and drain: straight up to the capacity, then straight down
+                push = filling;
+            } else {
+                // Random walk drifting towards full, then towards empty
+                push = depth == 0 || (depth < capacity && random.nextInt(10) < (filling ? 6 : 4));
+            }
+            pushes[i] = push;
+            if (push) {
+                depth++;
+                values[i] = workload == 2
+                    ? (generated / 100 % 50) * 0.25
+                    : Math.round(random.nextDouble() * 19998 - 9999) / 100.0;
+            } else {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * A named way to create a stack.
+     */
+    /**
+     * Creates the stack StackFactory picks for a single thread filling up
+     * to the capacity.
+     *
+     * @param capacity the maximum number of elements
+     * @return a new, empty stack
+     */
+    private static DoubleStack createFromFactory(int capacity) {
+        try {
+            return StackFactory.create(capacity, StackHints.NONE.withExpectedSize(capacity));
+        } catch (IOException e) {
+            // Only a durable stack opens files, and no directory is hinted
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Implementation {
+        final String name;
+        final IntFunction<DoubleStack> factory;
+
+        Implementation(String name, IntFunction<DoubleStack> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * One compared stack with its chart and statistics.
+     */
+    private final class Lane {
+        final String name;
+        final DoubleStack stack;
+        final VBox view;
+        final Canvas canvas;
+        final Label statsLabel;
+
+        // Depth after each pulse, oldest first once the ring has wrapped
+        final int[] depths = new int[1024];
+        int pulses;
+
+        long nanos;
+        long operations;
+        final AllocationMeter allocations = new AllocationMeter();
+
+        Lane(Implementation implementation, int capacity) {
+            this.name = implementation.name;
+            this.stack = implementation.factory.apply(capacity);
+
+            // The factory lane also names the implementation it was given
+            Label title = new Label(FACTORY_LANE.equals(name)
+                ? name + ": " + stack.getClass().getSimpleName() : name);
+            title.getStyleClass().add("info-header");
+            statsLabel = new Label("");
+            statsLabel.getStyleClass().add("info-label");
+
+            // The canvas follows the width of its pane
+            Pane canvasPane = new Pane();
+            canvasPane.setPrefHeight(200);
+            canvasPane.setMinWidth(0);
+            canvas = new Canvas(0, 200);
+            canvas.widthProperty().bind(canvasPane.widthProperty());
+            canvasPane.getChildren().add(canvas);
+
+            view = new VBox(8, title, canvasPane, statsLabel);
+            view.getStyleClass().add("info-panel");
+            view.setMinWidth(0);
+            updateLabel();
+        }
+
+        void run(boolean[] pushes, double[] values, int count) {
+            allocations.begin();
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                if (pushes[i]) {
+                    stack.push(values[i]);
+                } else {
+                    stack.pop();
+                }
+            }
+            nanos += System.nanoTime() - start;
+            allocations.end(count);
+            operations += count;
+            depths[pulses++ % depths.length] = stack.size();
+        }
+
+        void draw() {
+            double width = canvas.getWidth();
+            double height = canvas.getHeight();
+            GraphicsContext graphics = canvas.getGraphicsContext2D();
+            graphics.clearRect(0, 0, width, height);
+            int samples = Math.min(pulses, depths.length);
+            if (samples == 0 || width <= 0) {
+                return;
+            }
+            // Depth per pulse, newest at the right edge
+            double step = width / depths.length;
+            graphics.setFill(Color.web("#42A5F5"));
+            for (int i = 0; i < samples; i++) {
+                int depth = depths[(pulses - samples + i) % depths.length];
+                double bar = height * depth / stack.getCapacity();
+                double x = width - (samples - i) * step;
+                graphics.fillRect(x, height - bar, Math.max(step, 1), bar);
+            }
+        }
+
+        void updateLabel() {
+            double nanosPerOperation = operations == 0 ? 0 : (double) nanos / operations;
+            String rate = nanos == 0 ? "-" : String.format("%.1f", operations * 1e3 / nanos);
+            String allocation = AllocationMeter.isSupported()
+                ? String.format("%.2f B/op", allocations.getBytesPerOperation())
+                : "not measured";
+            statsLabel.setText(String.format("Depth: %,d%nTime: %.2f ns/op%nThroughput: %s Mops/s%nMemory: %s%nAllocation: %s",
+                stack.size(), nanosPerOperation, rate, Footprint.formatBytes(Footprint.of(stack).getTotalBytes()),
+                allocation));
+        }
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
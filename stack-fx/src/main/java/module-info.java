@@ -0,0 +1,7 @@
+module com.mycompany.stackoperationsimulator {
+    requires javafx.controls;
+    requires com.mycompany.stackoperationsimulator.core;
+    // Resolves the allocation counter that the core module only requires statically
+    requires jdk.management;
+    exports com.mycompany.stackoperationsimulator;
+}